@@ -13,6 +13,13 @@ package campuspaths;
 
 import campuspaths.utils.CORSFilter;
 import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonSerializer;
+import graph.Node;
+import marvel.MarvelCache;
+import marvel.MarvelService;
 import pathfinder.CampusMap;
 import pathfinder.datastructures.Path;
 import pathfinder.datastructures.Point;
@@ -21,8 +28,42 @@ import spark.Response;
 import spark.Route;
 import spark.Spark;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 public class SparkServer {
 
+    /**
+     * Most names a Marvel response lists unless the request asks for fewer.
+     */
+    private static final int DEFAULT_LIMIT = 100;
+
+    /**
+     * Most typos a Marvel name lookup forgives.
+     */
+    private static final int LOOKUP_EDITS = 2;
+
+    /**
+     * Writes a Path as its cost, its start, and the list of its segments,
+     * which is the shape the React application reads. Paths no longer keep
+     * their segments in one list field, so they are not written field by field.
+     */
+    private static final Gson PATH_GSON = new GsonBuilder()
+            .registerTypeAdapter(Path.class, (JsonSerializer<Path<?>>) (path, type, context) -> {
+                JsonObject json = new JsonObject();
+                json.addProperty("cost", path.getCost());
+                json.add("start", context.serialize(path.getStart()));
+                JsonArray segments = new JsonArray();
+                for (Path<?>.Segment segment : path) {
+                    segments.add(context.serialize(segment));
+                }
+                json.add("path", segments);
+                return json;
+            })
+            .create();
+
     public static void main(String[] args) {
         CORSFilter corsFilter = new CORSFilter();
         corsFilter.apply();
@@ -31,7 +72,9 @@ public class SparkServer {
         // comes from a different server.
         // You should leave these two lines at the very beginning of main().
 
-        CampusMap campusMap = new CampusMap();
+        // every route between buildings is found once, in parallel, so a route
+        // request is answered by looking it up
+        CampusMap campusMap = new CampusMap(true);
 
         Spark.get("/campusBuildings", new Route() {
             @Override
@@ -55,6 +98,82 @@ public class SparkServer {
                 } catch (IllegalArgumentException e) {
                     Spark.halt(400, "Please ensure your starting and ending buildings are valid");
                 }
+                return PATH_GSON.toJson(result);
+            }
+        });
+
+        // one read-only graph shared by every request; each worker thread
+        // keeps its own search scratch space inside the service
+        MarvelCache marvel = MarvelCache.load("marvel.csv");
+        MarvelService marvelService = new MarvelService(marvel.getGraph(), marvel.snapshot());
+
+        Spark.get("/marvel/path", new Route() {
+            @Override
+            public Object handle(Request request, Response response) throws Exception {
+                String startCharacter = request.queryParams("s");
+                String endCharacter = request.queryParams("e");
+                if (!(startCharacter != null && endCharacter != null)) {
+                    Spark.halt(400);
+                }
+                List<Node<String,String>.Edge> path = null;
+                try {
+                    path = marvelService.findPath(startCharacter, endCharacter);
+                } catch (IllegalArgumentException e) {
+                    Spark.halt(400, "Please ensure your starting and ending characters are valid");
+                }
+                List<Map<String, String>> steps = null;
+                if (path != null) {
+                    steps = new ArrayList<>();
+                    String last = startCharacter;
+                    for (Node<String,String>.Edge edge : path) {
+                        Map<String, String> step = new LinkedHashMap<>();
+                        step.put("from", last);
+                        step.put("to", edge.getChild().getLabel());
+                        step.put("book", edge.getEdgeLabel());
+                        steps.add(step);
+                        last = edge.getChild().getLabel();
+                    }
+                }
+                Gson gson = new Gson();
+                return gson.toJson(steps);
+            }
+        });
+
+        Spark.get("/marvel/neighbors", new Route() {
+            @Override
+            public Object handle(Request request, Response response) throws Exception {
+                String character = request.queryParams("c");
+                int k = intParam(request, "k", 1);
+                int limit = intParam(request, "limit", DEFAULT_LIMIT);
+                if (character == null) {
+                    Spark.halt(400);
+                }
+                List<String> characters = new ArrayList<>();
+                int count = 0;
+                try {
+                    count = marvelService.neighbors(character, k, limit, characters);
+                } catch (IllegalArgumentException e) {
+                    Spark.halt(400, "Please ensure the character is valid and k is not negative");
+                }
+                Map<String, Object> result = new LinkedHashMap<>();
+                result.put("count", count);
+                result.put("characters", characters);
+                Gson gson = new Gson();
+                return gson.toJson(result);
+            }
+        });
+
+        Spark.get("/marvel/lookup", new Route() {
+            @Override
+            public Object handle(Request request, Response response) throws Exception {
+                String query = request.queryParams("q");
+                int limit = intParam(request, "limit", DEFAULT_LIMIT);
+                if (query == null) {
+                    Spark.halt(400);
+                }
+                Map<String, Object> result = new LinkedHashMap<>();
+                result.put("match", marvelService.resolve(query));
+                result.put("names", marvelService.lookup(query, LOOKUP_EDITS, limit));
                 Gson gson = new Gson();
                 return gson.toJson(result);
             }
@@ -62,4 +181,28 @@ public class SparkServer {
 
     }
 
+    /**
+     * @param request = request to read the parameter of
+     * @param name = name of the query parameter
+     * @param fallback = value to use if the parameter is missing
+     * @return the value of the parameter, halting with a 400 response if it
+     * is not a non-negative integer
+     */
+    private static int intParam(Request request, String name, int fallback) {
+        String value = request.queryParams(name);
+        if (value == null) {
+            return fallback;
+        }
+        try {
+            int parsed = Integer.parseInt(value);
+            if (parsed >= 0) {
+                return parsed;
+            }
+        } catch (NumberFormatException e) {
+            // falls through to the bad request below
+        }
+        Spark.halt(400, "Please ensure " + name + " is a non-negative integer");
+        return fallback;
+    }
+
 }
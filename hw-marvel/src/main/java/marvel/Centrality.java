@@ -0,0 +1,382 @@
+package marvel;
+
+import graph.Graph;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.stream.IntStream;
+
+/**
+ * This class, Centrality, ranks the characters of a CompactGraph by
+ * influence. Degree is read straight off the offsets, PageRank is a power
+ * iteration over the arrays with every iteration split into blocks of rows
+ * that are updated in parallel, and betweenness is approximated by running
+ * Brandes' algorithm from a seeded sample of sources, in parallel. Every
+ * result is deterministic: parallel work is always combined in a fixed order.
+ */
+public class Centrality {
+
+    /**
+     * This class, Centrality, is not an ADT.
+     */
+
+    /**
+     * Probability of following an edge rather than jumping anywhere.
+     */
+    public static final double DAMPING = 0.85;
+
+    /**
+     * PageRank stops once an iteration moves less than this much rank in total.
+     */
+    public static final double TOLERANCE = 1e-9;
+
+    /**
+     * PageRank stops after this many iterations even if it has not converged.
+     */
+    public static final int MAX_ITERATIONS = 100;
+
+    /**
+     * Number of PageRank rows given to one parallel task.
+     */
+    private static final int BLOCK_SIZE = 256;
+
+    /**
+     * Number of betweenness sources given to one parallel task. A source costs
+     * a whole search where a row costs one sum, so blocks are much smaller,
+     * and fixed rather than sized by the number of cores so the sums come out
+     * the same on every machine.
+     */
+    private static final int SOURCE_BLOCK_SIZE = 16;
+
+    /**
+     * Number of characters listed per measure by main.
+     */
+    private static final int TOP = 10;
+
+    /**
+     * Number of betweenness sources sampled by main.
+     */
+    private static final int SAMPLES = 512;
+
+    /**
+     * Seed choosing the betweenness sources sampled by main.
+     */
+    private static final long SEED = 331;
+
+    /**
+     * Prints the most central characters of the Marvel graph by each measure
+     *
+     * @param args the arguments that are passed in when the class runs
+     * @throws IOException the arguments that are passed in when the class runs
+     */
+    public static void main(String[] args) throws IOException {
+        Graph<String,String> marvelGraph = MarvelPaths.createMarvelGraph("marvel.csv");
+        CompactGraph graph = CompactGraph.fromGraph(marvelGraph);
+
+        long start = System.nanoTime();
+        int[] degrees = degree(graph);
+        double[] degreeScores = new double[degrees.length];
+        for (int i = 0; i < degrees.length; i++) {
+            degreeScores[i] = degrees[i];
+        }
+        printTop("Degree", graph, degreeScores, start);
+
+        start = System.nanoTime();
+        printTop("PageRank", graph, pageRank(graph, DAMPING, TOLERANCE, MAX_ITERATIONS), start);
+
+        start = System.nanoTime();
+        printTop("Betweenness (" + SAMPLES + " samples)", graph, betweenness(graph, SAMPLES, SEED), start);
+    }
+
+    /**
+     * @param title = name of the measure
+     * @param graph = graph that was ranked
+     * @param scores = score of every character
+     * @param start = System.nanoTime() when the measure started
+     * @spec.effects prints the top characters and how long the measure took
+     */
+    private static void printTop(String title, CompactGraph graph, double[] scores, long start) {
+        long elapsed = System.nanoTime() - start;
+        System.out.println(title + ", computed in " + (elapsed / 1000000) + " ms:");
+        for (int id : top(scores, TOP)) {
+            System.out.println("  " + graph.name(id) + " " + String.format("%.6g", scores[id]));
+        }
+    }
+
+    /**
+     * @param graph = graph to rank
+     * @spec.requires graph != null
+     * @return the number of distinct characters each character has an edge
+     * to, indexed by id
+     */
+    public static int[] degree(CompactGraph graph) {
+        int[] degrees = new int[graph.size()];
+        for (int i = 0; i < degrees.length; i++) {
+            degrees[i] = graph.degree(i);
+        }
+        return degrees;
+    }
+
+    /**
+     * Computes PageRank by power iteration. The rank of a character with no
+     * edges is spread evenly over every character.
+     *
+     * @param graph = graph to rank
+     * @param damping = probability of following an edge
+     * @param tolerance = total change in rank below which the iteration stops
+     * @param maxIterations = most iterations to run
+     * @spec.requires graph != null
+     * @throws IllegalArgumentException if damping is not in [0, 1) or
+     * maxIterations is negative
+     * @return the PageRank of each character, indexed by id, summing to 1
+     */
+    public static double[] pageRank(CompactGraph graph, double damping, double tolerance, int maxIterations) {
+        if (!(damping >= 0 && damping < 1) || maxIterations < 0) {
+            throw new IllegalArgumentException("damping must be in [0, 1) and maxIterations non-negative");
+        }
+        int n = graph.size();
+        if (n == 0) {
+            return new double[0];
+        }
+        // rank flows along edges into a character, so pull it through the
+        // reverse edges; for the Marvel graph these are the same edges
+        int[] inOffsets = new int[n + 1];
+        int[] inNeighbors = reverse(graph, inOffsets);
+        int blocks = (n + BLOCK_SIZE - 1) / BLOCK_SIZE;
+
+        double[] rank = new double[n];
+        double[] next = new double[n];
+        double[] share = new double[n];
+        double[] blockDelta = new double[blocks];
+        Arrays.fill(rank, 1.0 / n);
+        for (int iteration = 0; iteration < maxIterations; iteration++) {
+            double dangling = 0;
+            for (int u = 0; u < n; u++) {
+                int degree = graph.degree(u);
+                if (degree == 0) {
+                    dangling += rank[u];
+                    share[u] = 0;
+                } else {
+                    share[u] = rank[u] / degree;
+                }
+            }
+            double base = (1 - damping + damping * dangling) / n;
+            double[] current = rank;
+            double[] updated = next;
+            IntStream.range(0, blocks).parallel().forEach(b -> {
+                double delta = 0;
+                for (int v = b * BLOCK_SIZE; v < Math.min(n, (b + 1) * BLOCK_SIZE); v++) {
+                    double sum = 0;
+                    for (int j = inOffsets[v]; j < inOffsets[v + 1]; j++) {
+                        sum += share[inNeighbors[j]];
+                    }
+                    updated[v] = base + damping * sum;
+                    delta += Math.abs(updated[v] - current[v]);
+                }
+                blockDelta[b] = delta;
+            });
+
+            double delta = 0;
+            for (double d : blockDelta) {
+                delta += d;
+            }
+            next = rank;
+            rank = updated;
+            if (delta < tolerance) {
+                break;
+            }
+        }
+        return rank;
+    }
+
+    /**
+     * Approximates betweenness centrality by running Brandes' algorithm from
+     * a random sample of sources and scaling the result up to all sources.
+     * Paths are counted between ordered pairs, so on an undirected graph every
+     * path is counted once from each end.
+     *
+     * @param graph = graph to rank
+     * @param samples = number of distinct sources to search from; all of them
+     *                if it is at least graph.size()
+     * @param seed = seed choosing the sources
+     * @spec.requires graph != null
+     * @throws IllegalArgumentException if samples is negative
+     * @return the estimated betweenness of each character, indexed by id
+     */
+    public static double[] betweenness(CompactGraph graph, int samples, long seed) {
+        if (samples < 0) {
+            throw new IllegalArgumentException("samples must be non-negative");
+        }
+        int n = graph.size();
+        int[] sources = sample(n, samples, seed);
+        int[] inOffsets = new int[n + 1];
+        int[] inNeighbors = reverse(graph, inOffsets);
+        int blocks = (sources.length + SOURCE_BLOCK_SIZE - 1) / SOURCE_BLOCK_SIZE;
+        double[][] partial = new double[blocks][];
+        IntStream.range(0, blocks).parallel().forEach(b -> {
+            Brandes brandes = new Brandes(graph, inOffsets, inNeighbors);
+            for (int i = b * SOURCE_BLOCK_SIZE; i < Math.min(sources.length, (b + 1) * SOURCE_BLOCK_SIZE); i++) {
+                brandes.accumulate(sources[i]);
+            }
+            partial[b] = brandes.centrality;
+        });
+
+        double[] centrality = new double[n];
+        double scale = sources.length == 0 ? 0 : (double) n / sources.length;
+        for (double[] block : partial) {
+            for (int v = 0; v < n; v++) {
+                centrality[v] += block[v];
+            }
+        }
+        for (int v = 0; v < n; v++) {
+            centrality[v] *= scale;
+        }
+        return centrality;
+    }
+
+    /**
+     * @param scores = score of every character, indexed by id
+     * @param limit = most ids to return
+     * @spec.requires scores != null && limit >= 0
+     * @return the ids of the up to limit highest scores, highest first and
+     * ties in order of id
+     */
+    public static int[] top(double[] scores, int limit) {
+        Integer[] order = new Integer[scores.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Double.compare(scores[b], scores[a]));
+        int[] ids = new int[Math.min(limit, order.length)];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = order[i];
+        }
+        return ids;
+    }
+
+    /**
+     * @param graph = graph to reverse
+     * @param offsets = filled in with where each character's reverse edges
+     *                start, graph.size() + 1 entries
+     * @spec.modifies offsets
+     * @return the ids with an edge to each character, grouped by character
+     */
+    private static int[] reverse(CompactGraph graph, int[] offsets) {
+        int n = graph.size();
+        for (int w : graph.neighbors) {
+            offsets[w + 1]++;
+        }
+        for (int v = 0; v < n; v++) {
+            offsets[v + 1] += offsets[v];
+        }
+        int[] next = Arrays.copyOf(offsets, n);
+        int[] reversed = new int[graph.neighbors.length];
+        for (int u = 0; u < n; u++) {
+            for (int j = graph.offsets[u]; j < graph.offsets[u + 1]; j++) {
+                int w = graph.neighbors[j];
+                reversed[next[w]] = u;
+                next[w]++;
+            }
+        }
+        return reversed;
+    }
+
+    /**
+     * @param n = number of ids to choose from
+     * @param samples = number of ids to choose
+     * @param seed = seed of the choice
+     * @return min(samples, n) distinct ids in [0, n), in increasing order
+     */
+    private static int[] sample(int n, int samples, long seed) {
+        int[] ids = IntStream.range(0, n).toArray();
+        if (samples >= n) {
+            return ids;
+        }
+        Random random = new Random(seed);
+        for (int i = 0; i < samples; i++) {
+            int j = i + random.nextInt(n - i);
+            int swap = ids[i];
+            ids[i] = ids[j];
+            ids[j] = swap;
+        }
+        int[] chosen = Arrays.copyOf(ids, samples);
+        Arrays.sort(chosen);
+        return chosen;
+    }
+
+    /**
+     * Scratch space for Brandes' algorithm, reused from one source to the
+     * next, and the dependencies accumulated so far
+     */
+    private static class Brandes {
+        private final CompactGraph graph;
+        private final int[] inOffsets;
+        private final int[] inNeighbors;
+        private final double[] centrality;
+        private final int[] distance;
+        private final double[] paths;
+        private final double[] dependency;
+        private final int[] order;
+
+        /**
+         * @param graph = graph to search
+         * @param inOffsets = where each character's reverse edges start
+         * @param inNeighbors = the ids with an edge to each character
+         * @spec.effects Constructs empty scratch space for the graph
+         */
+        private Brandes(CompactGraph graph, int[] inOffsets, int[] inNeighbors) {
+            int n = graph.size();
+            this.graph = graph;
+            this.inOffsets = inOffsets;
+            this.inNeighbors = inNeighbors;
+            this.centrality = new double[n];
+            this.distance = new int[n];
+            this.paths = new double[n];
+            this.dependency = new double[n];
+            this.order = new int[n];
+        }
+
+        /**
+         * @param source = id to search from
+         * @spec.modifies this
+         * @spec.effects adds the dependency of every character on source's
+         * shortest paths to centrality
+         */
+        private void accumulate(int source) {
+            int[] offsets = graph.offsets;
+            int[] neighbors = graph.neighbors;
+            Arrays.fill(distance, -1);
+            Arrays.fill(paths, 0);
+            Arrays.fill(dependency, 0);
+            distance[source] = 0;
+            paths[source] = 1;
+            order[0] = source;
+            int size = 1;
+            // order doubles as the queue: characters are visited in order of distance
+            for (int head = 0; head < size; head++) {
+                int v = order[head];
+                for (int j = offsets[v]; j < offsets[v + 1]; j++) {
+                    int w = neighbors[j];
+                    if (distance[w] < 0) {
+                        distance[w] = distance[v] + 1;
+                        order[size] = w;
+                        size++;
+                    }
+                    if (distance[w] == distance[v] + 1) {
+                        paths[w] += paths[v];
+                    }
+                }
+            }
+            for (int i = size - 1; i > 0; i--) {
+                int w = order[i];
+                for (int j = inOffsets[w]; j < inOffsets[w + 1]; j++) {
+                    int v = inNeighbors[j];
+                    if (distance[v] == distance[w] - 1) {
+                        dependency[v] += paths[v] / paths[w] * (1 + dependency[w]);
+                    }
+                }
+                centrality[w] += dependency[w];
+            }
+        }
+    }
+}
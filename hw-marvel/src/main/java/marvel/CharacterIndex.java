@@ -0,0 +1,242 @@
+package marvel;
+
+import java.util.*;
+
+/**
+ * CharacterIndex is an immutable index over the character names of a
+ * CompactGraph for autocompletion and forgiving lookups. Names in the data
+ * are upper case, full of punctuation and cut off after 20 characters, so
+ * every name is reduced to a key of its upper case letters and digits, and
+ * the keys are kept in one sorted array: a prefix is a binary search away,
+ * and typos are found by a bounded edit distance scan over the keys.
+ */
+public class CharacterIndex {
+
+    /**
+     * Abstraction function:
+     * AF(this) = for each i, the character graph.name(ids[i]) is found under
+     * the key keys[i]
+     *
+     * Representation invariant:
+     * graph != null && keys.length == ids.length == graph.size() &&
+     * keys[i] == normalize(graph.name(ids[i])) && the (keys[i], ids[i]) pairs
+     * are sorted by key and then by id
+     */
+
+    private static final boolean CHECK_REP = false;
+
+    /**
+     * Length the data file cuts character names off at.
+     */
+    private static final int TRUNCATED_LENGTH = 20;
+
+    private final CompactGraph graph;
+    private final String[] keys;
+    private final int[] ids;
+
+    /**
+     * @param graph = graph whose characters are indexed
+     * @spec.requires graph != null
+     * @spec.effects Constructs an index of every character in graph
+     */
+    public CharacterIndex(CompactGraph graph) {
+        this.graph = graph;
+        String[] normalized = new String[graph.size()];
+        Integer[] order = new Integer[graph.size()];
+        for (int i = 0; i < normalized.length; i++) {
+            normalized[i] = normalize(graph.name(i));
+            order[i] = i;
+        }
+        // ids are in name order, so sorting stably by key breaks ties by name
+        Arrays.sort(order, Comparator.comparing(i -> normalized[i]));
+        this.keys = new String[order.length];
+        this.ids = new int[order.length];
+        for (int i = 0; i < order.length; i++) {
+            keys[i] = normalized[order[i]];
+            ids[i] = order[i];
+        }
+        checkRep();
+    }
+
+    /**
+     * Finds the character a user most likely meant: the name itself if it is
+     * in the graph, otherwise the only character with the same letters and
+     * digits, otherwise the only cut off name the query starts with
+     *
+     * @param query = name typed by the user
+     * @spec.requires query != null
+     * @return the matching character name, or null if there is none or more
+     * than one equally good match
+     */
+    public String resolve(String query) {
+        if (graph.id(query) >= 0) {
+            return query;
+        }
+        String key = normalize(query);
+        if (key.isEmpty()) {
+            return null;
+        }
+        int first = lowerBound(key);
+        int last = first;
+        while (last < keys.length && keys[last].equals(key)) {
+            last++;
+        }
+        if (last - first == 1) {
+            return graph.name(ids[first]);
+        } else if (last - first > 1) {
+            return null;
+        }
+
+        // the query may be longer than the name it was cut off to
+        String match = null;
+        for (int length = key.length() - 1; length > 0 && match == null; length--) {
+            String prefix = key.substring(0, length);
+            for (int i = lowerBound(prefix); i < keys.length && keys[i].equals(prefix); i++) {
+                if (graph.name(ids[i]).length() >= TRUNCATED_LENGTH) {
+                    if (match != null) {
+                        return null;
+                    }
+                    match = graph.name(ids[i]);
+                }
+            }
+        }
+        return match;
+    }
+
+    /**
+     * @param prefix = start of a name typed by the user
+     * @param limit = most names to return
+     * @spec.requires prefix != null && limit >= 0
+     * @return up to limit names whose letters and digits start with those of
+     * prefix, in order of their letters and digits
+     */
+    public List<String> complete(String prefix, int limit) {
+        String key = normalize(prefix);
+        List<String> names = new ArrayList<>();
+        for (int i = lowerBound(key); i < keys.length && names.size() < limit && keys[i].startsWith(key); i++) {
+            names.add(graph.name(ids[i]));
+        }
+        return names;
+    }
+
+    /**
+     * @param query = possibly misspelled name typed by the user
+     * @param maxEdits = most single letter insertions, deletions or
+     *                 substitutions a suggestion can be away from the query
+     * @param limit = most names to return
+     * @spec.requires query != null && maxEdits >= 0 && limit >= 0
+     * @return up to limit names within maxEdits edits of the query, comparing
+     * letters and digits only, closest first and ties in order of name
+     */
+    public List<String> suggest(String query, int maxEdits, int limit) {
+        String key = normalize(query);
+        List<int[]> found = new ArrayList<>();
+        int[] previous = new int[key.length() + 1];
+        int[] current = new int[key.length() + 1];
+        for (int i = 0; i < keys.length; i++) {
+            if (Math.abs(keys[i].length() - key.length()) <= maxEdits) {
+                int distance = editDistance(keys[i], key, maxEdits, previous, current);
+                if (distance <= maxEdits) {
+                    found.add(new int[] {distance, ids[i]});
+                }
+            }
+        }
+        found.sort((a, b) -> a[0] != b[0] ? Integer.compare(a[0], b[0]) : Integer.compare(a[1], b[1]));
+
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < found.size() && i < limit; i++) {
+            names.add(graph.name(found.get(i)[1]));
+        }
+        return names;
+    }
+
+    /**
+     * @param name = a character name or query
+     * @return the upper case letters and digits of name, in order
+     */
+    static String normalize(String name) {
+        StringBuilder key = new StringBuilder(name.length());
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                key.append(Character.toUpperCase(c));
+            }
+        }
+        return key.toString();
+    }
+
+    /**
+     * @param key = key to search for
+     * @return the first index whose key is not less than the given key
+     */
+    private int lowerBound(String key) {
+        int low = 0;
+        int high = keys.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keys[mid].compareTo(key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Levenshtein distance that only fills in the cells within bound of the
+     * diagonal, since any other cell is already over the bound, and gives up
+     * once a whole row is over the bound
+     *
+     * @param a = first string
+     * @param b = second string
+     * @param bound = largest distance of interest
+     * @param previous = scratch row of b.length() + 1 entries
+     * @param current = scratch row of b.length() + 1 entries
+     * @return the edit distance between a and b, or bound + 1 if it is larger than bound
+     */
+    private static int editDistance(String a, String b, int bound, int[] previous, int[] current) {
+        int over = bound + 1;
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = Math.min(j, over);
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            int from = Math.max(1, i - bound);
+            int to = Math.min(b.length(), i + bound);
+            current[from - 1] = from == 1 ? Math.min(i, over) : over;
+            int rowMin = current[from - 1];
+            for (int j = from; j <= to; j++) {
+                int substitute = previous[j - 1] + (a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1);
+                int insert = j < i + bound ? previous[j] + 1 : over;
+                current[j] = Math.min(Math.min(substitute, insert), Math.min(current[j - 1] + 1, over));
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (to < b.length()) {
+                current[to + 1] = over;
+            }
+            if (rowMin > bound) {
+                return over;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()];
+    }
+
+    /**
+     * Throws an exception if the representation invariant is violated
+     */
+    private void checkRep() {
+        assert graph != null && keys != null && ids != null : "fields cannot be null";
+        assert keys.length == ids.length && ids.length == graph.size() : "one key per character";
+
+        if (CHECK_REP) {
+            for (int i = 0; i < keys.length; i++) {
+                assert keys[i].equals(normalize(graph.name(ids[i]))) : "key must match name";
+                assert i == 0 || keys[i - 1].compareTo(keys[i]) < 0
+                        || (keys[i - 1].equals(keys[i]) && ids[i - 1] < ids[i]) : "keys must be sorted";
+            }
+        }
+    }
+}
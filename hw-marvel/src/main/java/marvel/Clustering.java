@@ -0,0 +1,262 @@
+package marvel;
+
+import graph.Graph;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.IntStream;
+
+/**
+ * This class, Clustering, counts the triangles of a CompactGraph and derives
+ * the clustering coefficients from them. Every edge is pointed from the
+ * character of lower degree to the one of higher degree (ties broken by id),
+ * so each triangle is found exactly once, from its lowest ranked corner, by
+ * intersecting two sorted forward lists with a merge. Pointing edges up the
+ * degree order keeps the forward lists of the hubs short, which is what
+ * makes this fast on the Marvel graph. Characters are counted in parallel
+ * blocks, each worker adding into an array of its own, and the workers'
+ * arrays are summed at the end; the counts are integers, so the sum does not
+ * depend on which worker ran which block.
+ */
+public class Clustering {
+
+    /**
+     * This class, Clustering, is not an ADT.
+     */
+
+    /**
+     * Number of characters given to one parallel task.
+     */
+    private static final int BLOCK_SIZE = 256;
+
+    /**
+     * Prints the triangle count and clustering coefficients of the Marvel graph
+     *
+     * @param args the arguments that are passed in when the class runs
+     * @throws IOException the arguments that are passed in when the class runs
+     */
+    public static void main(String[] args) throws IOException {
+        Graph<String,String> marvelGraph = MarvelPaths.createMarvelGraph("marvel.csv");
+        CompactGraph graph = CompactGraph.fromGraph(marvelGraph);
+        long start = System.nanoTime();
+        Report report = analyze(graph);
+        long elapsed = System.nanoTime() - start;
+        System.out.println("Triangles: " + report.triangles());
+        System.out.println("Global clustering coefficient: " + String.format("%.4f", report.globalCoefficient()));
+        System.out.println("Average clustering coefficient: " + String.format("%.4f", report.averageCoefficient()));
+        System.out.println("Analyzed " + graph.size() + " characters in " + (elapsed / 1000000) + " ms");
+    }
+
+    /**
+     * Counts the triangles through every character
+     *
+     * @param graph = graph to analyze
+     * @spec.requires graph != null && every edge of graph has a reverse edge
+     * @return report of the triangles and clustering of graph
+     */
+    public static Report analyze(CompactGraph graph) {
+        int n = graph.size();
+        int[] forwardOffsets = new int[n + 1];
+        int[] forward = orient(graph, forwardOffsets);
+
+        int blocks = (n + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        Queue<long[]> partial = new ConcurrentLinkedQueue<>();
+        ThreadLocal<long[]> counts = ThreadLocal.withInitial(() -> {
+            long[] worker = new long[n];
+            partial.add(worker);
+            return worker;
+        });
+        IntStream.range(0, blocks).parallel().forEach(b -> {
+            long[] triangles = counts.get();
+            for (int u = b * BLOCK_SIZE; u < Math.min(n, (b + 1) * BLOCK_SIZE); u++) {
+                for (int j = forwardOffsets[u]; j < forwardOffsets[u + 1]; j++) {
+                    int v = forward[j];
+                    // every common forward neighbor w closes the triangle u, v, w
+                    int a = forwardOffsets[u];
+                    int c = forwardOffsets[v];
+                    while (a < forwardOffsets[u + 1] && c < forwardOffsets[v + 1]) {
+                        if (forward[a] < forward[c]) {
+                            a++;
+                        } else if (forward[a] > forward[c]) {
+                            c++;
+                        } else {
+                            triangles[u]++;
+                            triangles[v]++;
+                            triangles[forward[a]]++;
+                            a++;
+                            c++;
+                        }
+                    }
+                }
+            }
+        });
+
+        long[] triangles = new long[n];
+        for (long[] block : partial) {
+            for (int v = 0; v < n; v++) {
+                triangles[v] += block[v];
+            }
+        }
+        return new Report(graph, triangles);
+    }
+
+    /**
+     * @param graph = graph to orient
+     * @param offsets = filled in with where each character's forward edges
+     *                start, graph.size() + 1 entries
+     * @spec.modifies offsets
+     * @return the forward neighbors of every character, the neighbors of
+     * higher degree or of equal degree and higher id, in increasing id order
+     */
+    private static int[] orient(CompactGraph graph, int[] offsets) {
+        int n = graph.size();
+        for (int v = 0; v < n; v++) {
+            int count = 0;
+            for (int j = graph.offsets[v]; j < graph.offsets[v + 1]; j++) {
+                if (precedes(graph, v, graph.neighbors[j])) {
+                    count++;
+                }
+            }
+            offsets[v + 1] = offsets[v] + count;
+        }
+        int[] forward = new int[offsets[n]];
+        int next = 0;
+        for (int v = 0; v < n; v++) {
+            for (int j = graph.offsets[v]; j < graph.offsets[v + 1]; j++) {
+                if (precedes(graph, v, graph.neighbors[j])) {
+                    forward[next] = graph.neighbors[j];
+                    next++;
+                }
+            }
+        }
+        return forward;
+    }
+
+    /**
+     * @param graph = graph being oriented
+     * @param v = id of a character
+     * @param w = id of another character
+     * @return true iff v comes before w in the order of degree, then id
+     */
+    private static boolean precedes(CompactGraph graph, int v, int w) {
+        int dv = graph.degree(v);
+        int dw = graph.degree(w);
+        return dv < dw || (dv == dw && v < w);
+    }
+
+    /**
+     * Report is the immutable result of counting triangles
+     */
+    public static class Report {
+        /**
+         * Abstraction function:
+         * AF(this) = character i is a corner of triangles[i] triangles of graph
+         *
+         * Representation invariant:
+         * graph != null && triangles.length == graph.size() &&
+         * the sum of triangles is a multiple of 3
+         */
+
+        private final CompactGraph graph;
+        private final long[] triangles;
+
+        /**
+         * @param graph = graph that was analyzed
+         * @param triangles = triangles through each character
+         * @spec.effects Constructs a report over the given counts
+         */
+        private Report(CompactGraph graph, long[] triangles) {
+            this.graph = graph;
+            this.triangles = triangles;
+            checkRep();
+        }
+
+        /**
+         * @return the number of triangles in the graph
+         */
+        public long triangles() {
+            long corners = 0;
+            for (long count : triangles) {
+                corners += count;
+            }
+            return corners / 3;
+        }
+
+        /**
+         * @param character = name of a character
+         * @return the number of triangles the character is a corner of
+         * @throws IllegalArgumentException if the character is not in the graph
+         */
+        public long triangles(String character) {
+            return triangles[idOf(character)];
+        }
+
+        /**
+         * @param character = name of a character
+         * @return the fraction of pairs of the character's neighbors that are
+         * themselves connected, or 0 if it has fewer than two neighbors
+         * @throws IllegalArgumentException if the character is not in the graph
+         */
+        public double coefficient(String character) {
+            return coefficient(idOf(character));
+        }
+
+        /**
+         * @return three times the number of triangles over the number of paths
+         * of two edges, or 0 if there are no such paths
+         */
+        public double globalCoefficient() {
+            long wedges = 0;
+            for (int v = 0; v < triangles.length; v++) {
+                long degree = graph.degree(v);
+                wedges += degree * (degree - 1) / 2;
+            }
+            return wedges == 0 ? 0 : 3.0 * triangles() / wedges;
+        }
+
+        /**
+         * @return the mean clustering coefficient over every character, or 0
+         * if the graph is empty
+         */
+        public double averageCoefficient() {
+            double sum = 0;
+            for (int v = 0; v < triangles.length; v++) {
+                sum += coefficient(v);
+            }
+            return triangles.length == 0 ? 0 : sum / triangles.length;
+        }
+
+        /**
+         * @param id = id of a character
+         * @return the clustering coefficient of the character
+         */
+        private double coefficient(int id) {
+            long degree = graph.degree(id);
+            return degree < 2 ? 0 : 2.0 * triangles[id] / (degree * (degree - 1));
+        }
+
+        /**
+         * @param character = name of a character
+         * @return the id of the character
+         * @throws IllegalArgumentException if the character is not in the graph
+         */
+        private int idOf(String character) {
+            int id = graph.id(character);
+            if (id < 0) {
+                throw new IllegalArgumentException(character + " is not in the graph");
+            }
+            return id;
+        }
+
+        /**
+         * Throws an exception if the representation invariant is violated
+         */
+        private void checkRep() {
+            assert graph != null && triangles != null : "fields cannot be null";
+            assert triangles.length == graph.size() : "one count per character";
+            assert Arrays.stream(triangles).sum() % 3 == 0 : "every triangle has three corners";
+        }
+    }
+}
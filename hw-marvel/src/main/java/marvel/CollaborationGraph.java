@@ -0,0 +1,66 @@
+package marvel;
+
+import graph.Graph;
+import graph.Node;
+import pathfinder.Dijkstra;
+import pathfinder.datastructures.Path;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class, CollaborationGraph, builds the weighted collaboration graph of
+ * the Marvel universe: one edge per pair of characters that appear together,
+ * weighted by how strong their connection is. Two characters sharing n books
+ * are 1 / n apart, so the least cost path found by the pathfinder Dijkstra
+ * search is the strongest chain of connections rather than the shortest one.
+ */
+public class CollaborationGraph {
+
+    /**
+     * This class, CollaborationGraph, is not an ADT.
+     */
+
+    /**
+     * Builds the weighted graph of the given snapshot
+     *
+     * @param snapshot = snapshot of a character graph
+     * @spec.requires snapshot != null
+     * @return a graph with a node for every character of snapshot and one edge
+     * per connected pair, weighted 1 / (number of books the pair shares)
+     */
+    public static Graph<String, Double> fromSnapshot(CompactGraph snapshot) {
+        Graph<String, Double> graph = new Graph<>();
+        List<Node<String, Double>> nodes = new ArrayList<>(snapshot.size());
+        for (int i = 0; i < snapshot.size(); i++) {
+            Node<String, Double> node = new Node<>(snapshot.name(i));
+            graph.addNode(node);
+            nodes.add(node);
+        }
+        for (int i = 0; i < snapshot.size(); i++) {
+            for (int j = snapshot.offsets[i]; j < snapshot.offsets[i + 1]; j++) {
+                graph.addEdge(nodes.get(i), nodes.get(snapshot.neighbors[j]), 1.0 / snapshot.multiplicity[j]);
+            }
+        }
+        return graph;
+    }
+
+    /**
+     * Finds the strongest connection between two characters
+     *
+     * @param graph = weighted graph built by fromSnapshot
+     * @param startingCharacter = vertex value of the starting character
+     * @param endingCharacter = vertex value of the ending character
+     * @spec.requires graph != null
+     * @throws IllegalArgumentException if either character is not in the graph
+     * @return the least cost path between the two characters, or null if
+     * there is none
+     */
+    public static Path<String> strongestPath(Graph<String, Double> graph, String startingCharacter,
+                                             String endingCharacter) {
+        if (graph.getNode(startingCharacter) == null || graph.getNode(endingCharacter) == null) {
+            throw new IllegalArgumentException();
+        }
+        return Dijkstra.dijkstraAlgorithm(startingCharacter, endingCharacter, graph);
+    }
+}
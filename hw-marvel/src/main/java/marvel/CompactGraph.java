@@ -0,0 +1,225 @@
+package marvel;
+
+import graph.Graph;
+import graph.Node;
+
+import java.util.*;
+
+/**
+ * CompactGraph is an immutable, array based snapshot of a character graph.
+ * Every character is given a dense int id (ids follow the lexicographic order
+ * of the names, so comparing ids is the same as comparing names) and the
+ * neighbors of each character are stored once, sorted by id, in a single
+ * shared array. Parallel edges (two characters sharing several books) are
+ * collapsed into one edge labeled with the least of their books and counting
+ * how many there were, and self loops are dropped, which is all the
+ * whole-graph analytics need.
+ */
+public class CompactGraph {
+
+    /**
+     * Abstraction function:
+     * AF(this) = an undirected-or-directed simple graph whose vertices are
+     * names[0], ..., names[names.length - 1], where vertex i has an edge to
+     * every vertex neighbors[offsets[i]], ..., neighbors[offsets[i + 1] - 1],
+     * the edge at index j of neighbors being labeled labels[j] and standing for
+     * multiplicity[j] parallel edges of the original graph
+     *
+     * Representation invariant:
+     * names != null && names is sorted and has no duplicates &&
+     * offsets.length == names.length + 1 && offsets[0] == 0 &&
+     * offsets is non-decreasing && offsets[names.length] == neighbors.length &&
+     * the neighbors of every vertex are strictly increasing, in range and
+     * never the vertex itself && labels.length == neighbors.length &&
+     * labels contains no null && multiplicity.length == neighbors.length &&
+     * every multiplicity is positive
+     */
+
+    private static final boolean CHECK_REP = false;
+
+    // the arrays are package-private so the algorithms in this package can scan
+    // them without copying; they are never handed out by the public methods
+    final String[] names;
+    final int[] offsets;
+    final int[] neighbors;
+    final String[] labels;
+    final int[] multiplicity;
+
+    /**
+     * @param names = sorted character names, indexed by id
+     * @param offsets = start of each character's neighbors in neighbors
+     * @param neighbors = concatenated, sorted neighbor ids of every character
+     * @param labels = label of the edge to each entry of neighbors
+     * @param multiplicity = number of parallel edges to each entry of neighbors
+     * @spec.requires the arrays satisfy the representation invariant
+     * @spec.effects Constructs a snapshot over the given arrays
+     */
+    CompactGraph(String[] names, int[] offsets, int[] neighbors, String[] labels, int[] multiplicity) {
+        this.names = names;
+        this.offsets = offsets;
+        this.neighbors = neighbors;
+        this.labels = labels;
+        this.multiplicity = multiplicity;
+        checkRep();
+    }
+
+    /**
+     * Builds a snapshot of the given graph. Later changes to the graph are
+     * not reflected in the snapshot.
+     *
+     * @param graph = graph to take a snapshot of
+     * @spec.requires graph != null
+     * @return a snapshot with one vertex per node of graph and one edge per
+     * distinct pair of connected nodes, labeled with the least label between them
+     */
+    public static CompactGraph fromGraph(Graph<String,String> graph) {
+        String[] names = graph.getNodes().toArray(new String[0]);
+        Arrays.sort(names);
+        Map<String, Integer> ids = new HashMap<>();
+        for (int i = 0; i < names.length; i++) {
+            ids.put(names[i], i);
+        }
+
+        int[] offsets = new int[names.length + 1];
+        int[][] adjacency = new int[names.length][];
+        String[][] adjacencyLabels = new String[names.length][];
+        int[][] adjacencyCounts = new int[names.length][];
+        Map<Integer, String> least = new HashMap<>();
+        Map<Integer, Integer> parallel = new HashMap<>();
+        for (int i = 0; i < names.length; i++) {
+            least.clear();
+            parallel.clear();
+            for (Node<String,String>.Edge edge : graph.getNode(names[i]).getEdges()) {
+                int child = ids.get(edge.getChild().getLabel());
+                if (child != i) {
+                    least.merge(child, edge.getEdgeLabel(), (a, b) -> a.compareTo(b) <= 0 ? a : b);
+                    parallel.merge(child, 1, Integer::sum);
+                }
+            }
+            adjacency[i] = new int[least.size()];
+            int count = 0;
+            for (int child : least.keySet()) {
+                adjacency[i][count] = child;
+                count++;
+            }
+            Arrays.sort(adjacency[i]);
+            adjacencyLabels[i] = new String[count];
+            adjacencyCounts[i] = new int[count];
+            for (int j = 0; j < count; j++) {
+                adjacencyLabels[i][j] = least.get(adjacency[i][j]);
+                adjacencyCounts[i][j] = parallel.get(adjacency[i][j]);
+            }
+            offsets[i + 1] = offsets[i] + count;
+        }
+
+        int[] neighbors = new int[offsets[names.length]];
+        String[] labels = new String[neighbors.length];
+        int[] multiplicity = new int[neighbors.length];
+        for (int i = 0; i < names.length; i++) {
+            System.arraycopy(adjacency[i], 0, neighbors, offsets[i], adjacency[i].length);
+            System.arraycopy(adjacencyLabels[i], 0, labels, offsets[i], adjacencyLabels[i].length);
+            System.arraycopy(adjacencyCounts[i], 0, multiplicity, offsets[i], adjacencyCounts[i].length);
+        }
+        return new CompactGraph(names, offsets, neighbors, labels, multiplicity);
+    }
+
+    /**
+     * @return the number of characters in this graph
+     */
+    public int size() {
+        return names.length;
+    }
+
+    /**
+     * @return the number of distinct (parent, child) edges in this graph
+     */
+    public int edgeCount() {
+        return neighbors.length;
+    }
+
+    /**
+     * @param id = id of the character
+     * @spec.requires 0 <= id < size()
+     * @return the name of the character with the given id
+     */
+    public String name(int id) {
+        return names[id];
+    }
+
+    /**
+     * @param name = name of the character
+     * @return the id of the character with the given name, or -1 if the
+     * character is not in this graph
+     */
+    public int id(String name) {
+        int index = Arrays.binarySearch(names, name);
+        return index >= 0 ? index : -1;
+    }
+
+    /**
+     * @param id = id of the character
+     * @spec.requires 0 <= id < size()
+     * @return the number of distinct characters the character has an edge to
+     */
+    public int degree(int id) {
+        return offsets[id + 1] - offsets[id];
+    }
+
+    /**
+     * @param id = id of the character
+     * @spec.requires 0 <= id < size()
+     * @return a new array of the ids the character has an edge to, in
+     * increasing order
+     */
+    public int[] neighbors(int id) {
+        return Arrays.copyOfRange(neighbors, offsets[id], offsets[id + 1]);
+    }
+
+    /**
+     * @param id = id of the parent character
+     * @param child = id of the child character
+     * @spec.requires 0 <= id, child < size()
+     * @return the least label of the edges from id to child, or null if there
+     * is no such edge
+     */
+    public String label(int id, int child) {
+        int index = Arrays.binarySearch(neighbors, offsets[id], offsets[id + 1], child);
+        return index >= 0 ? labels[index] : null;
+    }
+
+    /**
+     * @param id = id of the parent character
+     * @param child = id of the child character
+     * @spec.requires 0 <= id, child < size()
+     * @return the number of parallel edges from id to child that were
+     * collapsed into one, 0 if there are none
+     */
+    public int multiplicity(int id, int child) {
+        int index = Arrays.binarySearch(neighbors, offsets[id], offsets[id + 1], child);
+        return index >= 0 ? multiplicity[index] : 0;
+    }
+
+    /**
+     * Throws an exception if the representation invariant is violated
+     */
+    private void checkRep() {
+        assert names != null : "names cannot be null";
+        assert offsets != null && offsets.length == names.length + 1 : "one offset per character plus one";
+        assert neighbors != null && offsets[names.length] == neighbors.length : "offsets must cover neighbors";
+        assert labels != null && labels.length == neighbors.length : "one label per edge";
+        assert multiplicity != null && multiplicity.length == neighbors.length : "one multiplicity per edge";
+
+        if (CHECK_REP) {
+            for (int i = 0; i < names.length; i++) {
+                assert i == 0 || names[i - 1].compareTo(names[i]) < 0 : "names must be sorted and unique";
+                for (int j = offsets[i]; j < offsets[i + 1]; j++) {
+                    assert neighbors[j] >= 0 && neighbors[j] < names.length : "neighbor out of range";
+                    assert neighbors[j] != i : "no self loops";
+                    assert j == offsets[i] || neighbors[j - 1] < neighbors[j] : "neighbors must be sorted and unique";
+                    assert labels[j] != null : "labels cannot be null";
+                    assert multiplicity[j] > 0 : "every edge stands for at least one edge";
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,305 @@
+package marvel;
+
+import graph.Graph;
+import graph.Node;
+
+import java.util.*;
+
+/**
+ * KShortestPaths finds alternatives to the path MarvelPaths.findPath
+ * returns: the k shortest paths between two characters that never visit a
+ * character twice, by Yen's algorithm over a CompactGraph snapshot. Paths are
+ * ordered by length and then by the names along them, which makes the first
+ * one the path findPath returns and the whole answer deterministic.
+ *
+ * Every spur search of Yen's algorithm is a breadth first search that reuses
+ * the same arrays, and the distance of every character to the destination,
+ * computed once per query, bounds how short a spur can be: spurs that cannot
+ * beat the candidates already found are skipped, and a spur search never
+ * expands a character that is too far from the destination. A
+ * KShortestPaths is not safe to use from several threads at once.
+ */
+public class KShortestPaths {
+
+    /**
+     * Abstraction function:
+     * AF(this) = a k shortest paths finder over graph, whose characters and
+     * edges are also given by snapshot; the remaining fields are scratch
+     * space of the current query
+     *
+     * Representation invariant:
+     * graph != null && snapshot != null && every scratch array has
+     * snapshot.size() entries
+     */
+
+    private static final boolean CHECK_REP = false;
+
+    /**
+     * Distance of a character the destination cannot be reached from.
+     */
+    private static final int UNREACHABLE = -1;
+
+    private final Graph<String,String> graph;
+    private final CompactGraph snapshot;
+
+    // distance of every character to the destination of the current query
+    private final int[] toEnd;
+    // visited[v] == search iff v has been reached by the current spur search,
+    // blocked[v] == search iff v is on the root path, and skipped[v] == search
+    // iff the edge from the spur character to v is removed
+    private final int[] visited;
+    private final int[] blocked;
+    private final int[] skipped;
+    private final int[] parent;
+    private final int[] queue;
+    private int search;
+
+    /**
+     * @param graph = graph the paths are reported in
+     * @param snapshot = snapshot of graph
+     * @spec.requires graph != null && snapshot is CompactGraph.fromGraph(graph)
+     * and graph has not changed since
+     * @spec.effects Constructs a path finder over the graph
+     */
+    public KShortestPaths(Graph<String,String> graph, CompactGraph snapshot) {
+        int n = snapshot.size();
+        this.graph = graph;
+        this.snapshot = snapshot;
+        this.toEnd = new int[n];
+        this.visited = new int[n];
+        this.blocked = new int[n];
+        this.skipped = new int[n];
+        this.parent = new int[n];
+        this.queue = new int[n];
+        this.search = 0;
+        checkRep();
+    }
+
+    /**
+     * Finds the k shortest simple paths between two characters
+     *
+     * @param startingCharacter = vertex value of the starting character
+     * @param endingCharacter = vertex value of the ending character
+     * @param k = most paths to return
+     * @spec.requires every edge of the graph has a reverse edge
+     * @throws IllegalArgumentException if either character is not in the
+     * graph or k is negative
+     * @return up to k paths that visit no character twice, shortest first
+     * and paths of the same length in order of the names along them; the
+     * first is the path MarvelPaths.findPath returns
+     */
+    public List<List<Node<String,String>.Edge>> findPaths(String startingCharacter, String endingCharacter, int k) {
+        int start = snapshot.id(startingCharacter);
+        int end = snapshot.id(endingCharacter);
+        if (start < 0 || end < 0 || k < 0) {
+            throw new IllegalArgumentException();
+        }
+        List<List<Node<String,String>.Edge>> paths = new ArrayList<>();
+        if (k == 0) {
+            return paths;
+        }
+        if (start == end) {
+            paths.add(new ArrayList<>());
+            return paths;
+        }
+        distancesTo(end);
+        if (toEnd[start] == UNREACHABLE) {
+            return paths;
+        }
+
+        List<int[]> found = new ArrayList<>();
+        TreeSet<int[]> candidates = new TreeSet<>(KShortestPaths::compare);
+        candidates.add(spur(new int[] {start}, end, Integer.MAX_VALUE, found));
+        while (found.size() < k && !candidates.isEmpty()) {
+            int[] best = candidates.pollFirst();
+            found.add(best);
+            if (found.size() == k) {
+                break;
+            }
+            // every prefix of the newest path is the root of a new candidate
+            for (int i = 0; i + 1 < best.length; i++) {
+                int bound = Integer.MAX_VALUE;
+                int needed = k - found.size();
+                if (candidates.size() >= needed) {
+                    bound = nth(candidates, needed).length - 1;
+                }
+                // the spur cannot be shorter than the spur character's distance to end
+                if (i + toEnd[best[i]] > bound) {
+                    continue;
+                }
+                int[] candidate = spur(Arrays.copyOf(best, i + 1), end, bound, found);
+                if (candidate != null) {
+                    candidates.add(candidate);
+                }
+            }
+        }
+
+        for (int[] path : found) {
+            paths.add(toEdges(path));
+        }
+        return paths;
+    }
+
+    /**
+     * Finds the shortest and least path from the end of root to end that
+     * avoids the other characters of root and leaves root by an edge none of
+     * the found paths starting with root take
+     *
+     * @param root = path the candidate starts with
+     * @param end = id of the destination
+     * @param bound = longest candidate of interest, in edges
+     * @param found = paths found so far
+     * @spec.modifies the scratch arrays
+     * @return root followed by the spur path, or null if there is none of at
+     * most bound edges in total
+     */
+    private int[] spur(int[] root, int end, int bound, List<int[]> found) {
+        search++;
+        int spur = root[root.length - 1];
+        for (int i = 0; i + 1 < root.length; i++) {
+            blocked[root[i]] = search;
+        }
+        for (int[] path : found) {
+            if (path.length > root.length && startsWith(path, root)) {
+                skipped[path[root.length]] = search;
+            }
+        }
+
+        int[] offsets = snapshot.offsets;
+        int[] neighbors = snapshot.neighbors;
+        int rootEdges = root.length - 1;
+        visited[spur] = search;
+        queue[0] = spur;
+        int size = 1;
+        int depth = 0;
+        int levelEnd = 1;
+        for (int head = 0; head < size; head++) {
+            if (head == levelEnd) {
+                depth++;
+                levelEnd = size;
+            }
+            int v = queue[head];
+            for (int j = offsets[v]; j < offsets[v + 1]; j++) {
+                int w = neighbors[j];
+                if (visited[w] == search || blocked[w] == search || (v == spur && skipped[w] == search)) {
+                    continue;
+                }
+                // w is at least toEnd[w] more edges from end, removals only make it farther
+                if (toEnd[w] == UNREACHABLE || (long) rootEdges + depth + 1 + toEnd[w] > bound) {
+                    continue;
+                }
+                visited[w] = search;
+                parent[w] = v;
+                queue[size] = w;
+                size++;
+                if (w == end) {
+                    int[] path = Arrays.copyOf(root, root.length + depth + 1);
+                    for (int i = path.length - 1, u = end; u != spur; i--, u = parent[u]) {
+                        path[i] = u;
+                    }
+                    return path;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @param end = id of the destination
+     * @spec.modifies toEnd, queue
+     * @spec.effects sets toEnd to the distance of every character to end, or
+     * UNREACHABLE
+     */
+    private void distancesTo(int end) {
+        int[] offsets = snapshot.offsets;
+        int[] neighbors = snapshot.neighbors;
+        Arrays.fill(toEnd, UNREACHABLE);
+        toEnd[end] = 0;
+        queue[0] = end;
+        int size = 1;
+        for (int head = 0; head < size; head++) {
+            int v = queue[head];
+            for (int j = offsets[v]; j < offsets[v + 1]; j++) {
+                int w = neighbors[j];
+                if (toEnd[w] == UNREACHABLE) {
+                    toEnd[w] = toEnd[v] + 1;
+                    queue[size] = w;
+                    size++;
+                }
+            }
+        }
+    }
+
+    /**
+     * @param path = ids along a path
+     * @return the path as edges of graph, each labeled with the least book of
+     * the characters it connects
+     */
+    private List<Node<String,String>.Edge> toEdges(int[] path) {
+        List<Node<String,String>.Edge> edges = new ArrayList<>();
+        for (int i = 0; i + 1 < path.length; i++) {
+            Node<String,String> parentNode = graph.getNode(snapshot.name(path[i]));
+            edges.add(parentNode.new Edge(graph.getNode(snapshot.name(path[i + 1])),
+                    snapshot.label(path[i], path[i + 1])));
+        }
+        return edges;
+    }
+
+    /**
+     * @param path = ids along a path
+     * @param prefix = ids along another path
+     * @return true iff path starts with prefix
+     */
+    private static boolean startsWith(int[] path, int[] prefix) {
+        for (int i = 0; i < prefix.length; i++) {
+            if (path[i] != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @param candidates = candidate paths, in order
+     * @param n = position wanted, counting from 1
+     * @spec.requires candidates.size() >= n
+     * @return the nth candidate
+     */
+    private static int[] nth(TreeSet<int[]> candidates, int n) {
+        Iterator<int[]> iterator = candidates.iterator();
+        int[] path = iterator.next();
+        for (int i = 1; i < n; i++) {
+            path = iterator.next();
+        }
+        return path;
+    }
+
+    /**
+     * Orders paths by length and then by the ids along them, which is the
+     * order of the names along them
+     *
+     * @param a = ids along a path
+     * @param b = ids along another path
+     * @return a negative number, zero, or a positive number as a comes
+     * before, is the same as, or comes after b
+     */
+    private static int compare(int[] a, int[] b) {
+        if (a.length != b.length) {
+            return Integer.compare(a.length, b.length);
+        }
+        return Arrays.compare(a, b);
+    }
+
+    /**
+     * Throws an exception if the representation invariant is violated
+     */
+    private void checkRep() {
+        assert graph != null && snapshot != null : "graph and snapshot cannot be null";
+
+        if (CHECK_REP) {
+            int n = snapshot.size();
+            assert toEnd.length == n && visited.length == n && blocked.length == n && skipped.length == n;
+            assert parent.length == n && queue.length == n;
+        }
+    }
+}
@@ -0,0 +1,361 @@
+package marvel;
+
+import graph.Graph;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * This class, LabelPropagation, groups the characters of a CompactGraph into
+ * communities. Every character starts in a community of its own and then
+ * repeatedly joins the community it shares the most books with among its
+ * neighbors. Each round is run in two halves, with a seeded coin putting
+ * every character in one of them; the characters of a half all move at once
+ * from the labels left by the previous half, so a half can be split into
+ * blocks of characters that run in parallel, while neighbors moving in
+ * different halves cannot keep swapping labels forever as they would if
+ * everyone moved at once. Ties are broken by a seeded ranking of the labels,
+ * so the result depends only on the graph and the seed.
+ */
+public class LabelPropagation {
+
+    /**
+     * This class, LabelPropagation, is not an ADT.
+     */
+
+    /**
+     * Rounds run by main and most rounds run by default.
+     */
+    public static final int MAX_ROUNDS = 50;
+
+    /**
+     * Number of characters given to one parallel task.
+     */
+    private static final int BLOCK_SIZE = 256;
+
+    /**
+     * Number of communities listed by main.
+     */
+    private static final int TOP = 10;
+
+    /**
+     * Prints the largest communities of the Marvel graph
+     *
+     * @param args the arguments that are passed in when the class runs
+     * @throws IOException the arguments that are passed in when the class runs
+     */
+    public static void main(String[] args) throws IOException {
+        Graph<String,String> marvelGraph = MarvelPaths.createMarvelGraph("marvel.csv");
+        CompactGraph graph = CompactGraph.fromGraph(marvelGraph);
+        long start = System.nanoTime();
+        Communities communities = detect(graph, 0, MAX_ROUNDS);
+        long elapsed = System.nanoTime() - start;
+        for (int c = 0; c < Math.min(TOP, communities.count()); c++) {
+            System.out.println("Community " + c + ": " + communities.size(c) + " characters, led by "
+                    + graph.name(communities.leader(c)));
+        }
+        System.out.println(communities.count() + " communities after " + communities.rounds()
+                + " rounds in " + (elapsed / 1000000) + " ms");
+    }
+
+    /**
+     * Runs label propagation until no character changes community or
+     * maxRounds rounds have run
+     *
+     * @param graph = graph to partition
+     * @param seed = seed of the ranking that breaks ties between communities
+     * @param maxRounds = most rounds to run
+     * @spec.requires graph != null
+     * @throws IllegalArgumentException if maxRounds is negative
+     * @return the communities found
+     */
+    public static Communities detect(CompactGraph graph, long seed, int maxRounds) {
+        if (maxRounds < 0) {
+            throw new IllegalArgumentException("maxRounds must be non-negative");
+        }
+        int n = graph.size();
+        int[] labels = IntStream.range(0, n).toArray();
+        int[] next = new int[n];
+        long[] priority = new long[n];
+        for (int i = 0; i < n; i++) {
+            priority[i] = mix(seed + i);
+        }
+        int blocks = (n + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        int[] blockChanges = new int[blocks];
+        // each worker keeps one scratch space for every block it runs
+        ThreadLocal<Scratch> scratch = ThreadLocal.withInitial(() -> new Scratch(n));
+
+        int rounds = 0;
+        boolean changed = true;
+        while (changed && rounds < maxRounds) {
+            changed = false;
+            for (int half = 0; half < 2; half++) {
+                int[] current = labels;
+                int[] updated = next;
+                long phase = mix(seed ^ mix(rounds * 2L + half));
+                IntStream.range(0, blocks).parallel().forEach(b -> {
+                    Scratch space = scratch.get();
+                    int changes = 0;
+                    for (int v = b * BLOCK_SIZE; v < Math.min(n, (b + 1) * BLOCK_SIZE); v++) {
+                        if ((mix(phase + v) & 1) == 0) {
+                            updated[v] = strongestLabel(graph, v, current, priority, space.weight, space.touched);
+                        } else {
+                            updated[v] = current[v];
+                        }
+                        if (updated[v] != current[v]) {
+                            changes++;
+                        }
+                    }
+                    blockChanges[b] = changes;
+                });
+                for (int changes : blockChanges) {
+                    changed |= changes > 0;
+                }
+                next = labels;
+                labels = updated;
+            }
+            rounds++;
+        }
+        return new Communities(graph, labels, rounds);
+    }
+
+    /**
+     * @param graph = graph being partitioned
+     * @param v = id of the character
+     * @param labels = label of every character in the last round
+     * @param priority = rank of every label, the higher the better
+     * @param weight = scratch space of graph.size() zeros, left all zero
+     * @param touched = scratch space of graph.size() entries
+     * @return the label v has the most shared books with, keeping its own
+     * label on a tie and otherwise taking the tied label of highest priority
+     */
+    private static int strongestLabel(CompactGraph graph, int v, int[] labels, long[] priority,
+                                      long[] weight, int[] touched) {
+        int count = 0;
+        for (int j = graph.offsets[v]; j < graph.offsets[v + 1]; j++) {
+            int label = labels[graph.neighbors[j]];
+            if (weight[label] == 0) {
+                touched[count] = label;
+                count++;
+            }
+            weight[label] += graph.multiplicity[j];
+        }
+
+        int best = labels[v];
+        long bestWeight = weight[best];
+        for (int i = 0; i < count; i++) {
+            int label = touched[i];
+            if (weight[label] > bestWeight
+                    || (weight[label] == bestWeight && best != labels[v] && priority[label] > priority[best])) {
+                best = label;
+                bestWeight = weight[label];
+            }
+        }
+        for (int i = 0; i < count; i++) {
+            weight[touched[i]] = 0;
+        }
+        return best;
+    }
+
+    /**
+     * Per-worker scratch space of strongestLabel, kept all zero in weight
+     * between calls so a worker can reuse it for every block it runs
+     */
+    private static class Scratch {
+        // weight[l] is the books shared with neighbors labeled l, for the labels in touched
+        private final long[] weight;
+        private final int[] touched;
+
+        /**
+         * @param n = number of characters in the graph
+         * @spec.effects Constructs scratch space for a graph of n characters
+         */
+        private Scratch(int n) {
+            this.weight = new long[n];
+            this.touched = new int[n];
+        }
+    }
+
+    /**
+     * @param x = value to scramble
+     * @return a well mixed 64 bit hash of x (the SplitMix64 finalizer)
+     */
+    private static long mix(long x) {
+        x = (x ^ (x >>> 30)) * 0xbf58476d1ce4e5b9L;
+        x = (x ^ (x >>> 27)) * 0x94d049bb133111ebL;
+        return x ^ (x >>> 31);
+    }
+
+    /**
+     * Communities is the immutable result of label propagation. Communities
+     * are numbered from 0 in order of decreasing size, ties broken by their
+     * least member id.
+     */
+    public static class Communities {
+        /**
+         * Abstraction function:
+         * AF(this) = character i is in community community[i]; the members
+         * of community c are order[offsets[c]], ..., order[offsets[c + 1] - 1]
+         * in increasing id order; propagation ran for rounds rounds
+         *
+         * Representation invariant:
+         * community.length == order.length && offsets[0] == 0 &&
+         * offsets[offsets.length - 1] == order.length && every community is
+         * non-empty and no larger than the one before it
+         */
+
+        private final CompactGraph graph;
+        private final int[] community;
+        private final int[] offsets;
+        private final int[] order;
+        private final int rounds;
+
+        /**
+         * @param graph = graph that was partitioned
+         * @param labels = final label of every character
+         * @param rounds = number of rounds run
+         * @spec.effects Constructs the communities given by the labels
+         */
+        private Communities(CompactGraph graph, int[] labels, int rounds) {
+            int n = labels.length;
+            this.graph = graph;
+            this.rounds = rounds;
+
+            int[] sizes = new int[n];
+            for (int label : labels) {
+                sizes[label]++;
+            }
+            // a label is the id of a character, so the first character with a
+            // label is its least member
+            int[] first = new int[n];
+            Arrays.fill(first, -1);
+            int count = 0;
+            for (int v = 0; v < n; v++) {
+                if (first[labels[v]] < 0) {
+                    first[labels[v]] = v;
+                    count++;
+                }
+            }
+            Integer[] byLabel = new Integer[count];
+            int found = 0;
+            for (int label = 0; label < n; label++) {
+                if (sizes[label] > 0) {
+                    byLabel[found] = label;
+                    found++;
+                }
+            }
+            Arrays.sort(byLabel, (a, b) -> sizes[a] != sizes[b]
+                    ? Integer.compare(sizes[b], sizes[a]) : Integer.compare(first[a], first[b]));
+
+            int[] number = new int[n];
+            this.offsets = new int[count + 1];
+            for (int c = 0; c < count; c++) {
+                number[byLabel[c]] = c;
+                offsets[c + 1] = offsets[c] + sizes[byLabel[c]];
+            }
+            this.community = new int[n];
+            this.order = new int[n];
+            int[] position = Arrays.copyOf(offsets, count);
+            for (int v = 0; v < n; v++) {
+                int c = number[labels[v]];
+                community[v] = c;
+                order[position[c]] = v;
+                position[c]++;
+            }
+            checkRep();
+        }
+
+        /**
+         * @return the number of communities
+         */
+        public int count() {
+            return offsets.length - 1;
+        }
+
+        /**
+         * @return the number of rounds label propagation ran for
+         */
+        public int rounds() {
+            return rounds;
+        }
+
+        /**
+         * @param id = id of a character
+         * @spec.requires 0 <= id < graph.size()
+         * @return the community of the character
+         */
+        public int community(int id) {
+            return community[id];
+        }
+
+        /**
+         * @param character = name of a character
+         * @return the community of the character
+         * @throws IllegalArgumentException if the character is not in the graph
+         */
+        public int community(String character) {
+            int id = graph.id(character);
+            if (id < 0) {
+                throw new IllegalArgumentException(character + " is not in the graph");
+            }
+            return community[id];
+        }
+
+        /**
+         * @param c = a community
+         * @spec.requires 0 <= c < count()
+         * @return the number of characters in the community
+         */
+        public int size(int c) {
+            return offsets[c + 1] - offsets[c];
+        }
+
+        /**
+         * @param c = a community
+         * @spec.requires 0 <= c < count()
+         * @return a new array of the ids in the community, in increasing order
+         */
+        public int[] members(int c) {
+            return Arrays.copyOfRange(order, offsets[c], offsets[c + 1]);
+        }
+
+        /**
+         * @param c = a community
+         * @spec.requires 0 <= c < count()
+         * @return the id of the member of highest degree, ties broken by id
+         */
+        public int leader(int c) {
+            int best = order[offsets[c]];
+            for (int i = offsets[c] + 1; i < offsets[c + 1]; i++) {
+                if (graph.degree(order[i]) > graph.degree(best)) {
+                    best = order[i];
+                }
+            }
+            return best;
+        }
+
+        /**
+         * Lays the characters out community by community, so that data kept
+         * per character in this order puts each community in one stretch
+         *
+         * @return a new array of every id, the members of community 0 first,
+         * then those of community 1 and so on, each in increasing order
+         */
+        public int[] order() {
+            return order.clone();
+        }
+
+        /**
+         * Throws an exception if the representation invariant is violated
+         */
+        private void checkRep() {
+            assert community.length == order.length : "one community per character";
+            assert offsets[0] == 0 && offsets[offsets.length - 1] == order.length : "offsets must cover order";
+            for (int c = 0; c < count(); c++) {
+                assert size(c) > 0 : "communities cannot be empty";
+                assert c == 0 || size(c) <= size(c - 1) : "communities must be ordered by size";
+            }
+        }
+    }
+}
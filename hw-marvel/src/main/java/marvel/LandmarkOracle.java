@@ -0,0 +1,229 @@
+package marvel;
+
+import java.util.Arrays;
+
+/**
+ * LandmarkOracle is an immutable, precomputed estimate of hop distances in a
+ * CompactGraph. A few high-degree characters are picked as landmarks and a
+ * breadth first search is run from each of them once; afterwards the distance
+ * between any two characters is bounded by the triangle inequality through
+ * the landmarks, in time proportional to the number of landmarks and without
+ * searching the graph.
+ */
+public class LandmarkOracle {
+
+    /**
+     * Abstraction function:
+     * AF(this) = for each landmark i and character v, the number of hops
+     * between landmarks[i] and v is distances[v * landmarks.length + i], where
+     * UNREACHABLE means there is no path and FAR means it is at least FAR hops
+     *
+     * Representation invariant:
+     * graph != null && landmarks != null && distances != null &&
+     * distances.length == graph.size() * landmarks.length &&
+     * the landmarks are distinct, valid ids of graph
+     */
+
+    private static final boolean CHECK_REP = false;
+
+    /**
+     * Returned by the bounds when the characters are not connected.
+     */
+    public static final int INFINITE = Integer.MAX_VALUE;
+
+    // distances are stored in bytes, these mark the values a byte can't hold
+    private static final byte UNREACHABLE = -1;
+    private static final byte FAR = Byte.MAX_VALUE;
+
+    private final CompactGraph graph;
+    private final int[] landmarks;
+    private final byte[] distances;
+
+    /**
+     * @param graph = graph to estimate distances in
+     * @param landmarkCount = number of landmarks to search from
+     * @spec.requires graph != null && every edge of graph has a reverse edge
+     * @spec.effects Constructs an oracle over the landmarkCount characters
+     * of highest degree (fewer if the graph is smaller), ties broken by name
+     * @throws IllegalArgumentException if landmarkCount is negative
+     */
+    public LandmarkOracle(CompactGraph graph, int landmarkCount) {
+        if (landmarkCount < 0) {
+            throw new IllegalArgumentException("landmarkCount cannot be negative");
+        }
+        this.graph = graph;
+        this.landmarks = highestDegree(graph, Math.min(landmarkCount, graph.size()));
+        this.distances = new byte[graph.size() * landmarks.length];
+        Arrays.fill(distances, UNREACHABLE);
+
+        int[] queue = new int[graph.size()];
+        int[] depth = new int[graph.size()];
+        for (int i = 0; i < landmarks.length; i++) {
+            search(i, queue, depth);
+        }
+        checkRep();
+    }
+
+    /**
+     * @return names of the landmark characters, highest degree first
+     */
+    public String[] landmarks() {
+        String[] names = new String[landmarks.length];
+        for (int i = 0; i < landmarks.length; i++) {
+            names[i] = graph.name(landmarks[i]);
+        }
+        return names;
+    }
+
+    /**
+     * @param source = name of the first character
+     * @param target = name of the second character
+     * @return a number of hops the shortest path between the characters can't
+     * be longer than, or INFINITE if no landmark is connected to both
+     * @throws IllegalArgumentException if either character is not in the graph
+     */
+    public int upperBound(String source, String target) {
+        return upperBound(idOf(source), idOf(target));
+    }
+
+    /**
+     * @param source = name of the first character
+     * @param target = name of the second character
+     * @return a number of hops the shortest path between the characters can't
+     * be shorter than, or INFINITE if the characters are not connected
+     * @throws IllegalArgumentException if either character is not in the graph
+     */
+    public int lowerBound(String source, String target) {
+        return lowerBound(idOf(source), idOf(target));
+    }
+
+    /**
+     * @param source = id of the first character
+     * @param target = id of the second character
+     * @spec.requires both ids are valid ids of the graph
+     * @return a number of hops the shortest path between the characters can't
+     * be longer than, or INFINITE if no landmark is connected to both
+     */
+    int upperBound(int source, int target) {
+        if (source == target) {
+            return 0;
+        }
+        int k = landmarks.length;
+        int best = INFINITE;
+        for (int i = 0; i < k; i++) {
+            byte fromSource = distances[source * k + i];
+            byte toTarget = distances[target * k + i];
+            if (fromSource != UNREACHABLE && fromSource != FAR && toTarget != UNREACHABLE && toTarget != FAR) {
+                best = Math.min(best, fromSource + toTarget);
+            }
+        }
+        return best;
+    }
+
+    /**
+     * @param source = id of the first character
+     * @param target = id of the second character
+     * @spec.requires both ids are valid ids of the graph
+     * @return a number of hops the shortest path between the characters can't
+     * be shorter than, or INFINITE if the characters are not connected
+     */
+    int lowerBound(int source, int target) {
+        if (source == target) {
+            return 0;
+        }
+        int k = landmarks.length;
+        int best = 0;
+        for (int i = 0; i < k; i++) {
+            byte fromSource = distances[source * k + i];
+            byte toTarget = distances[target * k + i];
+            if ((fromSource == UNREACHABLE) != (toTarget == UNREACHABLE)) {
+                // one of them is in the landmark's component and the other isn't
+                return INFINITE;
+            }
+            if (fromSource != UNREACHABLE && fromSource != FAR && toTarget != FAR) {
+                best = Math.max(best, Math.abs(fromSource - toTarget));
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Fills in the distances from one landmark with a breadth first search
+     *
+     * @param landmark = index of the landmark in landmarks
+     * @param queue = scratch space of graph.size() ids
+     * @param depth = scratch space of graph.size() depths
+     * @spec.modifies distances, queue, depth
+     * @spec.effects records the distance from the landmark to every character
+     */
+    private void search(int landmark, int[] queue, int[] depth) {
+        int k = landmarks.length;
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = landmarks[landmark];
+        depth[landmarks[landmark]] = 0;
+        distances[landmarks[landmark] * k + landmark] = 0;
+        while (head < tail) {
+            int v = queue[head++];
+            for (int j = graph.offsets[v]; j < graph.offsets[v + 1]; j++) {
+                int w = graph.neighbors[j];
+                if (distances[w * k + landmark] == UNREACHABLE) {
+                    depth[w] = depth[v] + 1;
+                    distances[w * k + landmark] = (byte) Math.min(depth[w], FAR);
+                    queue[tail++] = w;
+                }
+            }
+        }
+    }
+
+    /**
+     * @param name = name of a character
+     * @return the id of the character
+     * @throws IllegalArgumentException if the character is not in the graph
+     */
+    private int idOf(String name) {
+        int id = graph.id(name);
+        if (id < 0) {
+            throw new IllegalArgumentException(name + " isn't in the graph");
+        }
+        return id;
+    }
+
+    /**
+     * @param graph = graph to pick from
+     * @param count = number of ids to pick
+     * @spec.requires count <= graph.size()
+     * @return the count ids of highest degree, highest first and ties broken by id
+     */
+    private static int[] highestDegree(CompactGraph graph, int count) {
+        Integer[] ids = new Integer[graph.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = i;
+        }
+        Arrays.sort(ids, (a, b) -> graph.degree(a) != graph.degree(b)
+                ? Integer.compare(graph.degree(b), graph.degree(a))
+                : Integer.compare(a, b));
+        int[] picked = new int[count];
+        for (int i = 0; i < count; i++) {
+            picked[i] = ids[i];
+        }
+        return picked;
+    }
+
+    /**
+     * Throws an exception if the representation invariant is violated
+     */
+    private void checkRep() {
+        assert graph != null && landmarks != null && distances != null : "fields cannot be null";
+        assert distances.length == graph.size() * landmarks.length : "one distance per landmark and character";
+
+        if (CHECK_REP) {
+            for (int i = 0; i < landmarks.length; i++) {
+                assert landmarks[i] >= 0 && landmarks[i] < graph.size() : "landmark out of range";
+                for (int j = 0; j < i; j++) {
+                    assert landmarks[i] != landmarks[j] : "landmarks must be distinct";
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,375 @@
+package marvel;
+
+import graph.Graph;
+import graph.Node;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * LiveMarvelGraph is a mutable Marvel graph that can take in new
+ * "character,book" lines after it has been built. It remembers which
+ * characters appear in each book, so a new line only adds the edges between
+ * its character and the others in that book instead of rebuilding the graph.
+ * Shortest paths and the CompactGraph snapshot are cached, and an update only
+ * drops the cached results it can affect. At most a fixed number of paths are
+ * kept, the least recently used being dropped first.
+ */
+public class LiveMarvelGraph {
+
+    /**
+     * Abstraction function:
+     * AF(this) = the co-appearance graph of every (character, book) line
+     * ingested so far, where graph holds the characters and edges, books maps
+     * each book to the characters appearing in it, paths holds the answer of
+     * findPath for each cached (start, end) pair, least recently used first,
+     * and snapshot, if not null, is a CompactGraph of the current graph
+     *
+     * Representation invariant:
+     * graph != null && books != null && paths != null && pathCapacity > 0 &&
+     * paths.size() <= pathCapacity && no set in books is empty && every
+     * character in a set of books is a node of graph
+     */
+
+    private static final boolean CHECK_REP = false;
+
+    /**
+     * Number of paths cached when no capacity is given.
+     */
+    public static final int DEFAULT_PATH_CAPACITY = 4096;
+
+    private final int pathCapacity;
+    private final Graph<String,String> graph;
+    private final Map<String, Set<Node<String,String>>> books;
+    private final Map<List<String>, List<Node<String,String>.Edge>> paths;
+    private CompactGraph snapshot;
+
+    /**
+     * @spec.effects Constructs an empty live graph caching at most
+     * DEFAULT_PATH_CAPACITY paths
+     */
+    public LiveMarvelGraph() {
+        this(DEFAULT_PATH_CAPACITY);
+    }
+
+    /**
+     * @param pathCapacity = most paths to cache
+     * @throws IllegalArgumentException if pathCapacity is not positive
+     * @spec.effects Constructs an empty live graph caching at most
+     * pathCapacity paths
+     */
+    public LiveMarvelGraph(int pathCapacity) {
+        if (pathCapacity <= 0) {
+            throw new IllegalArgumentException("path capacity must be positive");
+        }
+        this.graph = new Graph<>();
+        this.books = new HashMap<>();
+        this.pathCapacity = pathCapacity;
+        this.paths = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<List<String>, List<Node<String,String>.Edge>> eldest) {
+                return size() > LiveMarvelGraph.this.pathCapacity;
+            }
+        };
+        this.snapshot = null;
+        checkRep();
+    }
+
+    /**
+     * @param file = file name in the data folder to load first
+     * @spec.requires file is a valid file in the resources/data folder
+     * @spec.effects Constructs a live graph of the lines in the file caching
+     * at most DEFAULT_PATH_CAPACITY paths
+     */
+    public LiveMarvelGraph(String file) {
+        this(file, DEFAULT_PATH_CAPACITY);
+    }
+
+    /**
+     * @param file = file name in the data folder to load first
+     * @param pathCapacity = most paths to cache
+     * @spec.requires file is a valid file in the resources/data folder
+     * @throws IllegalArgumentException if pathCapacity is not positive
+     * @spec.effects Constructs a live graph of the lines in the file caching
+     * at most pathCapacity paths
+     */
+    public LiveMarvelGraph(String file, int pathCapacity) {
+        this(pathCapacity);
+        MarvelParser.parseData(file, (character, book) -> addAppearance(character, book, null));
+        checkRep();
+    }
+
+    /**
+     * @return the graph, updated in place by every ingest
+     */
+    public Graph<String,String> getGraph() {
+        return graph;
+    }
+
+    /**
+     * Adds new "character,book" lines to the graph. Every line is checked
+     * before any is added, so a batch with a malformed line changes nothing.
+     *
+     * @param lines = lines in the same format as the data files
+     * @spec.requires lines != null
+     * @spec.modifies this
+     * @spec.effects adds the characters and co-appearance edges of the lines
+     * and drops the cached results they can change
+     * @throws IllegalArgumentException if a line has no character or book, in
+     * which case no line is added
+     * @return names of the characters that gained a node or an edge
+     */
+    public Set<String> ingest(List<String> lines) {
+        List<String[]> appearances = new ArrayList<>(lines.size());
+        for (String line : lines) {
+            appearances.add(parseLine(line));
+        }
+        Changes changes = new Changes();
+        for (String[] appearance : appearances) {
+            addAppearance(appearance[0], appearance[1], changes);
+        }
+        invalidate(changes);
+        checkRep();
+        return changes.characters;
+    }
+
+    /**
+     * Adds every complete line of a growing data file past the given offset,
+     * for following a file that new lines are appended to. The tail is read
+     * a buffer at a time, so it may be longer than an array can hold.
+     *
+     * @param file = data file to read
+     * @param offset = number of bytes of the file already ingested
+     * @spec.requires file != null && 0 <= offset <= file length
+     * @spec.modifies this
+     * @spec.effects ingests the complete lines after offset; a last line not
+     * ended by a line break is left for the next call
+     * @throws IOException if the file can't be read
+     * @throws IllegalArgumentException if a complete line has no character or
+     * book, in which case no line is added and the same offset can be read again
+     * @return the offset just past the last line ingested
+     */
+    public long ingestTail(File file, long offset) throws IOException {
+        List<String> lines = new ArrayList<>();
+        long complete = offset;
+        try (RandomAccessFile input = new RandomAccessFile(file, "r")) {
+            input.seek(offset);
+            byte[] buffer = new byte[1 << 16];
+            ByteArrayOutputStream line = new ByteArrayOutputStream();
+            long position = offset;
+            int read;
+            while ((read = input.read(buffer)) > 0) {
+                int from = 0;
+                for (int i = 0; i < read; i++) {
+                    if (buffer[i] == '\n') {
+                        line.write(buffer, from, i - from);
+                        addLine(line, lines);
+                        from = i + 1;
+                        complete = position + from;
+                    }
+                }
+                line.write(buffer, from, read - from);
+                position += read;
+            }
+        }
+        ingest(lines);
+        return complete;
+    }
+    /**
+     * Finds the shortest path between two characters, reusing the answer of
+     * an earlier call if no ingest has changed it since and it has not been
+     * pushed out of the cache by pathCapacity more recent ones
+     *
+     * @param startingCharacter = vertex value of the starting character
+     * @param endingCharacter = vertex value of the ending character
+     * @throws IllegalArgumentException if either character is not in the graph
+     * @return the same path as MarvelPaths.findPath on the graph
+     */
+    public List<Node<String,String>.Edge> findPath(String startingCharacter, String endingCharacter) {
+        List<String> key = List.of(startingCharacter, endingCharacter);
+        if (!paths.containsKey(key)) {
+            paths.put(key, MarvelPaths.findPath(graph, startingCharacter, endingCharacter));
+        }
+        List<Node<String,String>.Edge> path = paths.get(key);
+        return path == null ? null : Collections.unmodifiableList(path);
+    }
+
+    /**
+     * @return number of paths currently cached, at most the path capacity
+     */
+    public int cachedPaths() {
+        return paths.size();
+    }
+
+    /**
+     * @return a CompactGraph of the current graph, rebuilt only if an ingest
+     * has added a character or an edge, since a new book between characters
+     * already connected can change the label and multiplicity of their edge
+     */
+    public CompactGraph snapshot() {
+        if (snapshot == null) {
+            snapshot = CompactGraph.fromGraph(graph);
+        }
+        return snapshot;
+    }
+
+    /**
+     * @param line = a "character,book" line, possibly followed by more fields
+     * @throws IllegalArgumentException if the line has no character or book
+     * @return the character and the book of the line
+     */
+    private static String[] parseLine(String line) {
+        int comma = line.indexOf(',');
+        if (comma < 0) {
+            comma = line.length();
+        }
+        int end = comma < line.length() ? line.indexOf(',', comma + 1) : -1;
+        if (end < 0) {
+            end = line.length();
+        }
+        MarvelParser.checkFields(comma, end, line.length(), () -> line);
+        return new String[] {line.substring(0, comma), line.substring(comma + 1, end)};
+    }
+
+    /**
+     * Decodes the bytes of one line, without its line break, and keeps it
+     * if it is not empty
+     *
+     * @param line = bytes of the line, emptied for the next line
+     * @param lines = lines read so far
+     * @spec.modifies line, lines
+     */
+    private static void addLine(ByteArrayOutputStream line, List<String> lines) {
+        String text = new String(line.toByteArray(), StandardCharsets.UTF_8);
+        line.reset();
+        if (text.endsWith("\r")) {
+            text = text.substring(0, text.length() - 1);
+        }
+        if (!text.isEmpty()) {
+            lines.add(text);
+        }
+    }
+
+    /**
+     * Adds one appearance of a character in a book, connecting the character
+     * with everyone already in that book the same way createMarvelGraph does
+     *
+     * @param character = name of the character
+     * @param book = name of the book
+     * @param changes = where to record what changed, or null when nothing is cached yet
+     * @spec.modifies graph, books, changes
+     * @spec.effects adds the character and its edges to the book's characters
+     */
+    private void addAppearance(String character, String book, Changes changes) {
+        Node<String,String> characterVertex = graph.getNode(character);
+        if (characterVertex == null) {
+            characterVertex = new Node<>(character);
+            graph.addNode(characterVertex);
+            if (changes != null) {
+                changes.characters.add(character);
+                changes.newCharacters = true;
+            }
+        }
+        Set<Node<String,String>> inBook = books.computeIfAbsent(book, k -> new HashSet<>());
+        for (Node<String,String> currCharacter : inBook) {
+            boolean adjacent = changes != null && connected(characterVertex, currCharacter);
+            if (graph.addEdge(characterVertex, currCharacter, book) && changes != null) {
+                changes.characters.add(character);
+                changes.characters.add(currCharacter.getLabel());
+                if (!adjacent) {
+                    changes.newAdjacency = true;
+                } else {
+                    changes.relabeled.add(List.of(character, currCharacter.getLabel()));
+                    changes.relabeled.add(List.of(currCharacter.getLabel(), character));
+                }
+            }
+            graph.addEdge(currCharacter, characterVertex, book);
+        }
+        inBook.add(characterVertex);
+    }
+
+    /**
+     * @param parent = start of the edge
+     * @param child = end of the edge
+     * @return true iff parent already has an edge to child
+     */
+    private static boolean connected(Node<String,String> parent, Node<String,String> child) {
+        for (Node<String,String>.Edge edge : parent.getEdges()) {
+            if (edge.getChild().equals(child)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Drops the cached results an ingest can have changed. A new character
+     * with no edges changes no path. A new book between characters that were
+     * already adjacent only changes which book labels the edge between them,
+     * so only the paths using that edge are dropped. Any other new edge can
+     * shorten paths anywhere, so every path is dropped. The snapshot keeps the
+     * least label and the number of books of every edge, so any new character
+     * or edge drops it.
+     *
+     * @param changes = what the ingest changed
+     * @spec.modifies paths, snapshot
+     * @spec.effects drops the cached results changes can affect
+     */
+    private void invalidate(Changes changes) {
+        if (changes.newCharacters || changes.newAdjacency || !changes.relabeled.isEmpty()) {
+            snapshot = null;
+        }
+        if (changes.newAdjacency) {
+            paths.clear();
+        } else if (!changes.relabeled.isEmpty()) {
+            paths.entrySet().removeIf(entry -> entry.getValue() != null
+                    && usesAny(entry.getKey().get(0), entry.getValue(), changes.relabeled));
+        }
+    }
+
+    /**
+     * @param start = name of the character the path starts at
+     * @param path = path to check
+     * @param pairs = (parent, child) name pairs
+     * @return true iff the path takes an edge between one of the pairs
+     */
+    private static boolean usesAny(String start, List<Node<String,String>.Edge> path, Set<List<String>> pairs) {
+        String last = start;
+        for (Node<String,String>.Edge edge : path) {
+            String child = edge.getChild().getLabel();
+            if (pairs.contains(List.of(last, child))) {
+                return true;
+            }
+            last = child;
+        }
+        return false;
+    }
+
+    /**
+     * Throws an exception if the representation invariant is violated
+     */
+    private void checkRep() {
+        assert graph != null && books != null && paths != null : "fields cannot be null";
+        assert paths.size() <= pathCapacity : "too many paths cached";
+
+        if (CHECK_REP) {
+            for (Set<Node<String,String>> inBook : books.values()) {
+                assert !inBook.isEmpty() : "books must have characters";
+                for (Node<String,String> character : inBook) {
+                    assert graph.getNode(character.getLabel()) != null : "book characters must be in graph";
+                }
+            }
+        }
+    }
+
+    /**
+     * What a single ingest changed
+     */
+    private static class Changes {
+        private final Set<String> characters = new HashSet<>();
+        private final Set<List<String>> relabeled = new HashSet<>();
+        private boolean newCharacters = false;
+        private boolean newAdjacency = false;
+    }
+}
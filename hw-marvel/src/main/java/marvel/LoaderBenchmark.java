@@ -0,0 +1,72 @@
+package marvel;
+
+import graph.Graph;
+
+import java.io.IOException;
+
+/**
+ * This class, LoaderBenchmark, times loading the Marvel graph with
+ * MarvelPaths.createMarvelGraph and with ParallelMarvelLoader at several
+ * thread counts.
+ */
+public class LoaderBenchmark {
+
+    /**
+     * This class, LoaderBenchmark, is not an ADT.
+     */
+
+    /**
+     * Number of timed loads per configuration, the fastest is reported.
+     */
+    private static final int RUNS = 5;
+
+    /**
+     * The main method
+     *
+     * @param args thread counts to time the parallel loader with, 1 2 4 8 if none
+     * @throws IOException the arguments that are passed in when the class runs
+     */
+    public static void main(String[] args) throws IOException {
+        int[] threadCounts = {1, 2, 4, 8};
+        if (args.length > 0) {
+            threadCounts = new int[args.length];
+            for (int i = 0; i < args.length; i++) {
+                threadCounts[i] = Integer.parseInt(args[i]);
+            }
+        }
+        System.out.println("Available processors: " + Runtime.getRuntime().availableProcessors());
+
+        long best = Long.MAX_VALUE;
+        for (int run = 0; run < RUNS; run++) {
+            long start = System.nanoTime();
+            Graph<String,String> graph = MarvelPaths.createMarvelGraph("marvel.csv");
+            best = Math.min(best, System.nanoTime() - start);
+            consume(graph);
+        }
+        long sequential = best;
+        System.out.println(String.format("createMarvelGraph: %d ms", sequential / 1000000));
+
+        for (int threads : threadCounts) {
+            best = Long.MAX_VALUE;
+            for (int run = 0; run < RUNS; run++) {
+                long start = System.nanoTime();
+                Graph<String,String> graph = ParallelMarvelLoader.load("marvel.csv", threads);
+                best = Math.min(best, System.nanoTime() - start);
+                consume(graph);
+            }
+            System.out.println(String.format("ParallelMarvelLoader, %d threads: %d ms (%.2fx)",
+                    threads, best / 1000000, (double) sequential / best));
+        }
+    }
+
+    /**
+     * Keeps the loaded graph observable so the load can't be optimized away
+     *
+     * @param graph = the loaded graph
+     */
+    private static void consume(Graph<String,String> graph) {
+        if (graph.getNodes().isEmpty()) {
+            System.out.println("No characters loaded");
+        }
+    }
+}
@@ -0,0 +1,394 @@
+package marvel;
+
+import graph.Graph;
+import graph.Node;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.zip.CRC32;
+
+/**
+ * MarvelCache saves a built Marvel graph, together with its CompactGraph
+ * snapshot, in a binary file next to the data file, so later runs can read
+ * the arrays back instead of parsing the CSV and rebuilding every book's
+ * clique. The cache records a CRC32 checksum of the CSV it was built from
+ * and is only used while the CSV still has that checksum, and a CRC32 of
+ * everything after its header, so a damaged cache is caught before any of
+ * it is used; a stale, missing, damaged or unreadable cache is rebuilt from
+ * the CSV and written again.
+ */
+public class MarvelCache {
+
+    /**
+     * Abstraction function:
+     * AF(this) = the graph of a data file, with snapshot a CompactGraph of
+     * it, read from the binary cache iff fromCache
+     *
+     * Representation invariant:
+     * graph != null && snapshot != null
+     */
+
+    /**
+     * First four bytes of every cache file, "MRVC".
+     */
+    private static final int MAGIC = 0x4D525643;
+
+    /**
+     * Layout of the cache file; bumping it makes every older cache stale.
+     */
+    private static final int VERSION = 2;
+
+    /**
+     * Bytes before the payload: magic, version, CSV checksum and payload checksum.
+     */
+    private static final int HEADER_SIZE = 4 + 4 + 8 + 8;
+
+    /**
+     * Ending added to the data file name to name its cache.
+     */
+    private static final String SUFFIX = ".cache";
+
+    private final Graph<String,String> graph;
+    private final CompactGraph snapshot;
+    private final boolean fromCache;
+
+    /**
+     * @param graph = the graph
+     * @param snapshot = snapshot of graph
+     * @param fromCache = true iff both were read from the cache
+     * @spec.effects Constructs a loaded graph
+     */
+    private MarvelCache(Graph<String,String> graph, CompactGraph snapshot, boolean fromCache) {
+        this.graph = graph;
+        this.snapshot = snapshot;
+        this.fromCache = fromCache;
+    }
+
+    /**
+     * Loads the graph of a data file, from its cache if the cache is up to
+     * date and otherwise from the file with ParallelMarvelLoader on every
+     * core, writing a new cache in that case. A cache that can't be written
+     * is skipped silently.
+     *
+     * @param file = file name in the data folder
+     * @spec.requires file is a valid file in the resources/data folder
+     * @throws IllegalArgumentException if the file doesn't exist or a line
+     * has no character or no book
+     * @return the graph MarvelPaths.createMarvelGraph(file) builds, with a
+     * snapshot of it
+     */
+    public static MarvelCache load(String file) {
+        long checksum = checksum(file);
+        Path cache = cacheFile(file);
+        MarvelCache cached = read(cache, checksum);
+        if (cached != null) {
+            return cached;
+        }
+        Graph<String,String> graph = ParallelMarvelLoader.load(file, Runtime.getRuntime().availableProcessors());
+        CompactGraph snapshot = CompactGraph.fromGraph(graph);
+        try {
+            write(cache, checksum, graph, snapshot);
+        } catch (IOException e) {
+            // the cache only saves time, the graph is still good without it
+        }
+        return new MarvelCache(graph, snapshot, false);
+    }
+
+    /**
+     * @return the graph of the data file
+     */
+    public Graph<String,String> getGraph() {
+        return graph;
+    }
+
+    /**
+     * @return a snapshot of the graph
+     */
+    public CompactGraph snapshot() {
+        return snapshot;
+    }
+
+    /**
+     * @return true iff the graph was read from the cache rather than the data file
+     */
+    public boolean fromCache() {
+        return fromCache;
+    }
+
+    /**
+     * @param file = file name in the data folder
+     * @return where the cache of the file is kept: next to the file if it is a
+     * plain file on disk, otherwise in the temporary directory
+     */
+    public static Path cacheFile(String file) {
+        URL url = MarvelParser.class.getResource("/data/" + file);
+        if (url != null && url.getProtocol().equals("file")) {
+            try {
+                Path data = Paths.get(url.toURI());
+                return data.resolveSibling(data.getFileName() + SUFFIX);
+            } catch (URISyntaxException e) {
+                // fall through to the temporary directory
+            }
+        }
+        return Paths.get(System.getProperty("java.io.tmpdir"), "marvel-" + file.replace('/', '_') + SUFFIX);
+    }
+
+    /**
+     * @param file = file name in the data folder
+     * @throws IllegalArgumentException if the file doesn't exist
+     * @return the CRC32 checksum of the bytes of the file
+     */
+    private static long checksum(String file) {
+        CRC32 crc = new CRC32();
+        byte[] buffer = new byte[1 << 16];
+        try (InputStream stream = MarvelParser.openData(file)) {
+            int read;
+            while ((read = stream.read(buffer)) > 0) {
+                crc.update(buffer, 0, read);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return crc.getValue();
+    }
+
+    /**
+     * @param cache = cache file to read
+     * @param checksum = checksum of the data file the cache must have been built from
+     * @return the graph in the cache, or null if the cache is missing, stale
+     * or unreadable
+     */
+    private static MarvelCache read(Path cache, long checksum) {
+        if (!Files.isRegularFile(cache)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(cache, StandardOpenOption.READ)) {
+            ByteBuffer data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (data.remaining() < HEADER_SIZE || data.getInt() != MAGIC || data.getInt() != VERSION
+                    || data.getLong() != checksum) {
+                return null;
+            }
+            long payloadChecksum = data.getLong();
+            CRC32 crc = new CRC32();
+            crc.update(data.duplicate());
+            if (crc.getValue() != payloadChecksum) {
+                return null;
+            }
+            int n = data.getInt();
+            int bookCount = data.getInt();
+            String[] names = readStrings(data, n);
+            String[] books = readStrings(data, bookCount);
+            int[] edgeOffsets = readInts(data, n + 1);
+            int[] edgeChildren = readInts(data, edgeOffsets[n]);
+            int[] edgeBooks = readInts(data, edgeOffsets[n]);
+            int[] offsets = readInts(data, n + 1);
+            int[] neighbors = readInts(data, offsets[n]);
+            int[] labelBooks = readInts(data, offsets[n]);
+            int[] multiplicity = readInts(data, offsets[n]);
+
+            Graph<String,String> graph = new Graph<>();
+            List<Node<String,String>> nodes = new ArrayList<>(n);
+            for (String name : names) {
+                Node<String,String> node = new Node<>(name);
+                graph.addNode(node);
+                nodes.add(node);
+            }
+            for (int v = 0; v < n; v++) {
+                Node<String,String> parent = nodes.get(v);
+                for (int j = edgeOffsets[v]; j < edgeOffsets[v + 1]; j++) {
+                    graph.addEdge(parent, nodes.get(edgeChildren[j]), books[edgeBooks[j]]);
+                }
+            }
+            String[] labels = new String[neighbors.length];
+            for (int j = 0; j < labels.length; j++) {
+                labels[j] = books[labelBooks[j]];
+            }
+            return new MarvelCache(graph, new CompactGraph(names, offsets, neighbors, labels, multiplicity), true);
+        } catch (IOException | BufferUnderflowException | IndexOutOfBoundsException
+                 | IllegalArgumentException | NegativeArraySizeException e) {
+            // a damaged cache is as good as none
+            return null;
+        }
+    }
+
+    /**
+     * Writes the cache to a temporary file and moves it into place, so a
+     * reader never sees a half written cache
+     *
+     * @param cache = cache file to write
+     * @param checksum = checksum of the data file the graph was built from
+     * @param graph = graph to save
+     * @param snapshot = snapshot of graph
+     * @throws IOException if the cache can't be written
+     */
+    private static void write(Path cache, long checksum, Graph<String,String> graph, CompactGraph snapshot)
+            throws IOException {
+        int n = snapshot.size();
+        SortedSet<String> bookSet = new TreeSet<>();
+        int[] edgeOffsets = new int[n + 1];
+        for (int v = 0; v < n; v++) {
+            Set<Node<String,String>.Edge> edges = graph.getNode(snapshot.name(v)).getEdges();
+            for (Node<String,String>.Edge edge : edges) {
+                bookSet.add(edge.getEdgeLabel());
+            }
+            edgeOffsets[v + 1] = edgeOffsets[v] + edges.size();
+        }
+        String[] books = bookSet.toArray(new String[0]);
+        Map<String, Integer> bookIds = new HashMap<>();
+        for (int i = 0; i < books.length; i++) {
+            bookIds.put(books[i], i);
+        }
+        int[] edgeChildren = new int[edgeOffsets[n]];
+        int[] edgeBooks = new int[edgeOffsets[n]];
+        for (int v = 0; v < n; v++) {
+            int j = edgeOffsets[v];
+            for (Node<String,String>.Edge edge : graph.getNode(snapshot.name(v)).getEdges()) {
+                edgeChildren[j] = snapshot.id(edge.getChild().getLabel());
+                edgeBooks[j] = bookIds.get(edge.getEdgeLabel());
+                j++;
+            }
+        }
+        int[] labelBooks = new int[snapshot.edgeCount()];
+        for (int j = 0; j < labelBooks.length; j++) {
+            labelBooks[j] = bookIds.get(snapshot.labels[j]);
+        }
+
+        byte[][] nameBytes = encode(snapshot.names);
+        byte[][] bookBytes = encode(books);
+        long size = HEADER_SIZE + 4 + 4 + stringsSize(nameBytes) + stringsSize(bookBytes)
+                + 4L * (2 * (n + 1) + 2 * edgeChildren.length + 3 * labelBooks.length);
+        ByteBuffer data = ByteBuffer.allocate(Math.toIntExact(size));
+        data.putInt(MAGIC).putInt(VERSION).putLong(checksum).putLong(0);
+        data.putInt(n).putInt(books.length);
+        writeStrings(data, nameBytes);
+        writeStrings(data, bookBytes);
+        writeInts(data, edgeOffsets);
+        writeInts(data, edgeChildren);
+        writeInts(data, edgeBooks);
+        writeInts(data, snapshot.offsets);
+        writeInts(data, snapshot.neighbors);
+        writeInts(data, labelBooks);
+        writeInts(data, snapshot.multiplicity);
+        CRC32 crc = new CRC32();
+        crc.update(data.array(), HEADER_SIZE, data.position() - HEADER_SIZE);
+        data.putLong(HEADER_SIZE - 8, crc.getValue());
+        data.flip();
+
+        Path temporary = Files.createTempFile(cache.getParent(), cache.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+                while (data.hasRemaining()) {
+                    channel.write(data);
+                }
+            }
+            Files.move(temporary, cache, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    /**
+     * @param strings = strings to encode
+     * @return the UTF-8 bytes of each string
+     */
+    private static byte[][] encode(String[] strings) {
+        byte[][] bytes = new byte[strings.length][];
+        for (int i = 0; i < strings.length; i++) {
+            bytes[i] = strings[i].getBytes(StandardCharsets.UTF_8);
+        }
+        return bytes;
+    }
+
+    /**
+     * @param strings = encoded strings
+     * @return the number of bytes writeStrings takes for them
+     */
+    private static long stringsSize(byte[][] strings) {
+        long size = 4L * strings.length;
+        for (byte[] string : strings) {
+            size += string.length;
+        }
+        return size;
+    }
+
+    /**
+     * @param data = buffer to write to
+     * @param strings = encoded strings, each written as its length and bytes
+     * @spec.modifies data
+     */
+    private static void writeStrings(ByteBuffer data, byte[][] strings) {
+        for (byte[] string : strings) {
+            data.putInt(string.length);
+            data.put(string);
+        }
+    }
+
+    /**
+     * @param data = buffer to read from
+     * @param count = number of strings to read
+     * @spec.modifies data
+     * @return the strings written by writeStrings
+     */
+    private static String[] readStrings(ByteBuffer data, int count) {
+        checkCount(data, count);
+        String[] strings = new String[count];
+        byte[] buffer = new byte[64];
+        for (int i = 0; i < count; i++) {
+            int length = data.getInt();
+            if (length < 0 || length > data.remaining()) {
+                throw new IllegalArgumentException("String longer than the cache");
+            }
+            if (length > buffer.length) {
+                buffer = new byte[length];
+            }
+            data.get(buffer, 0, length);
+            strings[i] = new String(buffer, 0, length, StandardCharsets.UTF_8);
+        }
+        return strings;
+    }
+
+    /**
+     * @param data = buffer to write to
+     * @param values = ints to write
+     * @spec.modifies data
+     */
+    private static void writeInts(ByteBuffer data, int[] values) {
+        data.asIntBuffer().put(values);
+        data.position(data.position() + 4 * values.length);
+    }
+
+    /**
+     * @param data = buffer to read from
+     * @param count = number of ints to read
+     * @spec.modifies data
+     * @return the ints written by writeInts
+     */
+    private static int[] readInts(ByteBuffer data, int count) {
+        checkCount(data, count);
+        int[] values = new int[count];
+        data.asIntBuffer().get(values);
+        data.position(data.position() + 4 * count);
+        return values;
+    }
+
+    /**
+     * @param data = buffer about to be read from
+     * @param count = number of strings or ints about to be read, each at least 4 bytes
+     * @throws IllegalArgumentException if count is negative or the rest of data
+     * is too short to hold that many
+     */
+    private static void checkCount(ByteBuffer data, int count) {
+        if (count < 0 || 4L * count > data.remaining()) {
+            throw new IllegalArgumentException("Count " + count + " does not fit in the cache");
+        }
+    }
+}
@@ -12,10 +12,15 @@
 package marvel;
 
 import java.io.BufferedReader;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
 import java.util.*;
 import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
@@ -23,6 +28,11 @@ import java.util.stream.Collectors;
  */
 public class MarvelParser {
 
+    /**
+     * Size of the chunks the streaming parser reads the file in.
+     */
+    private static final int BUFFER_SIZE = 1 << 16;
+
     /**
      * Reads the Marvel Universe dataset. Each line of the input file contains a character
      * name and a comic book the character appeared in, separated by a comma character
@@ -43,6 +53,97 @@ public class MarvelParser {
         return end;
     }
 
+    /**
+     * Streams the Marvel Universe dataset. The file is read once, a buffer at a
+     * time, and each line is handed to the consumer as soon as it is complete, so
+     * the file is never held in memory. Blank lines are skipped and anything after
+     * a second comma is ignored.
+     *
+     * @param filename The file that will be read.
+     * @param consumer Called with the character and the book of every line, in order.
+     * @throws IllegalArgumentException if the file doesn't exist or a line has no
+     * character or no book
+     * @spec.requires filename is a valid file in the resources/data folder.
+     */
+    public static void parseData(String filename, BiConsumer<String, String> consumer) {
+        try (Reader reader = new InputStreamReader(openData(filename))) {
+            parseData(reader, consumer);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Streams lines in the format of the Marvel Universe dataset from a reader.
+     *
+     * @param reader The source of the lines; it is read to the end but not closed.
+     * @param consumer Called with the character and the book of every line, in order.
+     * @throws IOException if the reader fails
+     * @throws IllegalArgumentException if a line has no character or no book
+     */
+    public static void parseData(Reader reader, BiConsumer<String, String> consumer) throws IOException {
+        char[] buffer = new char[BUFFER_SIZE];
+        char[] line = new char[128];
+        int length = 0;
+        int read;
+        while ((read = reader.read(buffer)) != -1) {
+            for (int i = 0; i < read; i++) {
+                char c = buffer[i];
+                if (c == '\n' || c == '\r') {
+                    emit(line, length, consumer);
+                    length = 0;
+                } else {
+                    if (length == line.length) {
+                        line = Arrays.copyOf(line, line.length * 2);
+                    }
+                    line[length] = c;
+                    length++;
+                }
+            }
+        }
+        emit(line, length, consumer);
+    }
+
+    /**
+     * Splits one line into its character and book and hands them on.
+     *
+     * @param line The characters of the line.
+     * @param length The number of characters of the line, skipped if 0.
+     * @param consumer Called with the character and the book of the line.
+     * @throws IllegalArgumentException if the line has no character or no book
+     */
+    private static void emit(char[] line, int length, BiConsumer<String, String> consumer) {
+        if (length == 0) {
+            return;
+        }
+        int comma = 0;
+        while (comma < length && line[comma] != ',') {
+            comma++;
+        }
+        int end = comma + 1;
+        while (end < length && line[end] != ',') {
+            end++;
+        }
+        checkFields(comma, end, length, () -> new String(line, 0, length));
+        consumer.accept(new String(line, 0, comma), new String(line, comma + 1, end - comma - 1));
+    }
+
+    /**
+     * Checks that a line scanned for commas names both a character and a book,
+     * the one rule every way of reading lines shares.
+     *
+     * @param comma The position of the first comma, or length if there is none.
+     * @param end The position of the comma after the book, or length if there is none.
+     * @param length The length of the line.
+     * @param line Makes the text of the line, for the message.
+     * @throws IllegalArgumentException if the character or the book is empty
+     */
+    static void checkFields(int comma, int end, int length, Supplier<String> line) {
+        if (comma == 0 || comma >= length || end == comma + 1) {
+            throw new IllegalArgumentException("Malformed line: " + line.get());
+        }
+    }
+
     /**
      * Reads all lines contained within the provided data file, which is located
      * relative to the data/ folder in this parser's classpath.
@@ -65,12 +166,25 @@ public class MarvelParser {
         //   - If the class is in src/main, it'll get resources from src/main/resources
         //   - If the class is in src/test, it'll get resources from src/test/resources
         //   - The "/" at the beginning of the path is important
+        InputStream stream = openData(filename);
+        return new BufferedReader(new InputStreamReader(stream)).lines().collect(Collectors.toList());
+    }
+
+    /**
+     * Opens the provided data file, which is located relative to the data/ folder
+     * in this parser's classpath.
+     *
+     * @param filename The file to open.
+     * @throws IllegalArgumentException if the file doesn't exist or has an invalid name
+     * @return A stream of the file's bytes.
+     */
+    static InputStream openData(String filename) {
         InputStream stream = MarvelParser.class.getResourceAsStream("/data/" + filename);
         if (stream == null) {
             // The file doesn't exist. We want to handle this case so we don't try to call
             // readLines and have a null pointer exception.
             throw new IllegalArgumentException("No such file: " + filename);
         }
-        return new BufferedReader(new InputStreamReader(stream)).lines().collect(Collectors.toList());
+        return stream;
     }
 }
@@ -15,6 +15,17 @@ public class MarvelPaths {
      * This class, Graph, is not an ADT.
      */
 
+    /**
+     * Number of landmarks used to prune the searches in main.
+     */
+    private static final int LANDMARKS = 16;
+
+    /**
+     * Most typos allowed in and most names listed by a suggestion in main.
+     */
+    private static final int SUGGESTION_EDITS = 2;
+    private static final int SUGGESTIONS = 5;
+
     /**
      * The main method
      *
@@ -24,14 +35,20 @@ public class MarvelPaths {
     public static void main(String[] args) throws IOException {
         Scanner input = new Scanner(System.in);
         boolean stop = false;
-        Graph<String,String> MarvelGraph = createMarvelGraph("marvel.csv");
+        MarvelCache loaded = MarvelCache.load("marvel.csv");
+        Graph<String,String> MarvelGraph = loaded.getGraph();
+        CompactGraph snapshot = loaded.snapshot();
+        LandmarkOracle oracle = new LandmarkOracle(snapshot, LANDMARKS);
+        CharacterIndex index = new CharacterIndex(snapshot);
         while (!stop) {
             System.out.println("Character name 1: ");
             String startingCharacter = input.nextLine();
             System.out.println("Character name 2: ");
             String endingCharacter = input.nextLine();
+            startingCharacter = resolveName(index, startingCharacter);
+            endingCharacter = resolveName(index, endingCharacter);
             try {
-                List<Node<String,String>.Edge> bestPath = findPath(MarvelGraph, startingCharacter, endingCharacter);
+                List<Node<String,String>.Edge> bestPath = findPath(MarvelGraph, startingCharacter, endingCharacter, oracle);
                 if (bestPath != null) {
                     String last = startingCharacter;
                     for (Node<java.lang.String, java.lang.String>.Edge curr : bestPath) {
@@ -44,9 +61,11 @@ public class MarvelPaths {
             } catch (IllegalArgumentException e) {
                 if (MarvelGraph.getNode(startingCharacter) == null) {
                     System.out.println(startingCharacter + " isn't in the provided data.");
+                    printSuggestions(index, startingCharacter);
                 }
                 if (MarvelGraph.getNode(endingCharacter) == null) {
                     System.out.println(endingCharacter + " isn't in the provided data.");
+                    printSuggestions(index, endingCharacter);
                 }
             }
             System.out.println();
@@ -63,6 +82,38 @@ public class MarvelPaths {
         }
     }
 
+    /**
+     * @param index = index of the characters in the graph
+     * @param name = name typed by the user
+     * @return the character the user meant, or name if there isn't exactly one
+     */
+    private static String resolveName(CharacterIndex index, String name) {
+        String resolved = index.resolve(name);
+        if (resolved == null) {
+            return name;
+        }
+        if (!resolved.equals(name)) {
+            System.out.println("Using " + resolved + " for " + name + ".");
+        }
+        return resolved;
+    }
+
+    /**
+     * Prints the characters with names close to the given name, if any
+     *
+     * @param index = index of the characters in the graph
+     * @param name = name that isn't in the graph
+     */
+    private static void printSuggestions(CharacterIndex index, String name) {
+        List<String> suggestions = index.suggest(name, SUGGESTION_EDITS, SUGGESTIONS);
+        if (suggestions.isEmpty()) {
+            suggestions = index.complete(name, SUGGESTIONS);
+        }
+        if (!suggestions.isEmpty()) {
+            System.out.println("Did you mean " + String.join(", ", suggestions) + "?");
+        }
+    }
+
     /**
      * Creates a graph from the given data
      *
@@ -71,28 +122,7 @@ public class MarvelPaths {
      * @return returns a graph built from file data of the MCU
      */
     public static Graph<String,String> createMarvelGraph(String file) throws IOException {
-        List<List<String>> data = MarvelParser.parseData(file);
-        Graph<String,String> MarvelGraph = new Graph<>();
-        HashMap<String, HashSet<Node<String,String>>> charactersBooks = new HashMap<>();
-        for (List<String> line : data) {
-            String character = line.get(0);
-            Node<String,String> characterVertex = new Node<>(character);
-            boolean vertexAdded = MarvelGraph.addNode(characterVertex);
-            if (!vertexAdded) {
-                characterVertex = MarvelGraph.getNode(character);
-            }
-            String book = line.get(1);
-            if (!charactersBooks.containsKey(book)) {
-                charactersBooks.put(book, new HashSet<>());
-            }
-            HashSet<Node<String,String>> currCharacterBook = charactersBooks.get(book);
-            for (Node<String, String> currCharacter : currCharacterBook) {
-                MarvelGraph.addEdge(characterVertex, currCharacter, book);
-                MarvelGraph.addEdge(currCharacter, characterVertex, book);
-            }
-            currCharacterBook.add(characterVertex);
-        }
-        return MarvelGraph;
+        return new LiveMarvelGraph(file).getGraph();
     }
 
     /**
@@ -105,6 +135,26 @@ public class MarvelPaths {
      * least path
      */
     public static List<Node<String,String>.Edge> findPath(Graph<String,String> MarvelGraph, String startingCharacter, String endingCharacter) {
+        return findPath(MarvelGraph, startingCharacter, endingCharacter, null);
+    }
+
+    /**
+     * Finds the shortest paths between two characters in the graph, skipping
+     * every character the oracle proves is too far from the ending character
+     * to be on a shortest path. The result is the same path as without the
+     * oracle.
+     *
+     * @param MarvelGraph = graph in which we are finding the path
+     * @param startingCharacter = vertex value of the starting character
+     * @param endingCharacter = vertex value of the ending character
+     * @param oracle = distance bounds over a snapshot of MarvelGraph, or null
+     *               to search without pruning
+     * @spec.requires every edge of MarvelGraph has a reverse edge if oracle != null
+     * @return list containing the shortest and lexicographically
+     * least path
+     */
+    public static List<Node<String,String>.Edge> findPath(Graph<String,String> MarvelGraph, String startingCharacter,
+                                                          String endingCharacter, LandmarkOracle oracle) {
         if (MarvelGraph.getNode(startingCharacter) == null || MarvelGraph.getNode(endingCharacter) == null) {
             throw new IllegalArgumentException();
         }
@@ -113,6 +163,12 @@ public class MarvelPaths {
         if (start.equals(end)) {
             return new ArrayList<>();
         } else {
+            // longest a shortest path can be, children that can't beat it are pruned
+            int limit = oracle == null ? LandmarkOracle.INFINITE : oracle.upperBound(startingCharacter, endingCharacter);
+            if (oracle != null && oracle.lowerBound(startingCharacter, endingCharacter) == LandmarkOracle.INFINITE) {
+                return null;
+            }
+            Set<Node<String,String>> pruned = new HashSet<>();
             Queue<Node<String,String>> queue = new LinkedList<>();
             queue.add(start);
             Map<Node<String,String>, List<Node<String,String>.Edge>> seen = new HashMap<>();
@@ -122,10 +178,18 @@ public class MarvelPaths {
                 if (curr.equals(end)) {
                     return seen.get(curr);
                 }
+                int childDepth = seen.get(curr).size() + 1;
                 List<Node<String,String>.Edge> currPath = new ArrayList<>(curr.getEdges());
                 currPath.sort(new compareChildren());
                 for (Node<String,String>.Edge edge : currPath) {
-                    if (!seen.containsKey(edge.getChild())) {
+                    if (oracle != null && !seen.containsKey(edge.getChild()) && !pruned.contains(edge.getChild())) {
+                        int remaining = oracle.lowerBound(edge.getChild().getLabel(), endingCharacter);
+                        if (remaining == LandmarkOracle.INFINITE
+                                || (limit != LandmarkOracle.INFINITE && childDepth + remaining > limit)) {
+                            pruned.add(edge.getChild());
+                        }
+                    }
+                    if (!seen.containsKey(edge.getChild()) && !pruned.contains(edge.getChild())) {
                         List<Node<String, String>.Edge> newPath = new ArrayList<Node<java.lang.String, java.lang.String>.Edge>(seen.get(curr));
                         newPath.add(edge);
                         seen.put(edge.getChild(), newPath);
@@ -0,0 +1,276 @@
+package marvel;
+
+import graph.Graph;
+import graph.Node;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * MarvelSearch finds the same shortest paths as MarvelPaths.findPath, but
+ * searches a CompactGraph snapshot with arrays that are reused from one
+ * search to the next. In direction optimizing mode every level of the
+ * breadth first search is expanded in whichever direction inspects fewer
+ * edges: top-down from the frontier, or bottom-up from the characters not
+ * reached yet, which wins on the huge middle levels of the Marvel graph.
+ *
+ * Ties are broken exactly like MarvelPaths.findPath: each level is ordered by
+ * the position of the parent in the previous level and then by name, and a
+ * character's parent is its earliest neighbor in the previous level. A
+ * MarvelSearch is not safe to use from several threads at once.
+ */
+public class MarvelSearch {
+
+    /**
+     * Abstraction function:
+     * AF(this) = a path finder over graph, whose characters and edges are
+     * also given by snapshot; the remaining fields are scratch space of the
+     * last search, with edgesInspected the number of edges it looked at
+     *
+     * Representation invariant:
+     * graph != null && snapshot != null && every scratch array has
+     * snapshot.size() entries (counts one more)
+     */
+
+    private static final boolean CHECK_REP = false;
+
+    private final Graph<String,String> graph;
+    private final CompactGraph snapshot;
+
+    // visited[v] == search iff v has been reached by the current search, so
+    // nothing has to be cleared between searches
+    private final int[] visited;
+    private final int[] level;
+    private final int[] parent;
+    private final int[] rank;
+    private int[] frontier;
+    private int[] next;
+    private final int[] counts;
+    private final int[] sorted;
+    private int search;
+    private long edgesInspected;
+
+    /**
+     * @param graph = graph the paths are reported in
+     * @param snapshot = snapshot of graph
+     * @spec.requires graph != null && snapshot is CompactGraph.fromGraph(graph)
+     * and graph has not changed since
+     * @spec.effects Constructs a search over the graph
+     */
+    public MarvelSearch(Graph<String,String> graph, CompactGraph snapshot) {
+        int n = snapshot.size();
+        this.graph = graph;
+        this.snapshot = snapshot;
+        this.visited = new int[n];
+        this.level = new int[n];
+        this.parent = new int[n];
+        this.rank = new int[n];
+        this.frontier = new int[n];
+        this.next = new int[n];
+        this.counts = new int[n + 1];
+        this.sorted = new int[n];
+        this.search = 0;
+        this.edgesInspected = 0;
+        checkRep();
+    }
+
+    /**
+     * Finds the shortest and lexicographically least path between two characters
+     *
+     * @param startingCharacter = vertex value of the starting character
+     * @param endingCharacter = vertex value of the ending character
+     * @param directionOptimizing = true to switch to bottom-up levels when they
+     *                            inspect fewer edges, false for a plain top-down search
+     * @spec.requires every edge of the graph has a reverse edge if directionOptimizing
+     * @throws IllegalArgumentException if either character is not in the graph
+     * @return the same path as MarvelPaths.findPath, or null if there is none
+     */
+    public List<Node<String,String>.Edge> findPath(String startingCharacter, String endingCharacter,
+                                                    boolean directionOptimizing) {
+        int start = snapshot.id(startingCharacter);
+        int end = snapshot.id(endingCharacter);
+        if (start < 0 || end < 0) {
+            throw new IllegalArgumentException();
+        }
+        edgesInspected = 0;
+        if (start == end) {
+            return new ArrayList<>();
+        }
+        if (!search(start, end, directionOptimizing)) {
+            return null;
+        }
+
+        List<Node<String,String>.Edge> path = new ArrayList<>();
+        for (int v = end; v != start; v = parent[v]) {
+            Node<String,String> parentNode = graph.getNode(snapshot.name(parent[v]));
+            path.add(parentNode.new Edge(graph.getNode(snapshot.name(v)), snapshot.label(parent[v], v)));
+        }
+        Collections.reverse(path);
+        return path;
+    }
+
+    /**
+     * @return the number of edges the last findPath looked at
+     */
+    public long edgesInspected() {
+        return edgesInspected;
+    }
+
+    /**
+     * Runs the breadth first search until end is reached
+     *
+     * @param start = id to search from
+     * @param end = id to search for
+     * @param directionOptimizing = true to allow bottom-up levels
+     * @spec.modifies the scratch arrays, edgesInspected
+     * @return true iff end was reached, in which case parent leads back from end to start
+     */
+    private boolean search(int start, int end, boolean directionOptimizing) {
+        search++;
+        if (search == 0) {
+            // the count wrapped around, so old counts could match it again
+            Arrays.fill(visited, 0);
+            search = 1;
+        }
+        int[] offsets = snapshot.offsets;
+        int[] neighbors = snapshot.neighbors;
+        long unvisitedEdges = snapshot.edgeCount() - snapshot.degree(start);
+        visited[start] = search;
+        level[start] = 0;
+        rank[start] = 0;
+        frontier[0] = start;
+        int frontierSize = 1;
+        long frontierEdges = snapshot.degree(start);
+        int depth = 0;
+
+        while (frontierSize > 0) {
+            if (directionOptimizing) {
+                // the last level only needs end's parent, which end's own edges give
+                int best = earliestParent(end, depth);
+                if (best >= 0) {
+                    parent[end] = best;
+                    return true;
+                }
+            }
+
+            int nextSize = 0;
+            long nextEdges = 0;
+            if (directionOptimizing && frontierEdges > unvisitedEdges) {
+                // bottom-up: every unreached character looks for its earliest parent
+                for (int w = 0; w < visited.length; w++) {
+                    if (visited[w] != search) {
+                        int best = earliestParent(w, depth);
+                        if (best >= 0) {
+                            parent[w] = best;
+                            next[nextSize] = w;
+                            nextSize++;
+                        }
+                    }
+                }
+                // found in order of id, put them in order of parent rank, then id
+                sortByParentRank(nextSize, frontierSize);
+                for (int i = 0; i < nextSize; i++) {
+                    int w = next[i];
+                    visited[w] = search;
+                    level[w] = depth + 1;
+                    rank[w] = i;
+                    nextEdges += snapshot.degree(w);
+                }
+            } else {
+                // top-down: children are appended in order of parent, then id
+                for (int i = 0; i < frontierSize; i++) {
+                    int v = frontier[i];
+                    for (int j = offsets[v]; j < offsets[v + 1]; j++) {
+                        int w = neighbors[j];
+                        edgesInspected++;
+                        if (visited[w] != search) {
+                            visited[w] = search;
+                            level[w] = depth + 1;
+                            parent[w] = v;
+                            rank[w] = nextSize;
+                            next[nextSize] = w;
+                            nextSize++;
+                            nextEdges += offsets[w + 1] - offsets[w];
+                            if (w == end) {
+                                return true;
+                            }
+                        }
+                    }
+                }
+            }
+
+            if (visited[end] == search) {
+                return true;
+            }
+            int[] swap = frontier;
+            frontier = next;
+            next = swap;
+            frontierSize = nextSize;
+            frontierEdges = nextEdges;
+            unvisitedEdges -= nextEdges;
+            depth++;
+        }
+        return false;
+    }
+
+    /**
+     * @param w = id of a character
+     * @param depth = level of the current frontier
+     * @spec.modifies edgesInspected
+     * @return the neighbor of w in the current frontier with the lowest rank,
+     * or -1 if w has no neighbor in the frontier
+     */
+    private int earliestParent(int w, int depth) {
+        int[] offsets = snapshot.offsets;
+        int[] neighbors = snapshot.neighbors;
+        int best = -1;
+        edgesInspected += offsets[w + 1] - offsets[w];
+        for (int j = offsets[w]; j < offsets[w + 1]; j++) {
+            int u = neighbors[j];
+            if (visited[u] == search && level[u] == depth && (best < 0 || rank[u] < rank[best])) {
+                best = u;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Stably sorts next[0 .. size - 1] by the rank of each entry's parent
+     *
+     * @param size = number of entries of next to sort
+     * @param ranks = number of distinct parent ranks
+     * @spec.modifies next, sorted, counts
+     */
+    private void sortByParentRank(int size, int ranks) {
+        for (int r = 0; r <= ranks; r++) {
+            counts[r] = 0;
+        }
+        for (int i = 0; i < size; i++) {
+            counts[rank[parent[next[i]]] + 1]++;
+        }
+        for (int r = 0; r < ranks; r++) {
+            counts[r + 1] += counts[r];
+        }
+        for (int i = 0; i < size; i++) {
+            int w = next[i];
+            sorted[counts[rank[parent[w]]]] = w;
+            counts[rank[parent[w]]]++;
+        }
+        System.arraycopy(sorted, 0, next, 0, size);
+    }
+
+    /**
+     * Throws an exception if the representation invariant is violated
+     */
+    private void checkRep() {
+        assert graph != null && snapshot != null : "graph and snapshot cannot be null";
+
+        if (CHECK_REP) {
+            int n = snapshot.size();
+            assert visited.length == n && level.length == n && parent.length == n && rank.length == n;
+            assert frontier.length == n && next.length == n && counts.length == n + 1 && sorted.length == n;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package marvel;
+
+import graph.Graph;
+import graph.Node;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * MarvelService answers Marvel queries from many threads at once, for
+ * serving them over HTTP. The graph, its snapshot and the name index are
+ * built once and only ever read; the scratch arrays the searches need are
+ * kept per thread, so a query does no work beyond the search itself and
+ * threads never wait on each other.
+ */
+public class MarvelService {
+
+    /**
+     * Abstraction function:
+     * AF(this) = a query service over graph, whose snapshot and name index
+     * are snapshot and index
+     *
+     * Representation invariant:
+     * graph != null && snapshot != null && index != null &&
+     * searches != null && neighborhoods != null
+     */
+
+    private final Graph<String,String> graph;
+    private final CompactGraph snapshot;
+    private final CharacterIndex index;
+    private final ThreadLocal<MarvelSearch> searches;
+    private final ThreadLocal<Neighborhood> neighborhoods;
+
+    /**
+     * @param graph = graph to answer queries over
+     * @param snapshot = snapshot of graph
+     * @spec.requires graph != null && snapshot is CompactGraph.fromGraph(graph)
+     * && every edge of graph has a reverse edge && neither is changed afterwards
+     * @spec.effects Constructs a service over the graph
+     */
+    public MarvelService(Graph<String,String> graph, CompactGraph snapshot) {
+        this.graph = graph;
+        this.snapshot = snapshot;
+        this.index = new CharacterIndex(snapshot);
+        this.searches = ThreadLocal.withInitial(() -> new MarvelSearch(graph, snapshot));
+        this.neighborhoods = ThreadLocal.withInitial(() -> new Neighborhood(snapshot));
+        checkRep();
+    }
+
+    /**
+     * @param startingCharacter = vertex value of the starting character
+     * @param endingCharacter = vertex value of the ending character
+     * @throws IllegalArgumentException if either character is not in the graph
+     * @return the same path as MarvelPaths.findPath, or null if there is none
+     */
+    public List<Node<String,String>.Edge> findPath(String startingCharacter, String endingCharacter) {
+        return searches.get().findPath(startingCharacter, endingCharacter, true);
+    }
+
+    /**
+     * @param character = name of the character at the center
+     * @param k = most hops away a character may be
+     * @param limit = most names to put in characters
+     * @param characters = list the first limit characters within k hops are
+     *                   added to, closest first
+     * @spec.requires limit >= 0 && characters != null
+     * @spec.modifies characters
+     * @throws IllegalArgumentException if the character is not in the graph or k < 0
+     * @return the number of other characters within k hops of the character
+     */
+    public int neighbors(String character, int k, int limit, List<String> characters) {
+        return neighborhoods.get().forEach(character, k, (name, distance) -> {
+            if (characters.size() < limit) {
+                characters.add(name);
+            }
+        });
+    }
+
+    /**
+     * @param query = name typed by the user
+     * @spec.requires query != null
+     * @return the character the query most likely means, or null if there
+     * is no single best match
+     */
+    public String resolve(String query) {
+        return index.resolve(query);
+    }
+
+    /**
+     * @param query = name, start of a name, or misspelled name typed by the user
+     * @param maxEdits = most typos a suggestion may be away from the query
+     * @param limit = most names to return
+     * @spec.requires query != null && maxEdits >= 0 && limit >= 0
+     * @return up to limit names starting like the query, followed by names
+     * within maxEdits typos of it, without repeats
+     */
+    public List<String> lookup(String query, int maxEdits, int limit) {
+        List<String> names = new ArrayList<>(index.complete(query, limit));
+        for (String name : index.suggest(query, maxEdits, limit)) {
+            if (names.size() < limit && !names.contains(name)) {
+                names.add(name);
+            }
+        }
+        return names;
+    }
+
+    /**
+     * @return the graph the queries are answered over
+     */
+    public Graph<String,String> getGraph() {
+        return graph;
+    }
+
+    /**
+     * Throws an exception if the representation invariant is violated
+     */
+    private void checkRep() {
+        assert graph != null && snapshot != null && index != null : "fields cannot be null";
+        assert searches != null && neighborhoods != null : "scratch space cannot be null";
+    }
+}
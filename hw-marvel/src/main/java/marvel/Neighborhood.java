@@ -0,0 +1,140 @@
+package marvel;
+
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Neighborhood answers "who is within k hops of this character" over a
+ * CompactGraph. It runs a breadth first search that stops after k levels and
+ * hands every character to the caller as soon as it is reached, so no result
+ * collection is ever built. The visited set is a bitset that is reused from
+ * one query to the next and cleared by walking only the characters the query
+ * reached. A Neighborhood is not safe to use from several threads at once.
+ */
+public class Neighborhood {
+
+    /**
+     * Abstraction function:
+     * AF(this) = a k-hop query engine over graph; the remaining fields are
+     * scratch space of the current query
+     *
+     * Representation invariant:
+     * graph != null && visited has a bit per character of graph and, between
+     * queries, all of them clear && reached has one entry per character
+     */
+
+    private static final boolean CHECK_REP = false;
+
+    private final CompactGraph graph;
+    private final long[] visited;
+    // the characters reached by the current query in order of distance; the
+    // characters of one level form a contiguous stretch of it
+    private final int[] reached;
+
+    /**
+     * @param graph = graph to query
+     * @spec.requires graph != null
+     * @spec.effects Constructs a query engine over the graph
+     */
+    public Neighborhood(CompactGraph graph) {
+        this.graph = graph;
+        this.visited = new long[(graph.size() + Long.SIZE - 1) / Long.SIZE];
+        this.reached = new int[graph.size()];
+        checkRep();
+    }
+
+    /**
+     * @param character = name of the character at the center
+     * @param k = most hops away a character may be
+     * @throws IllegalArgumentException if the character is not in the graph or k < 0
+     * @return the number of other characters at most k hops from the character
+     */
+    public int count(String character, int k) {
+        return forEach(character, k, null);
+    }
+
+    /**
+     * Passes every other character at most k hops from the given character
+     * to action, together with its distance, in order of distance and then in
+     * breadth first order, as the search reaches it
+     *
+     * @param character = name of the character at the center
+     * @param k = most hops away a character may be
+     * @param action = called with each character and its distance, or null
+     *               to only count them
+     * @throws IllegalArgumentException if the character is not in the graph or k < 0
+     * @return the number of characters passed to action
+     */
+    public int forEach(String character, int k, ObjIntConsumer<String> action) {
+        int center = graph.id(character);
+        if (center < 0) {
+            throw new IllegalArgumentException(character + " is not in the graph");
+        }
+        if (k < 0) {
+            throw new IllegalArgumentException("k must be non-negative");
+        }
+        int[] offsets = graph.offsets;
+        int[] neighbors = graph.neighbors;
+        mark(center);
+        reached[0] = center;
+        int size = 1;
+        int levelStart = 0;
+        try {
+            for (int depth = 1; depth <= k && levelStart < size; depth++) {
+                int levelEnd = size;
+                for (int i = levelStart; i < levelEnd; i++) {
+                    int v = reached[i];
+                    for (int j = offsets[v]; j < offsets[v + 1]; j++) {
+                        int w = neighbors[j];
+                        if (!isMarked(w)) {
+                            mark(w);
+                            reached[size] = w;
+                            size++;
+                            if (action != null) {
+                                action.accept(graph.name(w), depth);
+                            }
+                        }
+                    }
+                }
+                levelStart = levelEnd;
+            }
+        } finally {
+            // clear only the bits this query set, even if action threw
+            for (int i = 0; i < size; i++) {
+                visited[reached[i] >>> 6] = 0;
+            }
+            checkRep();
+        }
+        return size - 1;
+    }
+
+    /**
+     * @param id = id of a character
+     * @spec.modifies visited
+     * @spec.effects marks the character as reached
+     */
+    private void mark(int id) {
+        visited[id >>> 6] |= 1L << id;
+    }
+
+    /**
+     * @param id = id of a character
+     * @return true iff the character has been reached by the current query
+     */
+    private boolean isMarked(int id) {
+        return (visited[id >>> 6] & (1L << id)) != 0;
+    }
+
+    /**
+     * Throws an exception if the representation invariant is violated
+     */
+    private void checkRep() {
+        assert graph != null : "graph cannot be null";
+        assert visited.length * Long.SIZE >= graph.size() && reached.length == graph.size() : "one slot per character";
+
+        if (CHECK_REP) {
+            for (long word : visited) {
+                assert word == 0 : "visited must be clear between queries";
+            }
+        }
+    }
+}
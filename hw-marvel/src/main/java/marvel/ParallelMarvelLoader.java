@@ -0,0 +1,335 @@
+package marvel;
+
+import graph.Graph;
+import graph.Node;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * This class, ParallelMarvelLoader, builds the same graph as
+ * MarvelPaths.createMarvelGraph using several threads. The data file is
+ * memory-mapped and cut at line breaks into one chunk per thread; each chunk
+ * is parsed into its own character and book tables, the tables are merged
+ * into global ids, and the edges are then added in parallel with every
+ * thread owning a disjoint set of parent nodes, so no node is ever modified
+ * by two threads.
+ */
+public class ParallelMarvelLoader {
+
+    /**
+     * This class, ParallelMarvelLoader, is not an ADT.
+     */
+
+    /**
+     * Builds a graph from the given data using the given number of threads
+     *
+     * @param file = file name in the data folder
+     * @param threads = number of threads to parse and add edges with
+     * @spec.requires file is a valid file in the resources/data folder
+     * @throws IllegalArgumentException if threads < 1, the file doesn't exist
+     * or a line has no character or no book
+     * @return a graph equal to MarvelPaths.createMarvelGraph(file)
+     */
+    public static Graph<String,String> load(String file, int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads must be positive");
+        }
+        ByteBuffer data = map(file);
+        int[] bounds = chunkBounds(data, threads);
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            Chunk[] chunks = new Chunk[threads];
+            pool.submit(() -> IntStream.range(0, threads).parallel().forEach(c ->
+                    chunks[c] = new Chunk(data, bounds[c], bounds[c + 1]))).get();
+
+            Merged merged = new Merged(chunks);
+            Graph<String,String> graph = new Graph<>();
+            List<Node<String,String>> nodes = new ArrayList<>(merged.characters.length);
+            for (String character : merged.characters) {
+                Node<String,String> node = new Node<>(character);
+                graph.addNode(node);
+                nodes.add(node);
+            }
+            pool.submit(() -> IntStream.range(0, nodes.size()).parallel().forEach(character ->
+                    addEdges(graph, nodes, merged, character))).get();
+            return graph;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while loading " + file, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException("Failed to load " + file, e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Adds every edge leaving one character, the same edges createMarvelGraph
+     * adds: one to each other character of each of its books, and one to
+     * itself for a book it is listed in twice
+     *
+     * @param graph = graph to add the edges to
+     * @param nodes = node of every character, by global id
+     * @param merged = books of every character and characters of every book
+     * @param character = global id of the parent of the edges
+     * @spec.modifies the node of character
+     * @spec.effects adds the character's outgoing edges
+     */
+    private static void addEdges(Graph<String,String> graph, List<Node<String,String>> nodes,
+                                 Merged merged, int character) {
+        Node<String,String> parent = nodes.get(character);
+        for (int i = merged.bookOffsets[character]; i < merged.bookOffsets[character + 1]; i++) {
+            int book = merged.booksOf[i];
+            String label = merged.books[book];
+            boolean listed = false;
+            for (int j = merged.memberOffsets[book]; j < merged.memberOffsets[book + 1]; j++) {
+                int member = merged.members[j];
+                if (member != character || listed) {
+                    graph.addEdge(parent, nodes.get(member), label);
+                } else {
+                    listed = true;
+                }
+            }
+        }
+    }
+
+    /**
+     * @param file = file name in the data folder
+     * @throws IllegalArgumentException if the file doesn't exist
+     * @return the bytes of the file, memory-mapped if it is a plain file on disk
+     */
+    private static ByteBuffer map(String file) {
+        URL url = MarvelParser.class.getResource("/data/" + file);
+        if (url == null) {
+            throw new IllegalArgumentException("No such file: " + file);
+        }
+        try {
+            if (url.getProtocol().equals("file")) {
+                try (FileChannel channel = FileChannel.open(Paths.get(url.toURI()), StandardOpenOption.READ)) {
+                    return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                }
+            }
+            // inside a jar there is nothing to map, so read it into memory instead
+            try (InputStream stream = url.openStream()) {
+                return ByteBuffer.wrap(stream.readAllBytes());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (URISyntaxException e) {
+            throw new IllegalArgumentException("Bad path for " + file, e);
+        }
+    }
+
+    /**
+     * @param data = bytes of the file
+     * @param chunks = number of chunks to cut the file into
+     * @return chunks + 1 positions, starting at 0 and ending at the end of the
+     * data, where every position in between is just past a line break (chunks
+     * can be empty)
+     */
+    private static int[] chunkBounds(ByteBuffer data, int chunks) {
+        int[] bounds = new int[chunks + 1];
+        int size = data.limit();
+        for (int c = 1; c < chunks; c++) {
+            int position = Math.max(bounds[c - 1], (int) ((long) size * c / chunks));
+            while (position > 0 && position < size && data.get(position - 1) != '\n') {
+                position++;
+            }
+            bounds[c] = position;
+        }
+        bounds[chunks] = size;
+        return bounds;
+    }
+
+    /**
+     * The lines of one chunk of the file, with characters and books numbered
+     * in the order they first appear in the chunk
+     */
+    private static class Chunk {
+        private final List<String> characters = new ArrayList<>();
+        private final List<String> books = new ArrayList<>();
+        // line i is characters.get(lines[2 * i]) in books.get(lines[2 * i + 1])
+        private int[] lines = new int[256];
+        private int lineCount = 0;
+
+        /**
+         * @param data = bytes of the file
+         * @param from = first byte of the chunk
+         * @param to = one past the last byte of the chunk
+         * @throws IllegalArgumentException if a line has no character or no book
+         * @spec.effects Constructs the parsed chunk
+         */
+        private Chunk(ByteBuffer data, int from, int to) {
+            Map<String, Integer> characterIds = new HashMap<>();
+            Map<String, Integer> bookIds = new HashMap<>();
+            byte[] line = new byte[128];
+            int length = 0;
+            for (int i = from; i <= to; i++) {
+                byte b = i < to ? data.get(i) : (byte) '\n';
+                if (b == '\n' || b == '\r') {
+                    if (length > 0) {
+                        addLine(line, length, characterIds, bookIds);
+                    }
+                    length = 0;
+                } else {
+                    if (length == line.length) {
+                        line = Arrays.copyOf(line, line.length * 2);
+                    }
+                    line[length] = b;
+                    length++;
+                }
+            }
+        }
+
+        /**
+         * @param line = bytes of the line
+         * @param length = number of bytes in the line
+         * @param characterIds = local id of each character seen so far
+         * @param bookIds = local id of each book seen so far
+         * @spec.modifies this, characterIds, bookIds
+         * @spec.effects records the line
+         * @throws IllegalArgumentException if the line has no character or no book
+         */
+        private void addLine(byte[] line, int length, Map<String, Integer> characterIds, Map<String, Integer> bookIds) {
+            int comma = 0;
+            while (comma < length && line[comma] != ',') {
+                comma++;
+            }
+            int end = comma + 1;
+            while (end < length && line[end] != ',') {
+                end++;
+            }
+            MarvelParser.checkFields(comma, end, length, () -> new String(line, 0, length, StandardCharsets.UTF_8));
+            String character = new String(line, 0, comma, StandardCharsets.UTF_8);
+            String book = new String(line, comma + 1, end - comma - 1, StandardCharsets.UTF_8);
+            if (2 * lineCount + 2 > lines.length) {
+                lines = Arrays.copyOf(lines, lines.length * 2);
+            }
+            lines[2 * lineCount] = localId(character, characterIds, characters);
+            lines[2 * lineCount + 1] = localId(book, bookIds, books);
+            lineCount++;
+        }
+
+        /**
+         * @param name = name to number
+         * @param ids = ids given out so far
+         * @param names = names in order of id
+         * @spec.modifies ids, names
+         * @return the id of name, giving it the next id if it is new
+         */
+        private static int localId(String name, Map<String, Integer> ids, List<String> names) {
+            Integer id = ids.get(name);
+            if (id == null) {
+                id = names.size();
+                ids.put(name, id);
+                names.add(name);
+            }
+            return id;
+        }
+    }
+
+    /**
+     * The lines of every chunk under global ids, indexed both ways: the books
+     * of each character and the characters of each book, in file order
+     */
+    private static class Merged {
+        private final String[] characters;
+        private final String[] books;
+        private final int[] bookOffsets;
+        private final int[] booksOf;
+        private final int[] memberOffsets;
+        private final int[] members;
+
+        /**
+         * @param chunks = parsed chunks, in file order
+         * @spec.effects Constructs the merged tables
+         */
+        private Merged(Chunk[] chunks) {
+            Map<String, Integer> characterIds = new HashMap<>();
+            Map<String, Integer> bookIds = new HashMap<>();
+            List<String> characterNames = new ArrayList<>();
+            List<String> bookNames = new ArrayList<>();
+            int[][] characterMap = new int[chunks.length][];
+            int[][] bookMap = new int[chunks.length][];
+            int totalLines = 0;
+            for (int c = 0; c < chunks.length; c++) {
+                characterMap[c] = globalIds(chunks[c].characters, characterIds, characterNames);
+                bookMap[c] = globalIds(chunks[c].books, bookIds, bookNames);
+                totalLines += chunks[c].lineCount;
+            }
+            this.characters = characterNames.toArray(new String[0]);
+            this.books = bookNames.toArray(new String[0]);
+
+            int[] lineCharacters = new int[totalLines];
+            int[] lineBooks = new int[totalLines];
+            int line = 0;
+            for (int c = 0; c < chunks.length; c++) {
+                for (int i = 0; i < chunks[c].lineCount; i++) {
+                    lineCharacters[line] = characterMap[c][chunks[c].lines[2 * i]];
+                    lineBooks[line] = bookMap[c][chunks[c].lines[2 * i + 1]];
+                    line++;
+                }
+            }
+            this.bookOffsets = new int[characters.length + 1];
+            this.booksOf = group(lineCharacters, lineBooks, bookOffsets);
+            this.memberOffsets = new int[books.length + 1];
+            this.members = group(lineBooks, lineCharacters, memberOffsets);
+        }
+
+        /**
+         * @param local = names in order of local id
+         * @param ids = global ids given out so far
+         * @param names = names in order of global id
+         * @spec.modifies ids, names
+         * @return the global id of each local id
+         */
+        private static int[] globalIds(List<String> local, Map<String, Integer> ids, List<String> names) {
+            int[] global = new int[local.size()];
+            for (int i = 0; i < global.length; i++) {
+                global[i] = Chunk.localId(local.get(i), ids, names);
+            }
+            return global;
+        }
+
+        /**
+         * @param keys = key of every line
+         * @param values = value of every line
+         * @param offsets = filled in with where each key's values start, one
+         *                more entry than there are keys
+         * @spec.modifies offsets
+         * @return the values of every line grouped by key, in line order within a key
+         */
+        private static int[] group(int[] keys, int[] values, int[] offsets) {
+            for (int key : keys) {
+                offsets[key + 1]++;
+            }
+            for (int k = 0; k + 1 < offsets.length; k++) {
+                offsets[k + 1] += offsets[k];
+            }
+            int[] next = Arrays.copyOf(offsets, offsets.length - 1);
+            int[] grouped = new int[keys.length];
+            for (int i = 0; i < keys.length; i++) {
+                grouped[next[keys[i]]] = values[i];
+                next[keys[i]]++;
+            }
+            return grouped;
+        }
+    }
+}
@@ -0,0 +1,352 @@
+package marvel;
+
+import graph.Graph;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * This class, SeparationAnalytics, computes degrees of separation over a
+ * whole CompactGraph. Instead of one breadth first search per character it
+ * runs a multi-source BFS: up to 64 searches share a single pass over the
+ * graph, with bit i of a long word saying whether search i has reached a
+ * vertex. Batches of 64 sources are independent, so they are run in parallel.
+ */
+public class SeparationAnalytics {
+
+    /**
+     * This class, SeparationAnalytics, is not an ADT.
+     */
+
+    /**
+     * Number of searches that share one pass, one per bit of a long.
+     */
+    private static final int BATCH_SIZE = Long.SIZE;
+
+    /**
+     * Prints the degrees of separation histogram of the Marvel graph
+     *
+     * @param args the arguments that are passed in when the class runs
+     * @throws IOException the arguments that are passed in when the class runs
+     */
+    public static void main(String[] args) throws IOException {
+        Graph<String,String> marvelGraph = MarvelPaths.createMarvelGraph("marvel.csv");
+        CompactGraph graph = CompactGraph.fromGraph(marvelGraph);
+        long start = System.nanoTime();
+        Report report = analyzeAll(graph);
+        long elapsed = System.nanoTime() - start;
+        for (int d = 1; d <= report.diameter(); d++) {
+            System.out.println(d + " hops: " + report.pairsAtDistance(d) + " pairs");
+        }
+        System.out.println("Average separation: " + String.format("%.3f", report.averageSeparation()));
+        System.out.println("Diameter: " + report.diameter());
+        System.out.println("Analyzed " + graph.size() + " characters in " + (elapsed / 1000000) + " ms");
+    }
+
+    /**
+     * Runs a breadth first search from every character in the graph
+     *
+     * @param graph = graph to analyze
+     * @spec.requires graph != null
+     * @return report over all ordered pairs of characters
+     */
+    public static Report analyzeAll(CompactGraph graph) {
+        return analyze(graph, IntStream.range(0, graph.size()).toArray());
+    }
+
+    /**
+     * Runs a breadth first search from each of the given sources. Passing a
+     * sample of the characters gives an approximate report (in particular a
+     * lower bound on the diameter) for a fraction of the cost.
+     *
+     * @param graph = graph to analyze
+     * @param sources = ids of the characters to search from
+     * @spec.requires graph != null && sources != null && every source is a
+     * valid id in graph
+     * @return report over all pairs starting at one of the sources
+     */
+    public static Report analyze(CompactGraph graph, int[] sources) {
+        int[] sourceIds = sources.clone();
+        for (int source : sourceIds) {
+            if (source < 0 || source >= graph.size()) {
+                throw new IllegalArgumentException("No character with id " + source);
+            }
+        }
+        int batches = (sourceIds.length + BATCH_SIZE - 1) / BATCH_SIZE;
+        Batch[] results = new Batch[batches];
+        IntStream.range(0, batches).parallel().forEach(b -> {
+            int from = b * BATCH_SIZE;
+            int to = Math.min(sourceIds.length, from + BATCH_SIZE);
+            results[b] = searchBatch(graph, Arrays.copyOfRange(sourceIds, from, to));
+        });
+
+        // merge in batch order so the report does not depend on scheduling
+        long[] histogram = new long[1];
+        int[] eccentricity = new int[sourceIds.length];
+        int[] reached = new int[sourceIds.length];
+        long[] distanceSum = new long[sourceIds.length];
+        for (int b = 0; b < batches; b++) {
+            Batch batch = results[b];
+            if (batch.histogram.length > histogram.length) {
+                histogram = Arrays.copyOf(histogram, batch.histogram.length);
+            }
+            for (int d = 0; d < batch.histogram.length; d++) {
+                histogram[d] += batch.histogram[d];
+            }
+            int from = b * BATCH_SIZE;
+            System.arraycopy(batch.eccentricity, 0, eccentricity, from, batch.eccentricity.length);
+            System.arraycopy(batch.reached, 0, reached, from, batch.reached.length);
+            System.arraycopy(batch.distanceSum, 0, distanceSum, from, batch.distanceSum.length);
+        }
+        return new Report(graph, sourceIds, histogram, eccentricity, reached, distanceSum);
+    }
+
+    /**
+     * Runs one breadth first search per source, all in the same pass
+     *
+     * @param graph = graph to search
+     * @param sources = at most 64 source ids, bit i of every mask belongs to sources[i]
+     * @return the per-source and per-distance counts of the searches
+     */
+    private static Batch searchBatch(CompactGraph graph, int[] sources) {
+        int n = graph.size();
+        int[] offsets = graph.offsets;
+        int[] neighbors = graph.neighbors;
+        long[] seen = new long[n];
+        long[] frontier = new long[n];
+        long[] next = new long[n];
+        for (int i = 0; i < sources.length; i++) {
+            seen[sources[i]] |= 1L << i;
+            frontier[sources[i]] |= 1L << i;
+        }
+
+        Batch batch = new Batch(sources.length);
+        int level = 0;
+        boolean frontierEmpty = sources.length == 0;
+        while (!frontierEmpty) {
+            // push every search's frontier to the neighbors in one scan
+            for (int v = 0; v < n; v++) {
+                long bits = frontier[v];
+                if (bits != 0) {
+                    for (int j = offsets[v]; j < offsets[v + 1]; j++) {
+                        next[neighbors[j]] |= bits;
+                    }
+                }
+            }
+
+            level++;
+            long levelCount = 0;
+            long levelSources = 0;
+            for (int w = 0; w < n; w++) {
+                long discovered = next[w] & ~seen[w];
+                next[w] = 0;
+                frontier[w] = discovered;
+                if (discovered != 0) {
+                    seen[w] |= discovered;
+                    levelCount += Long.bitCount(discovered);
+                    levelSources |= discovered;
+                    while (discovered != 0) {
+                        int i = Long.numberOfTrailingZeros(discovered);
+                        batch.reached[i]++;
+                        batch.distanceSum[i] += level;
+                        discovered &= discovered - 1;
+                    }
+                }
+            }
+
+            frontierEmpty = levelCount == 0;
+            if (!frontierEmpty) {
+                batch.record(level, levelCount);
+                while (levelSources != 0) {
+                    int i = Long.numberOfTrailingZeros(levelSources);
+                    batch.eccentricity[i] = level;
+                    levelSources &= levelSources - 1;
+                }
+            }
+        }
+        return batch;
+    }
+
+    /**
+     * Counts produced by searching from one batch of sources
+     */
+    private static class Batch {
+        private long[] histogram;
+        private final int[] eccentricity;
+        private final int[] reached;
+        private final long[] distanceSum;
+
+        /**
+         * @param sources = number of sources in the batch
+         * @spec.effects Constructs an empty batch result
+         */
+        private Batch(int sources) {
+            this.histogram = new long[8];
+            this.eccentricity = new int[sources];
+            this.reached = new int[sources];
+            this.distanceSum = new long[sources];
+        }
+
+        /**
+         * @param level = distance of the pairs discovered
+         * @param count = number of pairs discovered at that distance
+         * @spec.modifies histogram
+         * @spec.effects adds count pairs at distance level
+         */
+        private void record(int level, long count) {
+            if (level >= histogram.length) {
+                histogram = Arrays.copyOf(histogram, histogram.length * 2);
+            }
+            histogram[level] += count;
+        }
+    }
+
+    /**
+     * Report is the immutable result of a degrees of separation analysis
+     */
+    public static class Report {
+        /**
+         * Abstraction function:
+         * AF(this) = for every source i, sources[i] reaches reached[i] other
+         * characters whose distances sum to distanceSum[i] and the farthest of
+         * which is eccentricity[i] hops away; histogram[d] is the number of
+         * (source, character) pairs exactly d hops apart
+         *
+         * Representation invariant:
+         * all arrays != null && sources, eccentricity, reached and distanceSum
+         * have the same length && histogram[0] == 0
+         */
+
+        private final CompactGraph graph;
+        private final int[] sources;
+        private final long[] histogram;
+        private final int[] eccentricity;
+        private final int[] reached;
+        private final long[] distanceSum;
+
+        /**
+         * @param graph = graph that was analyzed
+         * @param sources = ids searched from
+         * @param histogram = pairs per distance
+         * @param eccentricity = eccentricity per source
+         * @param reached = characters reached per source
+         * @param distanceSum = sum of the distances reached per source
+         * @spec.effects Constructs a report over the given counts
+         */
+        private Report(CompactGraph graph, int[] sources, long[] histogram, int[] eccentricity,
+                       int[] reached, long[] distanceSum) {
+            this.graph = graph;
+            this.sources = sources;
+            int length = histogram.length;
+            while (length > 1 && histogram[length - 1] == 0) {
+                length--;
+            }
+            this.histogram = Arrays.copyOf(histogram, length);
+            this.eccentricity = eccentricity;
+            this.reached = reached;
+            this.distanceSum = distanceSum;
+            checkRep();
+        }
+
+        /**
+         * @return the largest distance between a source and a character it
+         * reaches; exact when every character was a source and a lower bound
+         * on the diameter otherwise
+         */
+        public int diameter() {
+            return histogram.length - 1;
+        }
+
+        /**
+         * @param distance = number of hops
+         * @return number of (source, character) pairs exactly distance hops apart
+         */
+        public long pairsAtDistance(int distance) {
+            if (distance <= 0 || distance >= histogram.length) {
+                return 0;
+            }
+            return histogram[distance];
+        }
+
+        /**
+         * @return number of (source, character) pairs connected by some path,
+         * not counting a source paired with itself
+         */
+        public long connectedPairs() {
+            long total = 0;
+            for (long count : histogram) {
+                total += count;
+            }
+            return total;
+        }
+
+        /**
+         * @return the average number of hops between a source and a character
+         * it can reach, or 0 if no source reaches anyone
+         */
+        public double averageSeparation() {
+            long pairs = 0;
+            long hops = 0;
+            for (int d = 1; d < histogram.length; d++) {
+                pairs += histogram[d];
+                hops += d * histogram[d];
+            }
+            return pairs == 0 ? 0 : (double) hops / pairs;
+        }
+
+        /**
+         * @param character = name of a character that was searched from
+         * @return the distance from the character to the farthest character it reaches
+         * @throws IllegalArgumentException if the character was not a source
+         */
+        public int eccentricity(String character) {
+            return eccentricity[indexOf(character)];
+        }
+
+        /**
+         * @param character = name of a character that was searched from
+         * @return number of other characters the character can reach
+         * @throws IllegalArgumentException if the character was not a source
+         */
+        public int reachable(String character) {
+            return reached[indexOf(character)];
+        }
+
+        /**
+         * @param character = name of a character that was searched from
+         * @return the average number of hops from the character to the
+         * characters it reaches, or 0 if it reaches no one
+         * @throws IllegalArgumentException if the character was not a source
+         */
+        public double averageSeparation(String character) {
+            int index = indexOf(character);
+            return reached[index] == 0 ? 0 : (double) distanceSum[index] / reached[index];
+        }
+
+        /**
+         * @param character = name of a character
+         * @return position of the character in sources
+         * @throws IllegalArgumentException if the character was not a source
+         */
+        private int indexOf(String character) {
+            int id = graph.id(character);
+            for (int i = 0; i < sources.length; i++) {
+                if (sources[i] == id) {
+                    return i;
+                }
+            }
+            throw new IllegalArgumentException(character + " was not analyzed");
+        }
+
+        /**
+         * Throws an exception if the representation invariant is violated
+         */
+        private void checkRep() {
+            assert sources != null && histogram != null : "arrays cannot be null";
+            assert eccentricity.length == sources.length : "one eccentricity per source";
+            assert reached.length == sources.length && distanceSum.length == sources.length : "one count per source";
+            assert histogram[0] == 0 : "sources are not paired with themselves";
+        }
+    }
+}
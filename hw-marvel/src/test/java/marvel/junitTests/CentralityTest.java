@@ -0,0 +1,75 @@
+package marvel.junitTests;
+
+import marvel.Centrality;
+import marvel.CompactGraph;
+import marvel.MarvelPaths;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+import java.io.IOException;
+
+import static org.junit.Assert.*;
+
+public class CentralityTest {
+    @Rule
+    public Timeout globalTimeout = Timeout.seconds(10); // 10 seconds max per method tested
+
+    private static final double DELTA = 1e-6;
+
+    private CompactGraph chain;
+    private CompactGraph disconnected;
+
+    @Before
+    public void setUp() throws IOException {
+        chain = CompactGraph.fromGraph(MarvelPaths.createMarvelGraph("multipleShortestPaths.csv"));
+        disconnected = CompactGraph.fromGraph(MarvelPaths.createMarvelGraph("noPaths.csv"));
+    }
+
+    @Test
+    public void testDegree() {
+        assertArrayEquals(new int[] {1, 2, 1}, Centrality.degree(chain));
+    }
+
+    @Test
+    public void testPageRankOfChain() {
+        double[] rank = Centrality.pageRank(chain, Centrality.DAMPING, Centrality.TOLERANCE,
+                Centrality.MAX_ITERATIONS);
+        assertEquals(1.0, rank[0] + rank[1] + rank[2], DELTA);
+        assertEquals("the ends are symmetric", rank[chain.id("A")], rank[chain.id("C")], DELTA);
+        assertTrue(rank[chain.id("B")] > rank[chain.id("A")]);
+    }
+
+    @Test
+    public void testPageRankWithoutEdgesIsUniform() {
+        double[] rank = Centrality.pageRank(disconnected, Centrality.DAMPING, Centrality.TOLERANCE,
+                Centrality.MAX_ITERATIONS);
+        for (double r : rank) {
+            assertEquals(1.0 / 3, r, DELTA);
+        }
+    }
+
+    @Test
+    public void testExactBetweennessOfChain() {
+        double[] betweenness = Centrality.betweenness(chain, chain.size(), 0);
+        assertEquals("A to C and C to A both pass B", 2.0, betweenness[chain.id("B")], DELTA);
+        assertEquals(0.0, betweenness[chain.id("A")], DELTA);
+        assertEquals(0.0, betweenness[chain.id("C")], DELTA);
+    }
+
+    @Test
+    public void testSampledBetweennessIsDeterministic() {
+        assertArrayEquals(Centrality.betweenness(chain, 2, 7), Centrality.betweenness(chain, 2, 7), 0);
+    }
+
+    @Test
+    public void testTopBreaksTiesById() {
+        assertArrayEquals(new int[] {1, 0}, Centrality.top(new double[] {1, 2, 1}, 2));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBadDamping() {
+        Centrality.pageRank(chain, 1, Centrality.TOLERANCE, Centrality.MAX_ITERATIONS);
+    }
+}
@@ -0,0 +1,55 @@
+package marvel.junitTests;
+
+import marvel.CharacterIndex;
+import marvel.CompactGraph;
+import marvel.MarvelPaths;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class CharacterIndexTest {
+    @Rule
+    public Timeout globalTimeout = Timeout.seconds(10); // 10 seconds max per method tested
+
+    private CharacterIndex staff;
+
+    @Before
+    public void setUp() throws IOException {
+        staff = new CharacterIndex(CompactGraph.fromGraph(MarvelPaths.createMarvelGraph("staffSuperheroes.csv")));
+    }
+
+    @Test
+    public void testResolveExactAndNormalized() {
+        assertEquals("Notkin-of-the-Superhuman-Beard", staff.resolve("Notkin-of-the-Superhuman-Beard"));
+        assertEquals("Notkin-of-the-Superhuman-Beard", staff.resolve("notkin of the superhuman beard"));
+        assertNull(staff.resolve("Hal"));
+        assertNull(staff.resolve("--"));
+    }
+
+    @Test
+    public void testResolveCutOffName() {
+        // names of 20 or more characters may have been cut off in the data
+        assertEquals("Ernst-the-Bicycling-Wizard", staff.resolve("Ernst the Bicycling Wizard of Seattle"));
+    }
+
+    @Test
+    public void testComplete() {
+        assertEquals(List.of("Grossman-the-Youngest-of-them-all"), staff.complete("gross", 5));
+        assertEquals(4, staff.complete("", 10).size());
+        assertEquals(2, staff.complete("", 2).size());
+        assertTrue(staff.complete("Zed", 5).isEmpty());
+    }
+
+    @Test
+    public void testSuggestWithinEdits() {
+        assertEquals(List.of("Perkins-the-Magical-Singing-Instructor"),
+                staff.suggest("Perkns the Magical Singin Instructor", 2, 5));
+        assertTrue(staff.suggest("Perkns the Magical Singin Instructor", 1, 5).isEmpty());
+    }
+}
@@ -0,0 +1,52 @@
+package marvel.junitTests;
+
+import marvel.Clustering;
+import marvel.CompactGraph;
+import marvel.MarvelPaths;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+import java.io.IOException;
+
+import static org.junit.Assert.*;
+
+public class ClusteringTest {
+    @Rule
+    public Timeout globalTimeout = Timeout.seconds(10); // 10 seconds max per method tested
+
+    private static final double DELTA = 1e-9;
+
+    private Clustering.Report chain;
+    private Clustering.Report staff;
+
+    @Before
+    public void setUp() throws IOException {
+        chain = Clustering.analyze(CompactGraph.fromGraph(MarvelPaths.createMarvelGraph("multipleShortestPaths.csv")));
+        staff = Clustering.analyze(CompactGraph.fromGraph(MarvelPaths.createMarvelGraph("staffSuperheroes.csv")));
+    }
+
+    @Test
+    public void testChainHasNoTriangles() {
+        assertEquals(0, chain.triangles());
+        assertEquals(0, chain.triangles("B"));
+        assertEquals(0.0, chain.coefficient("B"), DELTA);
+        assertEquals("A has a single neighbor", 0.0, chain.coefficient("A"), DELTA);
+        assertEquals(0.0, chain.globalCoefficient(), DELTA);
+    }
+
+    @Test
+    public void testCliqueIsFullyClustered() {
+        assertEquals(4, staff.triangles());
+        assertEquals(3, staff.triangles("Ernst-the-Bicycling-Wizard"));
+        assertEquals(1.0, staff.coefficient("Ernst-the-Bicycling-Wizard"), DELTA);
+        assertEquals(1.0, staff.globalCoefficient(), DELTA);
+        assertEquals(1.0, staff.averageCoefficient(), DELTA);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownCharacter() {
+        chain.coefficient("D");
+    }
+}
@@ -0,0 +1,64 @@
+package marvel.junitTests;
+
+import graph.Graph;
+import marvel.CollaborationGraph;
+import marvel.CompactGraph;
+import marvel.MarvelPaths;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+import pathfinder.datastructures.Path;
+
+import java.io.IOException;
+
+import static org.junit.Assert.*;
+
+public class CollaborationGraphTest {
+    @Rule
+    public Timeout globalTimeout = Timeout.seconds(10); // 10 seconds max per method tested
+
+    private static final double DELTA = 1e-9;
+
+    private CompactGraph chain;
+    private Graph<String, Double> weighted;
+
+    @Before
+    public void setUp() throws IOException {
+        chain = CompactGraph.fromGraph(MarvelPaths.createMarvelGraph("multipleShortestPaths.csv"));
+        weighted = CollaborationGraph.fromSnapshot(chain);
+    }
+
+    @Test
+    public void testMultiplicityCountsSharedBooks() {
+        assertEquals(1, chain.multiplicity(chain.id("A"), chain.id("B")));
+        assertEquals(2, chain.multiplicity(chain.id("B"), chain.id("C")));
+        assertEquals(0, chain.multiplicity(chain.id("A"), chain.id("C")));
+    }
+
+    @Test
+    public void testOneEdgePerPair() {
+        assertEquals(1, weighted.getNode("C").getEdges().size());
+        assertEquals(0.5, weighted.getNode("C").getEdges().iterator().next().getEdgeLabel(), DELTA);
+    }
+
+    @Test
+    public void testStrongestPath() {
+        Path<String> path = CollaborationGraph.strongestPath(weighted, "A", "C");
+        assertEquals("A", path.getStart());
+        assertEquals("C", path.getEnd());
+        assertEquals(1.5, path.getCost(), DELTA);
+    }
+
+    @Test
+    public void testNoPath() throws IOException {
+        Graph<String, Double> apart = CollaborationGraph.fromSnapshot(
+                CompactGraph.fromGraph(MarvelPaths.createMarvelGraph("noPaths.csv")));
+        assertNull(CollaborationGraph.strongestPath(apart, "A", "B"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownCharacter() {
+        CollaborationGraph.strongestPath(weighted, "A", "D");
+    }
+}
@@ -0,0 +1,83 @@
+package marvel.junitTests;
+
+import graph.Graph;
+import graph.Node;
+import marvel.CompactGraph;
+import marvel.KShortestPaths;
+import marvel.MarvelPaths;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class KShortestPathsTest {
+    @Rule
+    public Timeout globalTimeout = Timeout.seconds(10); // 10 seconds max per method tested
+
+    private static final String ERNST = "Ernst-the-Bicycling-Wizard";
+    private static final String GROSSMAN = "Grossman-the-Youngest-of-them-all";
+    private static final String NOTKIN = "Notkin-of-the-Superhuman-Beard";
+    private static final String PERKINS = "Perkins-the-Magical-Singing-Instructor";
+
+    private Graph<String,String> staff;
+    private KShortestPaths paths;
+
+    @Before
+    public void setUp() throws IOException {
+        // all four staff members appear in CSE331
+        staff = MarvelPaths.createMarvelGraph("staffSuperheroes.csv");
+        paths = new KShortestPaths(staff, CompactGraph.fromGraph(staff));
+    }
+
+    private static List<String> characters(List<Node<String,String>.Edge> path) {
+        List<String> characters = new ArrayList<>();
+        for (Node<String,String>.Edge edge : path) {
+            characters.add(edge.getChild().getLabel());
+        }
+        return characters;
+    }
+
+    @Test
+    public void testEverySimplePathInOrder() {
+        List<List<Node<String,String>.Edge>> found = paths.findPaths(ERNST, NOTKIN, 10);
+        assertEquals(5, found.size());
+        assertEquals(List.of(NOTKIN), characters(found.get(0)));
+        assertEquals(List.of(GROSSMAN, NOTKIN), characters(found.get(1)));
+        assertEquals(List.of(PERKINS, NOTKIN), characters(found.get(2)));
+        assertEquals(List.of(GROSSMAN, PERKINS, NOTKIN), characters(found.get(3)));
+        assertEquals(List.of(PERKINS, GROSSMAN, NOTKIN), characters(found.get(4)));
+    }
+
+    @Test
+    public void testFirstPathIsFindPath() {
+        for (String start : staff.getNodes()) {
+            for (String end : staff.getNodes()) {
+                assertEquals(MarvelPaths.findPath(staff, start, end), paths.findPaths(start, end, 3).get(0));
+            }
+        }
+    }
+
+    @Test
+    public void testStopsAtK() {
+        assertEquals(2, paths.findPaths(ERNST, NOTKIN, 2).size());
+        assertEquals(0, paths.findPaths(ERNST, NOTKIN, 0).size());
+    }
+
+    @Test
+    public void testNoPath() throws IOException {
+        Graph<String,String> apart = MarvelPaths.createMarvelGraph("noPaths.csv");
+        KShortestPaths none = new KShortestPaths(apart, CompactGraph.fromGraph(apart));
+        assertEquals(0, none.findPaths("A", "B", 5).size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownCharacter() {
+        paths.findPaths(ERNST, "Nobody", 5);
+    }
+}
@@ -0,0 +1,67 @@
+package marvel.junitTests;
+
+import marvel.CompactGraph;
+import marvel.LabelPropagation;
+import marvel.MarvelPaths;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+import java.io.IOException;
+
+import static org.junit.Assert.*;
+
+public class LabelPropagationTest {
+    @Rule
+    public Timeout globalTimeout = Timeout.seconds(10); // 10 seconds max per method tested
+
+    private CompactGraph chain;
+    private CompactGraph disconnected;
+
+    @Before
+    public void setUp() throws IOException {
+        chain = CompactGraph.fromGraph(MarvelPaths.createMarvelGraph("multipleShortestPaths.csv"));
+        disconnected = CompactGraph.fromGraph(MarvelPaths.createMarvelGraph("noPaths.csv"));
+    }
+
+    @Test
+    public void testConnectedChainIsOneCommunity() {
+        LabelPropagation.Communities communities = LabelPropagation.detect(chain, 0, LabelPropagation.MAX_ROUNDS);
+        assertEquals(1, communities.count());
+        assertEquals(3, communities.size(0));
+        assertEquals(communities.community("A"), communities.community("C"));
+        assertEquals(chain.id("B"), communities.leader(0));
+    }
+
+    @Test
+    public void testLoneCharactersStayApart() {
+        LabelPropagation.Communities communities =
+                LabelPropagation.detect(disconnected, 0, LabelPropagation.MAX_ROUNDS);
+        assertEquals(3, communities.count());
+        assertEquals("equal sizes are ordered by least member", 0, communities.community("A"));
+        assertEquals(2, communities.community("C"));
+        assertArrayEquals(new int[] {0, 1, 2}, communities.order());
+        assertEquals(1, communities.rounds());
+    }
+
+    @Test
+    public void testZeroRoundsKeepsEveryoneApart() {
+        LabelPropagation.Communities communities = LabelPropagation.detect(chain, 0, 0);
+        assertEquals(3, communities.count());
+        assertArrayEquals(new int[] {chain.id("B")}, communities.members(communities.community("B")));
+    }
+
+    @Test
+    public void testSameSeedSameCommunities() {
+        LabelPropagation.Communities first = LabelPropagation.detect(chain, 42, LabelPropagation.MAX_ROUNDS);
+        LabelPropagation.Communities second = LabelPropagation.detect(chain, 42, LabelPropagation.MAX_ROUNDS);
+        assertArrayEquals(first.order(), second.order());
+        assertEquals(first.rounds(), second.rounds());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownCharacter() {
+        LabelPropagation.detect(chain, 0, LabelPropagation.MAX_ROUNDS).community("D");
+    }
+}
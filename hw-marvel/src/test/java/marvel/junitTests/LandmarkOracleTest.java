@@ -0,0 +1,62 @@
+package marvel.junitTests;
+
+import graph.Graph;
+import marvel.CompactGraph;
+import marvel.LandmarkOracle;
+import marvel.MarvelPaths;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+import java.io.IOException;
+
+import static org.junit.Assert.*;
+
+public class LandmarkOracleTest {
+    @Rule
+    public Timeout globalTimeout = Timeout.seconds(10); // 10 seconds max per method tested
+
+    private Graph<String,String> chainGraph;
+    private LandmarkOracle chain;
+    private LandmarkOracle disconnected;
+
+    @Before
+    public void setUp() throws IOException {
+        chainGraph = MarvelPaths.createMarvelGraph("multipleShortestPaths.csv");
+        chain = new LandmarkOracle(CompactGraph.fromGraph(chainGraph), 1);
+        disconnected = new LandmarkOracle(CompactGraph.fromGraph(MarvelPaths.createMarvelGraph("noPaths.csv")), 3);
+    }
+
+    @Test
+    public void testHighestDegreeLandmark() {
+        assertArrayEquals(new String[] {"B"}, chain.landmarks());
+    }
+
+    @Test
+    public void testBoundsThroughLandmark() {
+        assertEquals(2, chain.upperBound("A", "C"));
+        assertEquals(0, chain.lowerBound("A", "C"));
+        assertEquals(1, chain.upperBound("A", "B"));
+        assertEquals(1, chain.lowerBound("A", "B"));
+        assertEquals(0, chain.upperBound("C", "C"));
+    }
+
+    @Test
+    public void testDisconnectedCharacters() {
+        assertEquals(LandmarkOracle.INFINITE, disconnected.lowerBound("A", "B"));
+        assertEquals(LandmarkOracle.INFINITE, disconnected.upperBound("A", "C"));
+    }
+
+    @Test
+    public void testPrunedSearchMatchesPlainSearch() {
+        assertEquals(MarvelPaths.findPath(chainGraph, "A", "C"),
+                MarvelPaths.findPath(chainGraph, "A", "C", chain));
+        assertEquals(2, MarvelPaths.findPath(chainGraph, "A", "C", chain).size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownCharacter() {
+        chain.upperBound("A", "D");
+    }
+}
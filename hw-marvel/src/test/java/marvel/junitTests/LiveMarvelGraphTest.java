@@ -0,0 +1,187 @@
+package marvel.junitTests;
+
+import graph.Graph;
+import marvel.CompactGraph;
+import marvel.LiveMarvelGraph;
+import marvel.MarvelParser;
+import marvel.MarvelPaths;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class LiveMarvelGraphTest {
+    @Rule
+    public Timeout globalTimeout = Timeout.seconds(10); // 10 seconds max per method tested
+
+    private LiveMarvelGraph live;
+
+    @Before
+    public void setUp() {
+        live = new LiveMarvelGraph("multipleShortestPaths.csv");
+    }
+
+    @Test
+    public void testIngestAddsOnlyNewEdges() {
+        Set<String> changed = live.ingest(List.of("D,BookC"));
+        assertEquals(Set.of("B", "C", "D"), changed);
+        assertNotNull(live.getGraph().getNode("D"));
+        assertEquals(2, live.findPath("A", "D").size());
+    }
+
+    @Test
+    public void testNewConnectionDropsCachedPaths() {
+        assertEquals(2, live.findPath("A", "C").size());
+        assertEquals(1, live.cachedPaths());
+        live.ingest(List.of("A,BookD", "C,BookD"));
+        assertEquals(0, live.cachedPaths());
+        assertEquals(1, live.findPath("A", "C").size());
+    }
+
+    @Test
+    public void testNewLabelDropsOnlyPathsThroughIt() {
+        live.findPath("A", "B");
+        live.findPath("B", "C");
+        live.ingest(List.of("B,Book0", "C,Book0"));
+        assertEquals("only B to C used the relabeled edge", 1, live.cachedPaths());
+        assertEquals("Book0", live.findPath("B", "C").get(0).getEdgeLabel());
+    }
+
+    @Test
+    public void testPathCacheDropsLeastRecentlyUsed() {
+        LiveMarvelGraph bounded = new LiveMarvelGraph("multipleShortestPaths.csv", 2);
+        bounded.findPath("B", "C");
+        bounded.findPath("A", "B");
+        bounded.findPath("B", "C");
+        assertEquals(2, bounded.findPath("A", "C").size());
+        assertEquals(2, bounded.cachedPaths());
+        // A to B was used least recently, so only paths through B and C are
+        // left for the relabel to drop
+        bounded.ingest(List.of("B,Book0", "C,Book0"));
+        assertEquals(0, bounded.cachedPaths());
+        assertEquals(1, bounded.findPath("A", "B").size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNoPathCapacity() {
+        new LiveMarvelGraph(0);
+    }
+
+    @Test
+    public void testLoneCharacterKeepsCachedPaths() {
+        live.findPath("A", "C");
+        live.ingest(List.of("E,BookE"));
+        assertEquals(1, live.cachedPaths());
+        assertNull(live.findPath("A", "E"));
+    }
+
+    @Test
+    public void testSnapshotRebuiltAfterChange() {
+        assertEquals(3, live.snapshot().size());
+        assertSame(live.snapshot(), live.snapshot());
+        live.ingest(List.of("D,BookA"));
+        assertEquals(4, live.snapshot().size());
+    }
+
+    @Test
+    public void testSnapshotRebuiltAfterRelabel() {
+        LiveMarvelGraph relabeled = new LiveMarvelGraph();
+        relabeled.ingest(List.of("A,Z1", "B,Z1"));
+        CompactGraph before = relabeled.snapshot();
+        assertEquals("Z1", before.label(before.id("A"), before.id("B")));
+        relabeled.ingest(List.of("A,B0", "B,B0"));
+        CompactGraph after = relabeled.snapshot();
+        assertNotSame(before, after);
+        assertEquals("B0", after.label(after.id("A"), after.id("B")));
+    }
+
+    @Test
+    public void testSnapshotMultiplicityAfterRelabel() {
+        LiveMarvelGraph relabeled = new LiveMarvelGraph();
+        relabeled.ingest(List.of("A,Z1", "B,Z1"));
+        CompactGraph before = relabeled.snapshot();
+        assertEquals(1, before.multiplicity(before.id("A"), before.id("B")));
+        relabeled.ingest(List.of("A,B0", "B,B0"));
+        CompactGraph after = relabeled.snapshot();
+        assertEquals(2, after.multiplicity(after.id("A"), after.id("B")));
+        assertEquals(2, after.multiplicity(after.id("B"), after.id("A")));
+        CompactGraph fresh = CompactGraph.fromGraph(relabeled.getGraph());
+        assertEquals(fresh.multiplicity(fresh.id("A"), fresh.id("B")),
+                after.multiplicity(after.id("A"), after.id("B")));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMalformedLine() {
+        live.ingest(List.of("no book"));
+    }
+
+    @Test
+    public void testIngestRejectsWhatParserRejects() throws IOException {
+        for (String line : List.of("no book", "A,", ",B", "A,,B")) {
+            boolean parserRejects = false;
+            try {
+                MarvelParser.parseData(new StringReader(line), (character, book) -> { });
+            } catch (IllegalArgumentException e) {
+                parserRejects = true;
+            }
+            boolean ingestRejects = false;
+            try {
+                live.ingest(List.of(line));
+            } catch (IllegalArgumentException e) {
+                ingestRejects = true;
+            }
+            assertTrue(line, parserRejects);
+            assertEquals(line, parserRejects, ingestRejects);
+        }
+        assertEquals(3, live.snapshot().size());
+    }
+
+    @Test
+    public void testMalformedLineInBatchChangesNothing() throws IOException {
+        assertEquals(2, live.findPath("A", "C").size());
+        try {
+            live.ingest(List.of("A,BookD", "C,BookD", "no book"));
+            fail("expected IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        Graph<String,String> fresh = MarvelPaths.createMarvelGraph("multipleShortestPaths.csv");
+        assertEquals(fresh.getNodes().size(), live.getGraph().getNodes().size());
+        assertEquals(MarvelPaths.findPath(fresh, "A", "C").size(), live.findPath("A", "C").size());
+        assertEquals(3, live.snapshot().size());
+    }
+
+    @Test
+    public void testIngestTailAppliesWholeLinesOrNothing() throws IOException {
+        Path file = Files.createTempFile("live", ".csv");
+        try {
+            Files.write(file, "D,BookC\nno book\nE,Book".getBytes(StandardCharsets.UTF_8));
+            try {
+                live.ingestTail(file.toFile(), 0);
+                fail("expected IllegalArgumentException");
+            } catch (IllegalArgumentException e) {
+                assertNull(live.getGraph().getNode("D"));
+            }
+            Files.write(file, "D,BookC\r\nE,Book".getBytes(StandardCharsets.UTF_8));
+            long offset = live.ingestTail(file.toFile(), 0);
+            assertEquals("the unfinished line is left for later", 9, offset);
+            assertNotNull(live.getGraph().getNode("D"));
+            assertNull(live.getGraph().getNode("E"));
+            Files.write(file, "D,BookC\r\nE,BookA\n".getBytes(StandardCharsets.UTF_8));
+            assertEquals(17, live.ingestTail(file.toFile(), offset));
+            assertEquals(1, live.findPath("A", "E").size());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package marvel.junitTests;
+
+import graph.Graph;
+import marvel.MarvelCache;
+import marvel.MarvelPaths;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.CRC32;
+
+import static org.junit.Assert.*;
+
+public class MarvelCacheTest {
+    @Rule
+    public Timeout globalTimeout = Timeout.seconds(10); // 10 seconds max per method tested
+
+    private static final String FILE = "staffSuperheroes.csv";
+
+    private Path cache;
+
+    @Before
+    public void setUp() throws IOException {
+        cache = MarvelCache.cacheFile(FILE);
+        Files.deleteIfExists(cache);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(cache);
+    }
+
+    private static void assertSameGraph(Graph<String,String> expected, Graph<String,String> actual) {
+        assertEquals(expected.getNodes().size(), actual.getNodes().size());
+        for (String node : expected.getNodes()) {
+            assertEquals(expected.getNode(node).getEdges(), actual.getNode(node).getEdges());
+        }
+    }
+
+    @Test
+    public void testSecondLoadReadsCache() throws IOException {
+        MarvelCache first = MarvelCache.load(FILE);
+        assertFalse(first.fromCache());
+        assertTrue(Files.isRegularFile(cache));
+
+        MarvelCache second = MarvelCache.load(FILE);
+        assertTrue(second.fromCache());
+        assertSameGraph(MarvelPaths.createMarvelGraph(FILE), second.getGraph());
+        assertEquals(first.snapshot().size(), second.snapshot().size());
+        assertEquals(first.snapshot().edgeCount(), second.snapshot().edgeCount());
+        for (int v = 0; v < first.snapshot().size(); v++) {
+            assertArrayEquals(first.snapshot().neighbors(v), second.snapshot().neighbors(v));
+            for (int w : first.snapshot().neighbors(v)) {
+                assertEquals(first.snapshot().label(v, w), second.snapshot().label(v, w));
+                assertEquals(first.snapshot().multiplicity(v, w), second.snapshot().multiplicity(v, w));
+            }
+        }
+    }
+
+    @Test
+    public void testDamagedCacheIsRebuilt() throws IOException {
+        Files.write(cache, new byte[] {1, 2, 3});
+        MarvelCache loaded = MarvelCache.load(FILE);
+        assertFalse(loaded.fromCache());
+        assertSameGraph(MarvelPaths.createMarvelGraph(FILE), loaded.getGraph());
+        assertTrue(MarvelCache.load(FILE).fromCache());
+    }
+
+    @Test
+    public void testFlippedBodyByteIsRebuilt() throws IOException {
+        MarvelCache.load(FILE);
+        byte[] bytes = Files.readAllBytes(cache);
+        // the last byte belongs to the multiplicity of the last edge
+        bytes[bytes.length - 1] ^= 1;
+        Files.write(cache, bytes);
+        MarvelCache loaded = MarvelCache.load(FILE);
+        assertFalse(loaded.fromCache());
+        assertSameGraph(MarvelPaths.createMarvelGraph(FILE), loaded.getGraph());
+    }
+
+    @Test
+    public void testCountTooLargeForFileIsRebuilt() throws IOException {
+        MarvelCache.load(FILE);
+        ByteBuffer bytes = ByteBuffer.wrap(Files.readAllBytes(cache));
+        // the character count follows the 24 byte header; give it a matching
+        // checksum so only the count check can catch it
+        bytes.putInt(24, Integer.MAX_VALUE);
+        CRC32 crc = new CRC32();
+        crc.update(bytes.array(), 24, bytes.capacity() - 24);
+        bytes.putLong(16, crc.getValue());
+        Files.write(cache, bytes.array());
+        MarvelCache loaded = MarvelCache.load(FILE);
+        assertFalse(loaded.fromCache());
+        assertSameGraph(MarvelPaths.createMarvelGraph(FILE), loaded.getGraph());
+    }
+}
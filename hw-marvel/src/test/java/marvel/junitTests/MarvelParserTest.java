@@ -0,0 +1,66 @@
+package marvel.junitTests;
+
+import marvel.MarvelParser;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class MarvelParserTest {
+    @Rule
+    public Timeout globalTimeout = Timeout.seconds(10); // 10 seconds max per method tested
+
+    private static List<List<String>> stream(String data) throws IOException {
+        List<List<String>> lines = new ArrayList<>();
+        MarvelParser.parseData(new StringReader(data), (character, book) -> lines.add(List.of(character, book)));
+        return lines;
+    }
+
+    @Test
+    public void testStreamingMatchesListParser() {
+        List<List<String>> streamed = new ArrayList<>();
+        MarvelParser.parseData("staffSuperheroes.csv", (character, book) -> streamed.add(List.of(character, book)));
+        assertEquals(MarvelParser.parseData("staffSuperheroes.csv"), streamed);
+    }
+
+    @Test
+    public void testLineEndingsAndBlankLines() throws IOException {
+        assertEquals(List.of(List.of("A", "B1"), List.of("B", "B2"), List.of("C", "B3")),
+                stream("A,B1\r\nB,B2\n\nC,B3"));
+        assertTrue(stream("").isEmpty());
+    }
+
+    @Test
+    public void testExtraFieldsIgnored() throws IOException {
+        assertEquals(List.of(List.of("A", "B1")), stream("A,B1,extra\n"));
+    }
+
+    @Test
+    public void testLongLine() throws IOException {
+        String name = "X".repeat(1000);
+        assertEquals(List.of(List.of(name, "B")), stream(name + ",B"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testLineWithoutBook() throws IOException {
+        stream("A,B1\nno book\n");
+    }
+
+    @Test
+    public void testEmptyFieldsRejected() throws IOException {
+        for (String line : List.of("A,", "A,\n", ",B\n", "A,,B\n", ",\n")) {
+            try {
+                stream("C,B0\n" + line);
+                fail("expected IllegalArgumentException for " + line);
+            } catch (IllegalArgumentException e) {
+                // expected
+            }
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package marvel.junitTests;
+
+import graph.Graph;
+import marvel.CompactGraph;
+import marvel.MarvelPaths;
+import marvel.MarvelSearch;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+import java.io.IOException;
+
+import static org.junit.Assert.*;
+
+public class MarvelSearchTest {
+    @Rule
+    public Timeout globalTimeout = Timeout.seconds(10); // 10 seconds max per method tested
+
+    private static void assertSameAsFindPath(String file) throws IOException {
+        Graph<String,String> graph = MarvelPaths.createMarvelGraph(file);
+        MarvelSearch search = new MarvelSearch(graph, CompactGraph.fromGraph(graph));
+        for (String start : graph.getNodes()) {
+            for (String end : graph.getNodes()) {
+                assertEquals(MarvelPaths.findPath(graph, start, end), search.findPath(start, end, false));
+                assertEquals(MarvelPaths.findPath(graph, start, end), search.findPath(start, end, true));
+            }
+        }
+    }
+
+    @Test
+    public void testMatchesFindPath() throws IOException {
+        assertSameAsFindPath("staffSuperheroes.csv");
+        assertSameAsFindPath("multipleShortestPaths.csv");
+        assertSameAsFindPath("superheroWithPathToSelf.csv");
+        assertSameAsFindPath("noPaths.csv");
+    }
+
+    @Test
+    public void testLeastBookIsReported() throws IOException {
+        Graph<String,String> graph = MarvelPaths.createMarvelGraph("multipleShortestPaths.csv");
+        MarvelSearch search = new MarvelSearch(graph, CompactGraph.fromGraph(graph));
+        assertEquals("BookB", search.findPath("B", "C", true).get(0).getEdgeLabel());
+        assertTrue(search.edgesInspected() > 0);
+        assertTrue(search.findPath("A", "A", true).isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownCharacter() throws IOException {
+        Graph<String,String> graph = MarvelPaths.createMarvelGraph("noPaths.csv");
+        new MarvelSearch(graph, CompactGraph.fromGraph(graph)).findPath("A", "D", true);
+    }
+}
@@ -0,0 +1,81 @@
+package marvel.junitTests;
+
+import graph.Graph;
+import graph.Node;
+import marvel.CompactGraph;
+import marvel.MarvelPaths;
+import marvel.MarvelService;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.*;
+
+public class MarvelServiceTest {
+    @Rule
+    public Timeout globalTimeout = Timeout.seconds(10); // 10 seconds max per method tested
+
+    private Graph<String,String> graph;
+    private MarvelService service;
+
+    @Before
+    public void setUp() throws IOException {
+        // all four staff members appear in CSE331
+        graph = MarvelPaths.createMarvelGraph("staffSuperheroes.csv");
+        service = new MarvelService(graph, CompactGraph.fromGraph(graph));
+    }
+
+    @Test
+    public void testConcurrentPathsMatchFindPath() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int t = 0; t < 16; t++) {
+                results.add(pool.submit(() -> {
+                    for (String start : graph.getNodes()) {
+                        for (String end : graph.getNodes()) {
+                            List<Node<String,String>.Edge> expected = MarvelPaths.findPath(graph, start, end);
+                            if (!expected.equals(service.findPath(start, end))) {
+                                return false;
+                            }
+                        }
+                    }
+                    return true;
+                }));
+            }
+            for (Future<Boolean> result : results) {
+                assertTrue(result.get());
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testNeighborsAreLimited() {
+        List<String> characters = new ArrayList<>();
+        assertEquals(3, service.neighbors("Ernst-the-Bicycling-Wizard", 1, 2, characters));
+        assertEquals(2, characters.size());
+    }
+
+    @Test
+    public void testLookup() {
+        assertEquals("Ernst-the-Bicycling-Wizard", service.resolve("ernst the bicycling wizard"));
+        assertEquals(List.of("Grossman-the-Youngest-of-them-all"), service.lookup("gross", 2, 5));
+        assertEquals(List.of("Notkin-of-the-Superhuman-Beard"),
+                service.lookup("Notkin-of-the-Superhuman-Bread", 2, 5));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownCharacter() {
+        service.findPath("Ernst-the-Bicycling-Wizard", "Nobody");
+    }
+}
@@ -0,0 +1,76 @@
+package marvel.junitTests;
+
+import marvel.CompactGraph;
+import marvel.MarvelPaths;
+import marvel.Neighborhood;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class NeighborhoodTest {
+    @Rule
+    public Timeout globalTimeout = Timeout.seconds(10); // 10 seconds max per method tested
+
+    private Neighborhood chain;
+    private Neighborhood disconnected;
+
+    @Before
+    public void setUp() throws IOException {
+        chain = new Neighborhood(CompactGraph.fromGraph(MarvelPaths.createMarvelGraph("multipleShortestPaths.csv")));
+        disconnected = new Neighborhood(CompactGraph.fromGraph(MarvelPaths.createMarvelGraph("noPaths.csv")));
+    }
+
+    @Test
+    public void testCountByHops() {
+        assertEquals(0, chain.count("A", 0));
+        assertEquals(1, chain.count("A", 1));
+        assertEquals(2, chain.count("A", 2));
+        assertEquals(2, chain.count("B", 1));
+        assertEquals(0, disconnected.count("A", 5));
+    }
+
+    @Test
+    public void testStreamsInOrderOfDistance() {
+        List<String> seen = new ArrayList<>();
+        int count = chain.forEach("C", 2, (character, distance) -> seen.add(character + distance));
+        assertEquals(2, count);
+        assertEquals(List.of("B1", "A2"), seen);
+    }
+
+    @Test
+    public void testReusedAcrossQueries() {
+        assertEquals(2, chain.count("A", 2));
+        assertEquals(2, chain.count("C", 2));
+        assertEquals(1, chain.count("C", 1));
+    }
+
+    @Test
+    public void testReusableAfterActionThrows() {
+        try {
+            chain.forEach("A", 2, (character, distance) -> {
+                throw new IllegalStateException();
+            });
+            fail();
+        } catch (IllegalStateException e) {
+            // expected
+        }
+        assertEquals(2, chain.count("A", 2));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownCharacter() {
+        chain.count("D", 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeHops() {
+        chain.count("A", -1);
+    }
+}
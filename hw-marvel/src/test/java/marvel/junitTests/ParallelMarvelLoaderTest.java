@@ -0,0 +1,90 @@
+package marvel.junitTests;
+
+import graph.Graph;
+import marvel.MarvelParser;
+import marvel.MarvelPaths;
+import marvel.ParallelMarvelLoader;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+import java.io.IOException;
+import java.util.HashSet;
+
+import static org.junit.Assert.*;
+
+public class ParallelMarvelLoaderTest {
+    @Rule
+    public Timeout globalTimeout = Timeout.seconds(10); // 10 seconds max per method tested
+
+    // more threads than any of the files has lines, so some chunks are empty
+    private static final int[] THREADS = {1, 2, 3, 4, 100};
+
+    private static void assertSameGraph(Graph<String,String> expected, Graph<String,String> actual) {
+        assertEquals(new HashSet<>(expected.getNodes()), new HashSet<>(actual.getNodes()));
+        for (String node : expected.getNodes()) {
+            assertEquals(node, expected.getNode(node).getEdges(), actual.getNode(node).getEdges());
+        }
+    }
+
+    private static void assertLoadsSame(String file, int... threads) throws IOException {
+        Graph<String,String> expected = MarvelPaths.createMarvelGraph(file);
+        for (int t : threads) {
+            assertSameGraph(expected, ParallelMarvelLoader.load(file, t));
+        }
+    }
+
+    @Test
+    public void testNoTrailingNewline() throws IOException {
+        // the last line of these files is not followed by a line break
+        assertLoadsSame("multipleShortestPaths.csv", THREADS);
+        assertLoadsSame("staffSuperheroes.csv", THREADS);
+        assertLoadsSame("noPaths.csv", THREADS);
+    }
+
+    @Test
+    public void testSingleLine() throws IOException {
+        assertLoadsSame("oneSuperhero.csv", THREADS);
+    }
+
+    @Test
+    public void testTrailingNewlineAndSelfEdge() throws IOException {
+        assertLoadsSame("superheroWithPathToSelf.csv", THREADS);
+    }
+
+    @Test
+    public void testLinesOnChunkBoundaries() throws IOException {
+        // six 8-byte lines: 2, 3 and 6 threads cut exactly at line starts,
+        // 4 and 5 threads cut some lines in the middle, 48 threads ask for a
+        // cut at every byte
+        assertLoadsSame("chunkBoundary.csv", 1, 2, 3, 4, 5, 6, 7, 48, 100);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNoThreads() {
+        ParallelMarvelLoader.load("noPaths.csv", 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMissingFile() {
+        ParallelMarvelLoader.load("noSuchFile.csv", 2);
+    }
+
+    @Test
+    public void testEmptyBookRejectedLikeParser() {
+        for (int threads : new int[] {1, 2, 3}) {
+            try {
+                ParallelMarvelLoader.load("emptyBook.csv", threads);
+                fail("expected IllegalArgumentException with " + threads + " threads");
+            } catch (IllegalArgumentException e) {
+                // expected
+            }
+        }
+        try {
+            MarvelParser.parseData("emptyBook.csv", (character, book) -> { });
+            fail("expected IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package marvel.junitTests;
+
+import marvel.CompactGraph;
+import marvel.LiveMarvelGraph;
+import marvel.MarvelPaths;
+import marvel.SeparationAnalytics;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class SeparationAnalyticsTest {
+    @Rule
+    public Timeout globalTimeout = Timeout.seconds(10); // 10 seconds max per method tested
+
+    private CompactGraph chain;
+    private CompactGraph disconnected;
+
+    @Before
+    public void setUp() throws IOException {
+        chain = CompactGraph.fromGraph(MarvelPaths.createMarvelGraph("multipleShortestPaths.csv"));
+        disconnected = CompactGraph.fromGraph(MarvelPaths.createMarvelGraph("noPaths.csv"));
+    }
+
+    @Test
+    public void testCompactGraphCollapsesParallelEdges() {
+        assertEquals(3, chain.size());
+        assertEquals("B and C share two books but have one edge", 1, chain.degree(chain.id("C")));
+        assertArrayEquals(new int[] {chain.id("A"), chain.id("C")}, chain.neighbors(chain.id("B")));
+        assertEquals(-1, chain.id("D"));
+    }
+
+    @Test
+    public void testHistogramOfChain() {
+        SeparationAnalytics.Report report = SeparationAnalytics.analyzeAll(chain);
+        assertEquals(4, report.pairsAtDistance(1));
+        assertEquals(2, report.pairsAtDistance(2));
+        assertEquals(0, report.pairsAtDistance(3));
+        assertEquals(6, report.connectedPairs());
+        assertEquals(2, report.diameter());
+        assertEquals(8.0 / 6.0, report.averageSeparation(), 1e-9);
+    }
+
+    @Test
+    public void testPerCharacterResults() {
+        SeparationAnalytics.Report report = SeparationAnalytics.analyzeAll(chain);
+        assertEquals(2, report.eccentricity("A"));
+        assertEquals(1, report.eccentricity("B"));
+        assertEquals(2, report.reachable("C"));
+        assertEquals(1.5, report.averageSeparation("C"), 1e-9);
+    }
+
+    @Test
+    public void testSampledSources() {
+        SeparationAnalytics.Report report = SeparationAnalytics.analyze(chain, new int[] {chain.id("B")});
+        assertEquals("lower bound from a single center", 1, report.diameter());
+        assertEquals(2, report.connectedPairs());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCharacterNotSearchedFrom() {
+        SeparationAnalytics.analyze(chain, new int[] {chain.id("B")}).eccentricity("A");
+    }
+
+    @Test
+    public void testDisconnectedGraph() {
+        SeparationAnalytics.Report report = SeparationAnalytics.analyzeAll(disconnected);
+        assertEquals(0, report.connectedPairs());
+        assertEquals(0, report.diameter());
+        assertEquals(0, report.eccentricity("A"));
+        assertEquals(0.0, report.averageSeparation(), 0);
+    }
+
+    @Test
+    public void testLargeGraphMatchesBreadthFirstSearch() {
+        // more characters than fit in one 64-source batch, in several components
+        Random random = new Random(331);
+        List<String> lines = new ArrayList<>();
+        for (int book = 0; book < 260; book++) {
+            int size = 2 + random.nextInt(3);
+            for (int i = 0; i < size; i++) {
+                lines.add("C" + random.nextInt(340) + ",Book" + book);
+            }
+        }
+        for (int loner = 0; loner < 5; loner++) {
+            lines.add("Loner" + loner + ",Solo" + loner);
+        }
+        LiveMarvelGraph live = new LiveMarvelGraph();
+        live.ingest(lines);
+        CompactGraph graph = CompactGraph.fromGraph(live.getGraph());
+        assertTrue(graph.size() > 300);
+
+        SeparationAnalytics.Report report = SeparationAnalytics.analyzeAll(graph);
+        long[] histogram = new long[graph.size()];
+        for (int source = 0; source < graph.size(); source++) {
+            int[] distance = new int[graph.size()];
+            Arrays.fill(distance, -1);
+            distance[source] = 0;
+            Queue<Integer> queue = new ArrayDeque<>();
+            queue.add(source);
+            int eccentricity = 0;
+            int reached = 0;
+            while (!queue.isEmpty()) {
+                int v = queue.remove();
+                for (int w : graph.neighbors(v)) {
+                    if (distance[w] < 0) {
+                        distance[w] = distance[v] + 1;
+                        eccentricity = distance[w];
+                        reached++;
+                        histogram[distance[w]]++;
+                        queue.add(w);
+                    }
+                }
+            }
+            assertEquals(eccentricity, report.eccentricity(graph.name(source)));
+            assertEquals(reached, report.reachable(graph.name(source)));
+        }
+        for (int d = 1; d < histogram.length; d++) {
+            assertEquals(histogram[d], report.pairsAtDistance(d));
+        }
+    }
+}
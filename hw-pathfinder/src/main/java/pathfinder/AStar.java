@@ -0,0 +1,72 @@
+package pathfinder;
+
+import graph.Graph;
+import graph.Node;
+import pathfinder.datastructures.*;
+
+/**
+ * This class, AStar, implements the A* search algorithm
+ * over a graph of points, guided by the straight line
+ * distance to the destination
+ */
+public class AStar {
+
+    /**
+     * Finds the shortest path, by distance, between the two provided points.
+     * Points are explored in order of their cost plus scale times the straight
+     * line distance from them to dest, which never overestimates the
+     * remaining cost as long as no edge costs less than scale times its length.
+     *
+     * @param start The start vertex.
+     * @param dest The destination vertex.
+     * @param graph The graph.
+     * @param scale The heuristic scale, at most admissibleScale(graph).
+     * @return A path between start and dest, or null if none exists.
+     */
+    public static Path<Point> aStarAlgorithm(Point start, Point dest, Graph<Point, Double> graph, double scale) {
+        SearchTree<Point> tree = new SearchTree<>(start, scale * distance(start, dest));
+        while (!tree.isEmpty()) {
+            SearchTree.Label<Point> min = tree.settle();
+            if (min.vertex().equals(dest)) {
+                return tree.pathTo(min);
+            }
+            for (Node<Point, Double>.Edge curr : graph.getNode(min.vertex()).getEdges()) {
+                Point currChild = curr.getChild().getLabel();
+                SearchTree.Label<Point> child = tree.relax(min, currChild, curr.getEdgeLabel());
+                if (child != null) {
+                    tree.queue(child, child.cost() + scale * distance(currChild, dest));
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @param graph The graph.
+     * @return The largest scale for which scale times the straight line
+     * distance between the ends of every edge is at most the cost of the
+     * edge, so the heuristic is admissible (and consistent); 0 if there are
+     * no edges of positive length.
+     */
+    public static double admissibleScale(Graph<Point, Double> graph) {
+        double scale = Double.POSITIVE_INFINITY;
+        for (Point point : graph.getNodes()) {
+            for (Node<Point, Double>.Edge edge : graph.getNode(point).getEdges()) {
+                double length = distance(point, edge.getChild().getLabel());
+                if (length > 0) {
+                    scale = Math.min(scale, edge.getEdgeLabel() / length);
+                }
+            }
+        }
+        return scale == Double.POSITIVE_INFINITY ? 0 : scale;
+    }
+
+    /**
+     * @param a The first point.
+     * @param b The second point.
+     * @return The straight line distance between the points.
+     */
+    private static double distance(Point a, Point b) {
+        return Math.hypot(a.getX() - b.getX(), a.getY() - b.getY());
+    }
+}
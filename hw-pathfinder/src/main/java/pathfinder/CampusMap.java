@@ -15,10 +15,13 @@ import graph.Graph;
 import graph.Node;
 import pathfinder.datastructures.Path;
 import pathfinder.datastructures.Point;
+import pathfinder.datastructures.PointIndex;
+import pathfinder.datastructures.SegmentIndex;
 import pathfinder.parser.CampusBuilding;
 import pathfinder.parser.CampusPath;
 import pathfinder.parser.CampusPathsParser;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -27,37 +30,120 @@ public class CampusMap implements ModelAPI {
 
     private static final boolean CHECK_REP = false;
 
-    private Graph<Point, Double> campusGraph;
+    // the campus graph with its points numbered, so searches index arrays
+    // instead of hashing points
+    private PointGraph campusGraph;
 
     private Map<String, String> buildingNames;
 
     private Map<String, Point> mapPoints;
 
+    // the id in campusGraph of every building's point, by short name
+    private Map<String, Integer> buildingIds;
+
+    // largest scale of the straight line distance that never overestimates a
+    // walk, the least ratio of any path segment's cost to its length
+    private double heuristicScale;
+
+    // contracted up front, so the first route between locations is as fast as
+    // the rest
+    private ContractionHierarchy<Point> hierarchy;
+
+    // every point of the graph, for finding the points near a location
+    private PointIndex pointIndex;
+
+    // every campus path, for finding the path nearest a location, and the
+    // cost and the ids of the ends of each, by its position in the index
+    private SegmentIndex segmentIndex;
+    private double[] segmentCosts;
+    private int[] segmentStartIds;
+    private int[] segmentEndIds;
+
+    // every route between buildings, or null if they are searched for on each query
+    private RouteTable routeTable;
+
+    // the routes searched for most recently, or null if none are kept
+    private RouteCache routeCache;
+
     public CampusMap() {
-        this.campusGraph = new Graph<>();
+        this(false, 0);
+    }
+
+    /**
+     * @param precomputeRoutes true to find the route between every pair of
+     *                         buildings now and answer findShortestPath by looking
+     *                         them up, false to search on every query
+     */
+    public CampusMap(boolean precomputeRoutes) {
+        this(precomputeRoutes, 0);
+    }
+
+    /**
+     * @param precomputeRoutes true to find the route between every pair of
+     *                         buildings now and answer findShortestPath by looking
+     *                         them up, false to search on every query
+     * @param cacheCapacity the most routes findShortestPath remembers when they
+     *                      are not precomputed, or 0 to remember none
+     * @throws IllegalArgumentException if cacheCapacity is negative
+     */
+    public CampusMap(boolean precomputeRoutes, int cacheCapacity) {
+        if (cacheCapacity < 0) {
+            throw new IllegalArgumentException("cacheCapacity can't be negative");
+        }
+        Graph<Point, Double> graph = new Graph<>();
         this.buildingNames = new HashMap<>();
         this.mapPoints = new HashMap<>();
         List<CampusBuilding> campusBuildings = CampusPathsParser.parseCampusBuildings("campus_buildings.csv");
         for (CampusBuilding campusBuilding : campusBuildings) {
-            campusGraph.addNode(new Node<>(new Point(campusBuilding.getX(), campusBuilding.getY())));
+            graph.addNode(new Node<>(new Point(campusBuilding.getX(), campusBuilding.getY())));
             buildingNames.put(campusBuilding.getShortName(), campusBuilding.getLongName());
             mapPoints.put(campusBuilding.getShortName(), new Point(campusBuilding.getX(), campusBuilding.getY()));
         }
         List<CampusPath> campusPaths = CampusPathsParser.parseCampusPaths("campus_paths.csv");
+        List<Point> segmentStarts = new ArrayList<>();
+        List<Point> segmentEnds = new ArrayList<>();
+        List<Double> costs = new ArrayList<>();
         for (CampusPath campusPath : campusPaths) {
-            Node<Point, Double> startVertex = campusGraph.getNode(new Point(campusPath.getX1(), campusPath.getY1()));
-            Node<Point, Double> endVertex = campusGraph.getNode(new Point(campusPath.getX2(), campusPath.getY2()));
+            Node<Point, Double> startVertex = graph.getNode(new Point(campusPath.getX1(), campusPath.getY1()));
+            Node<Point, Double> endVertex = graph.getNode(new Point(campusPath.getX2(), campusPath.getY2()));
             if (startVertex == null) {
                 startVertex = new Node<>(new Point(campusPath.getX1(), campusPath.getY1()));
-                campusGraph.addNode(startVertex);
+                graph.addNode(startVertex);
             }
             if (endVertex == null) {
                 endVertex = new Node<>(new Point(campusPath.getX2(), campusPath.getY2()));
-                campusGraph.addNode(endVertex);
+                graph.addNode(endVertex);
             }
-            campusGraph.addEdge(startVertex, endVertex, campusPath.getDistance());
-            campusGraph.addEdge(endVertex, startVertex, campusPath.getDistance());
+            boolean added = graph.addEdge(startVertex, endVertex, campusPath.getDistance());
+            graph.addEdge(endVertex, startVertex, campusPath.getDistance());
+            // every path is listed once each way, index it only the first time
+            if (added) {
+                segmentStarts.add(startVertex.getLabel());
+                segmentEnds.add(endVertex.getLabel());
+                costs.add(campusPath.getDistance());
+            }
+        }
+        // only the numbered graph is kept, the hashed one is left for the collector
+        this.campusGraph = new PointGraph(graph);
+        this.buildingIds = new HashMap<>();
+        for (Map.Entry<String, Point> location : mapPoints.entrySet()) {
+            buildingIds.put(location.getKey(), campusGraph.id(location.getValue()));
+        }
+        this.heuristicScale = campusGraph.admissibleScale();
+        this.pointIndex = new PointIndex(campusGraph.points());
+        this.segmentIndex = new SegmentIndex(segmentStarts, segmentEnds);
+        this.segmentCosts = new double[costs.size()];
+        this.segmentStartIds = new int[costs.size()];
+        this.segmentEndIds = new int[costs.size()];
+        for (int i = 0; i < segmentCosts.length; i++) {
+            segmentCosts[i] = costs.get(i);
+            segmentStartIds[i] = campusGraph.id(segmentStarts.get(i));
+            segmentEndIds[i] = campusGraph.id(segmentEnds.get(i));
         }
+        this.hierarchy = ContractionHierarchy.build(campusGraph);
+        this.routeTable = precomputeRoutes ? RouteTable.build(campusGraph, mapPoints) : null;
+        // every path is added both ways at the same cost, so reversed routes can be reused
+        this.routeCache = !precomputeRoutes && cacheCapacity > 0 ? new RouteCache(cacheCapacity, true) : null;
         checkRep();
     }
 
@@ -78,7 +164,180 @@ public class CampusMap implements ModelAPI {
 
     @Override
     public Path<Point> findShortestPath(String startShortName, String endShortName) {
-        return Dijkstra.dijkstraAlgorithm(mapPoints.get(startShortName), mapPoints.get(endShortName), campusGraph);
+        if (routeTable != null) {
+            return routeTable.findPath(startShortName, endShortName);
+        }
+        if (routeCache != null) {
+            if (!shortNameExists(startShortName) || !shortNameExists(endShortName)) {
+                throw new IllegalArgumentException("not a building: "
+                        + (shortNameExists(startShortName) ? endShortName : startShortName));
+            }
+            return routeCache.get(startShortName, endShortName,
+                    (start, end) -> findShortestPath(start, end, SearchAlgorithm.DIJKSTRA));
+        }
+        return findShortestPath(startShortName, endShortName, SearchAlgorithm.DIJKSTRA);
+    }
+
+    @Override
+    public Path<Point> findShortestPath(String startShortName, String endShortName, SearchAlgorithm algorithm) {
+        Integer start = buildingIds.get(startShortName);
+        Integer end = buildingIds.get(endShortName);
+        if (start == null || end == null) {
+            throw new IllegalArgumentException("not a building: " + (start == null ? startShortName : endShortName));
+        }
+        switch (algorithm) {
+            case A_STAR:
+                return campusGraph.aStar(start, end, heuristicScale);
+            case CONTRACTION_HIERARCHY:
+                return hierarchy.findPath(start, end);
+            default:
+                return campusGraph.dijkstra(start, end);
+        }
+    }
+
+    @Override
+    public Path<Point> findShortestPath(Point from, Point to) {
+        if (from == null || to == null) {
+            throw new IllegalArgumentException("from and to can't be null");
+        }
+        int a = segmentIndex.nearest(from);
+        int b = segmentIndex.nearest(to);
+        if (a == -1) {
+            // there are no campus paths to walk
+            return null;
+        }
+        double alongA = segmentIndex.fraction(a, from);
+        double alongB = segmentIndex.fraction(b, to);
+        Point start = segmentIndex.closest(a, from);
+        Point end = segmentIndex.closest(b, to);
+
+        // the snapped points are not in the graph, so the search starts at both
+        // ends of the first path and ends at both ends of the last, at the cost
+        // of walking there along it
+        int[] starts = {segmentStartIds[a], segmentEndIds[a]};
+        double[] startCosts = endCosts(a, alongA);
+        int[] dests = {segmentStartIds[b], segmentEndIds[b]};
+        double[] destCosts = endCosts(b, alongB);
+        Path<Point> between = hierarchy.findPath(starts, startCosts, dests, destCosts);
+        Path<Point> best = null;
+        if (between != null) {
+            best = step(new Path<>(start), between.getStart(), costAt(between.getStart(), starts, startCosts));
+            for (Path<Point>.Segment segment : between) {
+                best = best.extend(segment.getEnd(), segment.getCost());
+            }
+            best = step(best, end, costAt(between.getEnd(), dests, destCosts));
+        }
+
+        // on the same campus path, walking straight along it may be shortest
+        double direct = directCost(a, alongA, b, alongB);
+        if (direct < (best == null ? Double.POSITIVE_INFINITY : best.getCost())) {
+            best = step(new Path<>(start), end, direct);
+        }
+        return best;
+    }
+
+    /**
+     * @param target A location on the map, such as a clicked spot or a GPS fix.
+     * @return A point of the campus graph nearest to target.
+     * @throws IllegalArgumentException if target is null.
+     */
+    public Point nearestPoint(Point target) {
+        return pointIndex.nearest(target);
+    }
+
+    /**
+     * @param center A location on the map.
+     * @param radius The greatest distance from center of a point returned.
+     * @return Every point of the campus graph no farther than radius from center, nearest first.
+     * @throws IllegalArgumentException if center is null or radius is negative or NaN.
+     */
+    public List<Point> pointsWithin(Point center, double radius) {
+        return pointIndex.within(center, radius);
+    }
+
+    /**
+     * @param segment The position of a campus path in segmentIndex.
+     * @param along How far along the path a point is, from 0 at its start to 1 at its end.
+     * @return The cost of walking from the point to the start and to the end of the path.
+     */
+    private double[] endCosts(int segment, double along) {
+        return new double[] {along * segmentCosts[segment], (1 - along) * segmentCosts[segment]};
+    }
+
+    /**
+     * @param point A point of the campus graph.
+     * @param ids The ids of some points of the campus graph, including point.
+     * @param costs The cost of each of those points.
+     * @return The least cost of point in ids.
+     */
+    private double costAt(Point point, int[] ids, double[] costs) {
+        double cost = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < ids.length; i++) {
+            if (campusGraph.point(ids[i]).equals(point)) {
+                cost = Math.min(cost, costs[i]);
+            }
+        }
+        return cost;
+    }
+
+    /**
+     * @param a The position of a campus path in segmentIndex.
+     * @param alongA How far along a one point is.
+     * @param b The position of a campus path in segmentIndex.
+     * @param alongB How far along b another point is.
+     * @return The cost of walking straight between the points if a and b join the
+     * same two points, or infinity if they don't.
+     */
+    private double directCost(int a, double alongA, int b, double alongB) {
+        Point startA = segmentIndex.start(a);
+        Point endA = segmentIndex.end(a);
+        if (startA.equals(segmentIndex.start(b)) && endA.equals(segmentIndex.end(b))) {
+            return Math.abs(alongA - alongB) * segmentCosts[a];
+        }
+        if (startA.equals(segmentIndex.end(b)) && endA.equals(segmentIndex.start(b))) {
+            return Math.abs(alongA - (1 - alongB)) * segmentCosts[a];
+        }
+        return Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * @param path A path.
+     * @param next The point to go to next.
+     * @param cost The cost of going there from the end of path.
+     * @return The path extended to next, or path itself if it already ends there.
+     */
+    private static Path<Point> step(Path<Point> path, Point next, double cost) {
+        return path.getEnd().equals(next) ? path : path.extend(next, cost);
+    }
+
+    /**
+     * @return The cache of routes findShortestPath keeps, with its hit, miss and
+     * eviction counts, or null if it keeps none.
+     */
+    public RouteCache getRouteCache() {
+        return routeCache;
+    }
+
+    /**
+     * @param shortName The short name of a building.
+     * @return The point of the building, or null if there is no such building.
+     */
+    Point location(String shortName) {
+        return mapPoints.get(shortName);
+    }
+
+    /**
+     * @return The point of every building, by short name.
+     */
+    Map<String, Point> locations() {
+        return mapPoints;
+    }
+
+    /**
+     * @return the graph of campus points the routes are searched over
+     */
+    PointGraph getGraph() {
+        return campusGraph;
     }
 
     private void checkRep() {
@@ -90,6 +349,12 @@ public class CampusMap implements ModelAPI {
             assert this.mapPoints != null : "mapPoints map can't be null";
             assert !this.mapPoints.containsKey(null) : "mapPoints can't contain null map key";
             assert !this.mapPoints.containsValue(null) : "mapPoints can't contain null map value";
+            assert this.buildingIds != null : "buildingIds map can't be null";
+            assert this.buildingIds.size() == this.mapPoints.size() : "every building needs an id";
+            assert this.heuristicScale >= 0 : "heuristicScale can't be negative";
+            assert this.pointIndex != null : "pointIndex can't be null";
+            assert this.segmentIndex != null : "segmentIndex can't be null";
+            assert this.segmentCosts.length == this.segmentIndex.size() : "every campus path has a cost";
         }
     }
 }
@@ -0,0 +1,739 @@
+package pathfinder;
+
+import graph.Graph;
+import graph.Node;
+import pathfinder.datastructures.IndexedHeap;
+import pathfinder.datastructures.Path;
+import pathfinder.datastructures.Point;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ContractionHierarchy answers shortest path queries on a graph that does not
+ * change, such as the campus map, by doing most of the work once, up front.
+ * Vertices are contracted one at a time, least important first: a vertex is
+ * removed and, for every pair of its remaining neighbors whose only shortest
+ * path ran through it, a shortcut edge of the same cost is added between them
+ * that remembers the vertex it skips. The order in which vertices are
+ * contracted is their rank, and the vertex to contract next is always the one
+ * whose edge difference (shortcuts it would add, less the edges it removes,
+ * plus the neighbors contracted before it) is least.
+ *
+ * A query searches from both ends at once, each side only following edges to
+ * vertices of higher rank, and the sides meet at the highest ranked vertex of
+ * the shortest path. Only a few dozen vertices are settled on campus, and the
+ * path is recovered by unpacking every shortcut into the edges it skips.
+ * Queries keep their scratch space per thread, so one hierarchy can answer
+ * queries from many threads at once.
+ *
+ * @param <P> The type of the vertices
+ */
+public class ContractionHierarchy<P> {
+
+    /**
+     * Abstraction function:
+     * AF(this) = a hierarchy over a graph whose vertices are vertices[0..n),
+     * where vertex v has rank rank[v] and its edges and shortcuts to vertices
+     * of higher rank are upTo, upCost and upMiddle[upOffsets[v]..upOffsets[v + 1]);
+     * upMiddle[j] is the vertex shortcut j skips, or ORIGINAL for an edge of
+     * the graph
+     *
+     * Representation invariant:
+     * vertices, ids, rank and upOffsets have n, n, n and n + 1 entries &&
+     * ids.get(vertices[v]) == v && rank is a permutation of [0, n) &&
+     * for every j in upOffsets[v]..upOffsets[v + 1]: rank[upTo[j]] > rank[v] &&
+     * upCost[j] >= 0 && (upMiddle[j] == ORIGINAL || rank[upMiddle[j]] < rank[v])
+     */
+
+    private static final boolean CHECK_REP = false;
+
+    /**
+     * Middle of an edge that is in the graph rather than a shortcut.
+     */
+    private static final int ORIGINAL = -1;
+
+    /**
+     * Most vertices a witness search settles before giving up and adding the
+     * shortcut; a missed witness only costs a needless shortcut.
+     */
+    private static final int WITNESS_LIMIT = 64;
+
+    private final P[] vertices;
+    private final Map<P, Integer> ids;
+    private final int[] rank;
+    private final int[] upOffsets;
+    private final int[] upTo;
+    private final double[] upCost;
+    private final int[] upMiddle;
+    private final int shortcuts;
+    private final ThreadLocal<Query> queries;
+
+    /**
+     * Contracts every vertex of the graph
+     *
+     * @param graph The graph.
+     * @spec.requires graph != null && every edge of graph has a reverse edge of the same
+     * cost && no edge cost is negative
+     * @param <P> The type of the vertices
+     * @return A hierarchy answering shortest path queries on the graph as it is now.
+     */
+    @SuppressWarnings("unchecked")
+    public static <P> ContractionHierarchy<P> build(Graph<P, Double> graph) {
+        List<P> labels = graph.getNodes();
+        int n = labels.size();
+        P[] vertices = (P[]) labels.toArray();
+        Map<P, Integer> ids = new HashMap<>();
+        for (int v = 0; v < n; v++) {
+            ids.put(vertices[v], v);
+        }
+        int[] offsets = new int[n + 1];
+        for (int v = 0; v < n; v++) {
+            offsets[v + 1] = offsets[v] + graph.getNode(vertices[v]).getEdges().size();
+        }
+        int[] neighbors = new int[offsets[n]];
+        double[] costs = new double[offsets[n]];
+        for (int v = 0; v < n; v++) {
+            int j = offsets[v];
+            for (Node<P, Double>.Edge edge : graph.getNode(vertices[v]).getEdges()) {
+                neighbors[j] = ids.get(edge.getChild().getLabel());
+                costs[j] = edge.getEdgeLabel();
+                j++;
+            }
+        }
+        return new Contraction<>(vertices, ids, offsets, neighbors, costs).contract();
+    }
+
+    /**
+     * Contracts every point of the graph, keeping the ids the graph gave them
+     *
+     * @param graph The graph.
+     * @spec.requires graph != null && every edge of graph has a reverse edge of the same
+     * cost && no edge cost is negative
+     * @return A hierarchy answering shortest path queries on the graph, in which
+     * findPath(int, int) takes the ids of graph.
+     */
+    static ContractionHierarchy<Point> build(PointGraph graph) {
+        return new Contraction<>(graph.pointArray(), graph.ids(), graph.offsets(), graph.neighbors(),
+                graph.costs()).contract();
+    }
+
+    /**
+     * @param vertices The vertices, by id.
+     * @param ids The id of every vertex.
+     * @param rank The rank of every vertex.
+     * @param arcs The edges and shortcuts of every vertex, to every neighbor.
+     * @param shortcuts The number of shortcuts added.
+     * @spec.effects Constructs a hierarchy keeping only the arcs to higher ranks
+     */
+    private ContractionHierarchy(P[] vertices, Map<P, Integer> ids, int[] rank, List<List<Arc>> arcs,
+                                 int shortcuts) {
+        int n = vertices.length;
+        this.vertices = vertices;
+        this.ids = ids;
+        this.rank = rank;
+        this.shortcuts = shortcuts;
+        this.upOffsets = new int[n + 1];
+        for (int v = 0; v < n; v++) {
+            int up = 0;
+            for (Arc arc : arcs.get(v)) {
+                if (rank[arc.to] > rank[v]) {
+                    up++;
+                }
+            }
+            upOffsets[v + 1] = upOffsets[v] + up;
+        }
+        this.upTo = new int[upOffsets[n]];
+        this.upCost = new double[upOffsets[n]];
+        this.upMiddle = new int[upOffsets[n]];
+        for (int v = 0; v < n; v++) {
+            int j = upOffsets[v];
+            for (Arc arc : arcs.get(v)) {
+                if (rank[arc.to] > rank[v]) {
+                    upTo[j] = arc.to;
+                    upCost[j] = arc.cost;
+                    upMiddle[j] = arc.middle;
+                    j++;
+                }
+            }
+        }
+        this.queries = ThreadLocal.withInitial(() -> new Query(n));
+        checkRep();
+    }
+
+    /**
+     * @return The number of vertices.
+     */
+    public int size() {
+        return vertices.length;
+    }
+
+    /**
+     * @return The number of shortcuts added while contracting.
+     */
+    public int shortcutCount() {
+        return shortcuts;
+    }
+
+    /**
+     * Finds the shortest path, by distance, between two vertices.
+     *
+     * @param start The start vertex.
+     * @param dest The destination vertex.
+     * @throws IllegalArgumentException if either vertex is not in the graph
+     * @return A path between start and dest, or null if none exists.
+     */
+    public Path<P> findPath(P start, P dest) {
+        Integer s = ids.get(start);
+        Integer t = ids.get(dest);
+        if (s == null || t == null) {
+            throw new IllegalArgumentException("not in the graph: " + (s == null ? start : dest));
+        }
+        return findPath(s, t);
+    }
+
+    /**
+     * Finds the shortest path, by distance, between two vertices.
+     *
+     * @param s The id of the start vertex.
+     * @param t The id of the destination vertex.
+     * @spec.requires s and t are ids of vertices
+     * @return A path between the vertices, or null if none exists.
+     */
+    Path<P> findPath(int s, int t) {
+        Query query = queries.get();
+        query.begin();
+        query.from(s, 0);
+        query.to(t, 0);
+        return pathThrough(query, query.search());
+    }
+
+    /**
+     * Finds the cheapest way from one of several start vertices to one of
+     * several destinations, where starting at a vertex of starts costs the
+     * cost it maps to and ending at a vertex of dests costs the cost it maps
+     * to, on top of the path between them. This routes from places between
+     * vertices, such as the middle of an edge, by starting at both ends of the
+     * edge at the cost of reaching them, without changing the graph.
+     *
+     * @param starts The cost of starting at each start vertex.
+     * @param dests The cost of ending at each destination vertex.
+     * @throws IllegalArgumentException if a vertex is not in the graph or a cost is
+     * negative or NaN
+     * @return The path between the start vertex and the destination of the cheapest
+     * way, whose cost leaves out the costs of starting and ending there, or null if
+     * no destination can be reached from any start.
+     */
+    public Path<P> findPath(Map<P, Double> starts, Map<P, Double> dests) {
+        int[] startIds = new int[starts.size()];
+        double[] startCosts = new double[starts.size()];
+        int i = 0;
+        for (Map.Entry<P, Double> start : starts.entrySet()) {
+            startIds[i] = endpoint(start);
+            startCosts[i] = start.getValue();
+            i++;
+        }
+        int[] destIds = new int[dests.size()];
+        double[] destCosts = new double[dests.size()];
+        i = 0;
+        for (Map.Entry<P, Double> dest : dests.entrySet()) {
+            destIds[i] = endpoint(dest);
+            destCosts[i] = dest.getValue();
+            i++;
+        }
+        return findPath(startIds, startCosts, destIds, destCosts);
+    }
+
+    /**
+     * Finds the cheapest way from one of several start vertices to one of
+     * several destinations, as findPath(Map, Map) does, with the vertices
+     * given by id. A vertex listed twice costs the least of its costs.
+     *
+     * @param starts The ids of the start vertices.
+     * @param startCosts The cost of starting at each start vertex.
+     * @param dests The ids of the destination vertices.
+     * @param destCosts The cost of ending at each destination vertex.
+     * @spec.requires every id is the id of a vertex, every cost is at least 0, and
+     * each array of costs is as long as its array of ids
+     * @return The path between the start vertex and the destination of the cheapest
+     * way, or null if no destination can be reached from any start.
+     */
+    Path<P> findPath(int[] starts, double[] startCosts, int[] dests, double[] destCosts) {
+        Query query = queries.get();
+        query.begin();
+        for (int i = 0; i < starts.length; i++) {
+            query.from(starts[i], startCosts[i]);
+        }
+        for (int i = 0; i < dests.length; i++) {
+            query.to(dests[i], destCosts[i]);
+        }
+        return pathThrough(query, query.search());
+    }
+
+    /**
+     * @param endpoint A vertex and the cost of starting or ending a path there.
+     * @throws IllegalArgumentException if the vertex is not in the graph or the cost is
+     * negative or NaN
+     * @return The id of the vertex.
+     */
+    private int endpoint(Map.Entry<P, Double> endpoint) {
+        Integer v = ids.get(endpoint.getKey());
+        if (v == null || !(endpoint.getValue() >= 0)) {
+            throw new IllegalArgumentException("can't start or end at " + endpoint.getKey()
+                    + " at a cost of " + endpoint.getValue());
+        }
+        return v;
+    }
+
+    /**
+     * @param query A query that has searched.
+     * @param meet The vertex where its shortest path is highest, or ORIGINAL.
+     * @return The shortest path the query found, or null if meet is ORIGINAL.
+     */
+    private Path<P> pathThrough(Query query, int meet) {
+        if (meet == ORIGINAL) {
+            return null;
+        }
+        // follow the forward parents from the meeting vertex down to the
+        // start, then unpack the arcs from the start up to it and back down
+        // to the destination
+        List<Integer> up = new ArrayList<>();
+        int s = meet;
+        while (query.forward.parent[s] != ORIGINAL) {
+            up.add(s);
+            s = query.forward.parent[s];
+        }
+        Path<P> path = new Path<>(vertices[s]);
+        for (int i = up.size() - 1; i >= 0; i--) {
+            int v = up.get(i);
+            path = unpack(path, query.forward.parent[v], v, query.forward.parentArc[v]);
+        }
+        for (int v = meet; query.backward.parent[v] != ORIGINAL; v = query.backward.parent[v]) {
+            path = unpack(path, v, query.backward.parent[v], query.backward.parentArc[v]);
+        }
+        return path;
+    }
+
+    /**
+     * @param path The path so far, ending at from.
+     * @param from The vertex the arc is crossed from.
+     * @param to The vertex the arc is crossed to.
+     * @param j The arc between from and to.
+     * @return The path extended by the edges of the graph the arc stands for.
+     */
+    private Path<P> unpack(Path<P> path, int from, int to, int j) {
+        int middle = upMiddle[j];
+        if (middle == ORIGINAL) {
+            return path.extend(vertices[to], upCost[j]);
+        }
+        // the middle was contracted first, so both halves are arcs up from it
+        path = unpack(path, from, middle, arc(middle, from));
+        return unpack(path, middle, to, arc(middle, to));
+    }
+
+    /**
+     * @param v A vertex.
+     * @param to A vertex of higher rank with an arc from v.
+     * @return The index of the arc from v to to.
+     */
+    private int arc(int v, int to) {
+        for (int j = upOffsets[v]; j < upOffsets[v + 1]; j++) {
+            if (upTo[j] == to) {
+                return j;
+            }
+        }
+        throw new IllegalStateException("no arc from " + v + " to " + to);
+    }
+
+    /**
+     * Throws an exception if the representation invariant is violated
+     */
+    private void checkRep() {
+        int n = vertices.length;
+        assert ids.size() == n && rank.length == n && upOffsets.length == n + 1 : "one entry per vertex";
+
+        if (CHECK_REP) {
+            boolean[] ranked = new boolean[n];
+            for (int v = 0; v < n; v++) {
+                assert ids.get(vertices[v]) == v;
+                assert !ranked[rank[v]] : "ranks are distinct";
+                ranked[rank[v]] = true;
+                for (int j = upOffsets[v]; j < upOffsets[v + 1]; j++) {
+                    assert rank[upTo[j]] > rank[v] && upCost[j] >= 0;
+                    assert upMiddle[j] == ORIGINAL || rank[upMiddle[j]] < rank[v];
+                }
+            }
+        }
+    }
+
+    /**
+     * The scratch space of one thread's queries
+     */
+    private class Query {
+        private final Side forward;
+        private final Side backward;
+        private int search;
+
+        /**
+         * @param n The number of vertices.
+         */
+        private Query(int n) {
+            this.forward = new Side(n);
+            this.backward = new Side(n);
+            this.search = 0;
+        }
+
+        /**
+         * Starts a new search, with no vertex reached from either end
+         */
+        private void begin() {
+            search++;
+            if (search == 0) {
+                // the count wrapped around, so old counts could match it again
+                Arrays.fill(forward.reached, 0);
+                Arrays.fill(backward.reached, 0);
+                search = 1;
+            }
+            forward.heap.clear();
+            backward.heap.clear();
+        }
+
+        /**
+         * @param v The id of a vertex the search may start from.
+         * @param cost The cost of starting there.
+         */
+        private void from(int v, double cost) {
+            forward.relax(ORIGINAL, ORIGINAL, v, cost, search);
+        }
+
+        /**
+         * @param v The id of a vertex the search may end at.
+         * @param cost The cost of ending there.
+         */
+        private void to(int v, double cost) {
+            backward.relax(ORIGINAL, ORIGINAL, v, cost, search);
+        }
+
+        /**
+         * Searches up from the starts and the destinations until no shorter
+         * meeting is possible
+         *
+         * @return The vertex where the shortest path is highest, or ORIGINAL
+         * if no destination can be reached from a start.
+         */
+        private int search() {
+            double best = Double.POSITIVE_INFINITY;
+            int meet = ORIGINAL;
+            while (true) {
+                double forwardMin = forward.heap.isEmpty() ? Double.POSITIVE_INFINITY : forward.minKey();
+                double backwardMin = backward.heap.isEmpty() ? Double.POSITIVE_INFINITY : backward.minKey();
+                if (Math.min(forwardMin, backwardMin) >= best) {
+                    return meet;
+                }
+                Side side = forwardMin <= backwardMin ? forward : backward;
+                Side other = side == forward ? backward : forward;
+                int v = side.heap.poll();
+                double d = side.distance[v];
+                if (other.reached(v, search) && d + other.distance[v] < best) {
+                    best = d + other.distance[v];
+                    meet = v;
+                }
+                for (int j = upOffsets[v]; j < upOffsets[v + 1]; j++) {
+                    side.relax(v, j, upTo[j], d + upCost[j], search);
+                }
+            }
+        }
+    }
+
+    /**
+     * The state of a search from one end of a query
+     */
+    private class Side {
+        private final IndexedHeap heap;
+        private final double[] distance;
+        // for a reached v, parent[v] == ORIGINAL iff this side started at v
+        private final int[] parent;
+        private final int[] parentArc;
+        // reached[v] == search iff v has a distance in the current search
+        private final int[] reached;
+
+        /**
+         * @param n The number of vertices.
+         */
+        private Side(int n) {
+            this.heap = new IndexedHeap(n);
+            this.distance = new double[n];
+            this.parent = new int[n];
+            this.parentArc = new int[n];
+            this.reached = new int[n];
+        }
+
+        /**
+         * @return The distance of the next vertex to settle.
+         */
+        private double minKey() {
+            return heap.key(heap.peek());
+        }
+
+        /**
+         * @param v A vertex.
+         * @param search The number of the search.
+         * @return True iff the vertex has been reached in this search.
+         */
+        private boolean reached(int v, int search) {
+            return reached[v] == search;
+        }
+
+        /**
+         * @param from The vertex settled, or ORIGINAL if the side starts at to.
+         * @param j The arc followed, from from up to to, or ORIGINAL if the side starts at to.
+         * @param to The vertex at the top of the arc.
+         * @param cost The distance of to through the arc.
+         * @param search The number of the search.
+         */
+        private void relax(int from, int j, int to, double cost, int search) {
+            if (reached[to] == search && cost >= distance[to]) {
+                return;
+            }
+            heap.offer(to, cost);
+            reached[to] = search;
+            distance[to] = cost;
+            parent[to] = from;
+            parentArc[to] = j;
+        }
+    }
+
+    /**
+     * An edge or shortcut to a neighbor, while contracting
+     */
+    private static class Arc {
+        private final int to;
+        private double cost;
+        private int middle;
+
+        /**
+         * @param to The neighbor.
+         * @param cost The cost of the arc.
+         * @param middle The vertex a shortcut skips, or ORIGINAL.
+         */
+        private Arc(int to, double cost, int middle) {
+            this.to = to;
+            this.cost = cost;
+            this.middle = middle;
+        }
+    }
+
+    /**
+     * The state of contracting a graph, used once by build
+     */
+    private static class Contraction<P> {
+        private final P[] vertices;
+        private final Map<P, Integer> ids;
+        private final List<List<Arc>> arcs;
+        private final boolean[] contracted;
+        private final int[] contractedNeighbors;
+        private final int[] rank;
+        private int shortcuts;
+
+        // witness search scratch space
+        private final IndexedHeap heap;
+        private final double[] distance;
+        private final int[] reached;
+        private int search;
+
+        /**
+         * @param vertices The vertices, by id.
+         * @param ids The id of every vertex.
+         * @param offsets Where each vertex's edges start in neighbors and costs.
+         * @param neighbors The vertex each edge leads to.
+         * @param costs The cost of each edge.
+         * @spec.effects Copies the edges of the graph, keeping the cheapest between
+         * each pair of vertices
+         */
+        private Contraction(P[] vertices, Map<P, Integer> ids, int[] offsets, int[] neighbors, double[] costs) {
+            int n = vertices.length;
+            this.vertices = vertices;
+            this.ids = ids;
+            this.arcs = new ArrayList<>(n);
+            for (int v = 0; v < n; v++) {
+                arcs.add(new ArrayList<>());
+            }
+            for (int v = 0; v < n; v++) {
+                for (int j = offsets[v]; j < offsets[v + 1]; j++) {
+                    if (neighbors[j] != v) {
+                        addArc(v, neighbors[j], costs[j], ORIGINAL);
+                    }
+                }
+            }
+            this.contracted = new boolean[n];
+            this.contractedNeighbors = new int[n];
+            this.rank = new int[n];
+            this.shortcuts = 0;
+            this.heap = new IndexedHeap(n);
+            this.distance = new double[n];
+            this.reached = new int[n];
+            this.search = 0;
+        }
+
+        /**
+         * Contracts every vertex, least edge difference first
+         *
+         * @return The hierarchy.
+         */
+        private ContractionHierarchy<P> contract() {
+            int n = vertices.length;
+            IndexedHeap order = new IndexedHeap(n);
+            for (int v = 0; v < n; v++) {
+                order.insert(v, priority(v));
+            }
+            for (int next = 0; next < n; next++) {
+                int v = order.poll();
+                // priorities of vertices not next to recent contractions may be out of date
+                double current = priority(v);
+                while (!order.isEmpty() && current > order.key(order.peek())) {
+                    order.insert(v, current);
+                    v = order.poll();
+                    current = priority(v);
+                }
+                contractVertex(v);
+                rank[v] = next;
+                for (Arc arc : arcs.get(v)) {
+                    if (!contracted[arc.to]) {
+                        contractedNeighbors[arc.to]++;
+                        order.changeKey(arc.to, priority(arc.to));
+                    }
+                }
+            }
+            return new ContractionHierarchy<>(vertices, ids, rank, arcs, shortcuts);
+        }
+
+        /**
+         * @param v A vertex that has not been contracted.
+         * @return The edge difference of the vertex, plus its contracted neighbors.
+         */
+        private double priority(int v) {
+            int removed = 0;
+            for (Arc arc : arcs.get(v)) {
+                if (!contracted[arc.to]) {
+                    removed++;
+                }
+            }
+            return shortcutsFor(v, false) - removed + contractedNeighbors[v];
+        }
+
+        /**
+         * Removes a vertex, adding the shortcuts that keep the distances between
+         * its remaining neighbors
+         *
+         * @param v A vertex that has not been contracted.
+         */
+        private void contractVertex(int v) {
+            shortcutsFor(v, true);
+            contracted[v] = true;
+        }
+
+        /**
+         * @param v A vertex that has not been contracted.
+         * @param add True to add the shortcuts, false to only count them.
+         * @return The number of shortcuts contracting the vertex needs.
+         */
+        private int shortcutsFor(int v, boolean add) {
+            List<Arc> neighbors = new ArrayList<>();
+            double longest = 0;
+            for (Arc arc : arcs.get(v)) {
+                if (!contracted[arc.to]) {
+                    neighbors.add(arc);
+                    longest = Math.max(longest, arc.cost);
+                }
+            }
+            int needed = 0;
+            for (int a = 0; a < neighbors.size(); a++) {
+                Arc in = neighbors.get(a);
+                witnessSearch(in.to, v, in.cost + longest);
+                for (int b = a + 1; b < neighbors.size(); b++) {
+                    Arc out = neighbors.get(b);
+                    double via = in.cost + out.cost;
+                    if (reached[out.to] != search || distance[out.to] > via) {
+                        needed++;
+                        if (add) {
+                            addArc(in.to, out.to, via, v);
+                            addArc(out.to, in.to, via, v);
+                        }
+                    }
+                }
+            }
+            if (add) {
+                shortcuts += needed;
+            }
+            return needed;
+        }
+
+        /**
+         * Finds the distances from a vertex to the others around it without
+         * passing through the vertex being contracted
+         *
+         * @param from The vertex to search from.
+         * @param avoid The vertex being contracted.
+         * @param limit The greatest distance of interest.
+         * @spec.modifies distance, reached, search, heap
+         */
+        private void witnessSearch(int from, int avoid, double limit) {
+            search++;
+            if (search == 0) {
+                Arrays.fill(reached, 0);
+                search = 1;
+            }
+            heap.clear();
+            distance[from] = 0;
+            reached[from] = search;
+            heap.insert(from, 0);
+            int settled = 0;
+            while (!heap.isEmpty() && settled < WITNESS_LIMIT) {
+                int u = heap.poll();
+                if (distance[u] > limit) {
+                    break;
+                }
+                settled++;
+                for (Arc arc : arcs.get(u)) {
+                    int w = arc.to;
+                    if (w == avoid || contracted[w]) {
+                        continue;
+                    }
+                    double cost = distance[u] + arc.cost;
+                    if (reached[w] != search) {
+                        reached[w] = search;
+                        distance[w] = cost;
+                        heap.insert(w, cost);
+                    } else if (cost < distance[w] && heap.contains(w)) {
+                        distance[w] = cost;
+                        heap.decreaseKey(w, cost);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Adds an arc from v to w, or lowers the cost of the one there is
+         *
+         * @param v A vertex.
+         * @param w Another vertex.
+         * @param cost The cost of the arc.
+         * @param middle The vertex a shortcut skips, or ORIGINAL.
+         */
+        private void addArc(int v, int w, double cost, int middle) {
+            for (Arc arc : arcs.get(v)) {
+                if (arc.to == w) {
+                    if (cost < arc.cost) {
+                        arc.cost = cost;
+                        arc.middle = middle;
+                    }
+                    return;
+                }
+            }
+            arcs.get(v).add(new Arc(w, cost, middle));
+        }
+    }
+}
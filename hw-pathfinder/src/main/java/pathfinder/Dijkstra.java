@@ -3,7 +3,6 @@ package pathfinder;
 import graph.Graph;
 import graph.Node;
 import pathfinder.datastructures.*;
-import java.util.*;
 
 /**
  * This class, Dijkstra, implements the Dijkstra
@@ -13,6 +12,10 @@ public class Dijkstra {
 
     /**
      * Finds the shortest path, by distance, between the two provided buildings.
+     * Each vertex reached keeps its best cost so far and the vertex it was
+     * reached from, and the path is built once, by following those back from
+     * the destination, rather than extending a path for every edge. Waiting
+     * vertices are kept in an indexed heap, so each is queued only once.
      *
      * @param start The start vertex.
      * @param dest The destination vertex.
@@ -21,35 +24,19 @@ public class Dijkstra {
      * @return A path between start and dest, or null if none exists.
      */
     public static <P> Path<P> dijkstraAlgorithm(P start, P dest, Graph<P, Double> graph) {
-        // Dijkstra's algorithm implementation as per pseudocode in spec
-        Queue<Path<P>> active = new PriorityQueue<>(new Sort<>());
-        HashSet<P> finished = new HashSet<>();
-        active.add(new Path<>(start));
-        while (!active.isEmpty()) {
-            Path<P> minPath = active.remove();
-            P minDest = minPath.getEnd();
-            if (minDest.equals(dest)) {
-                return minPath;
+        SearchTree<P> tree = new SearchTree<>(start, 0);
+        while (!tree.isEmpty()) {
+            SearchTree.Label<P> min = tree.settle();
+            if (min.vertex().equals(dest)) {
+                return tree.pathTo(min);
             }
-            if (!finished.contains(minDest)) {
-                for (Node<P, Double>.Edge curr : graph.getNode(minDest).getEdges()) {
-                    P currChild = curr.getChild().getLabel();
-                    if (!finished.contains(currChild)) {
-                        active.add(minPath.extend(currChild, curr.getEdgeLabel()));
-                    }
+            for (Node<P, Double>.Edge curr : graph.getNode(min.vertex()).getEdges()) {
+                SearchTree.Label<P> child = tree.relax(min, curr.getChild().getLabel(), curr.getEdgeLabel());
+                if (child != null) {
+                    tree.queue(child, child.cost());
                 }
-                finished.add(minDest);
             }
         }
         return null;
     }
-
-    /**
-     * Class that sorts the different path costs
-     */
-    private static class Sort<Point> implements Comparator<Path<Point>> {
-        public int compare(Path<Point> p1, Path<Point> p2) {
-            return Double.compare(p1.getCost(), p2.getCost());
-        }
-    }
 }
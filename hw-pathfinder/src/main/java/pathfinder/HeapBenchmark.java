@@ -0,0 +1,159 @@
+package pathfinder;
+
+import pathfinder.datastructures.IndexedHeap;
+
+import java.util.PriorityQueue;
+import java.util.Random;
+
+/**
+ * This class, HeapBenchmark, times the queue operations of a shortest path
+ * search on an IndexedHeap, lowering keys in place, and on a PriorityQueue
+ * of entries, queueing an id again whenever its key drops and skipping the
+ * stale entries when they come out.
+ */
+public class HeapBenchmark {
+
+    /**
+     * This class, HeapBenchmark, is not an ADT.
+     */
+
+    /**
+     * Number of ids queued, about the number of points on campus.
+     */
+    private static final int IDS = 1 << 12;
+
+    /**
+     * Number of times a key is lowered per id.
+     */
+    private static final int DECREASES = 4;
+
+    /**
+     * Number of timed rounds per queue, the fastest is reported.
+     */
+    private static final int RUNS = 50;
+
+    /**
+     * Seed of the keys, so every run times the same operations.
+     */
+    private static final long SEED = 331;
+
+    /**
+     * The main method
+     *
+     * @param args the arguments that are passed in when the class runs
+     */
+    public static void main(String[] args) {
+        Random random = new Random(SEED);
+        double[] keys = new double[IDS];
+        int[] lowered = new int[IDS * DECREASES];
+        double[] lowerKeys = new double[IDS * DECREASES];
+        for (int id = 0; id < IDS; id++) {
+            keys[id] = 1000 + random.nextDouble() * 1000;
+        }
+        double[] current = keys.clone();
+        for (int i = 0; i < lowered.length; i++) {
+            int id = random.nextInt(IDS);
+            current[id] -= random.nextDouble() * current[id] / DECREASES;
+            lowered[i] = id;
+            lowerKeys[i] = current[id];
+        }
+        int operations = IDS + lowered.length + IDS;
+        System.out.println("Ids: " + IDS + ", operations per round: " + operations);
+
+        for (int arity = 2; arity <= 8; arity *= 2) {
+            long best = Long.MAX_VALUE;
+            long checksum = 0;
+            for (int run = 0; run < RUNS; run++) {
+                long start = System.nanoTime();
+                checksum = indexed(keys, lowered, lowerKeys, arity);
+                best = Math.min(best, System.nanoTime() - start);
+            }
+            System.out.println(String.format("IndexedHeap, arity %d: %.1f ns per operation (checksum %d)",
+                    arity, (double) best / operations, checksum));
+        }
+
+        long best = Long.MAX_VALUE;
+        long checksum = 0;
+        for (int run = 0; run < RUNS; run++) {
+            long start = System.nanoTime();
+            checksum = lazy(keys, lowered, lowerKeys);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        System.out.println(String.format("PriorityQueue with lazy deletion: %.1f ns per operation (checksum %d)",
+                (double) best / operations, checksum));
+    }
+
+    /**
+     * @param keys The first key of every id.
+     * @param lowered The ids whose keys are lowered, in order.
+     * @param lowerKeys The lowered keys.
+     * @param arity The arity of the heap.
+     * @return A checksum of the order the ids came out in.
+     */
+    private static long indexed(double[] keys, int[] lowered, double[] lowerKeys, int arity) {
+        IndexedHeap heap = new IndexedHeap(keys.length, arity);
+        for (int id = 0; id < keys.length; id++) {
+            heap.insert(id, keys[id]);
+        }
+        for (int i = 0; i < lowered.length; i++) {
+            heap.decreaseKey(lowered[i], lowerKeys[i]);
+        }
+        long checksum = 0;
+        while (!heap.isEmpty()) {
+            checksum = 31 * checksum + heap.poll();
+        }
+        return checksum;
+    }
+
+    /**
+     * @param keys The first key of every id.
+     * @param lowered The ids whose keys are lowered, in order.
+     * @param lowerKeys The lowered keys.
+     * @return A checksum of the order the ids came out in.
+     */
+    private static long lazy(double[] keys, int[] lowered, double[] lowerKeys) {
+        PriorityQueue<Entry> queue = new PriorityQueue<>();
+        double[] current = new double[keys.length];
+        boolean[] done = new boolean[keys.length];
+        for (int id = 0; id < keys.length; id++) {
+            current[id] = keys[id];
+            queue.add(new Entry(id, keys[id]));
+        }
+        for (int i = 0; i < lowered.length; i++) {
+            current[lowered[i]] = lowerKeys[i];
+            queue.add(new Entry(lowered[i], lowerKeys[i]));
+        }
+        long checksum = 0;
+        while (!queue.isEmpty()) {
+            Entry entry = queue.remove();
+            if (!done[entry.id] && entry.key == current[entry.id]) {
+                done[entry.id] = true;
+                checksum = 31 * checksum + entry.id;
+            }
+        }
+        return checksum;
+    }
+
+    /**
+     * An id queued with a key, ordered by key and then by id like IndexedHeap
+     */
+    private static class Entry implements Comparable<Entry> {
+        private final int id;
+        private final double key;
+
+        /**
+         * @param id The id.
+         * @param key The key it was queued with.
+         */
+        private Entry(int id, double key) {
+            this.id = id;
+            this.key = key;
+        }
+
+        @Override
+        public int compareTo(Entry other) {
+            int order = Double.compare(key, other.key);
+            return order != 0 ? order : Integer.compare(id, other.id);
+        }
+    }
+}
@@ -71,4 +71,33 @@ public interface ModelAPI {
     // You'll need to change this return type to use the generic Path once you've
     // updated the Path ADT to be generic
 
+    /**
+     * Finds the shortest path, by distance, between the two provided buildings, searching
+     * with the given algorithm. Every algorithm finds the same path.
+     *
+     * @param startShortName The short name of the building at the beginning of this path.
+     * @param endShortName   The short name of the building at the end of this path.
+     * @param algorithm      The search to find the path with.
+     * @return A path between {@code startBuilding} and {@code endBuilding}, or {@literal null}
+     * if none exists.
+     * @throws IllegalArgumentException if {@code startBuilding} or {@code endBuilding} are
+     *                                  {@literal null}, or not valid short names of buildings in
+     *                                  this campus map.
+     */
+    public Path<Point> findShortestPath(String startShortName, String endShortName, SearchAlgorithm algorithm);
+
+    /**
+     * Finds the shortest path, by distance, between two locations on the map, such as spots
+     * clicked on it, that need not be buildings or the ends of campus paths. Each location is
+     * moved to the nearest point of a campus path, and the route may leave that path by
+     * either of its ends.
+     *
+     * @param from The location at the beginning of this path.
+     * @param to   The location at the end of this path.
+     * @return A path from the point of the campus paths nearest {@code from} to the point of
+     * the campus paths nearest {@code to}, or {@literal null} if none exists.
+     * @throws IllegalArgumentException if {@code from} or {@code to} are {@literal null}.
+     */
+    public Path<Point> findShortestPath(Point from, Point to);
+
 }
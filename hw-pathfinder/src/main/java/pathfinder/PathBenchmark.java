@@ -0,0 +1,61 @@
+package pathfinder;
+
+import pathfinder.datastructures.Path;
+import pathfinder.datastructures.Point;
+
+/**
+ * This class, PathBenchmark, times extending a Path by one segment at
+ * several path lengths, to show that extending a path costs the same
+ * however long the path already is.
+ */
+public class PathBenchmark {
+
+    /**
+     * This class, PathBenchmark, is not an ADT.
+     */
+
+    /**
+     * Lengths of the paths extended, from a short route to far longer than
+     * any route on campus.
+     */
+    private static final int[] LENGTHS = {1, 10, 100, 1000, 10000};
+
+    /**
+     * Number of times each path is extended per round.
+     */
+    private static final int EXTENDS = 1 << 16;
+
+    /**
+     * Number of timed rounds per length, the fastest is reported.
+     */
+    private static final int RUNS = 20;
+
+    /**
+     * The main method
+     *
+     * @param args the arguments that are passed in when the class runs
+     */
+    public static void main(String[] args) {
+        for (int length : LENGTHS) {
+            Path<Point> path = new Path<>(new Point(0, 0));
+            for (int i = 1; i <= length; i++) {
+                path = path.extend(new Point(i, 0), 1);
+            }
+            Point next = new Point(length + 1, 0);
+
+            long best = Long.MAX_VALUE;
+            double checksum = 0;
+            for (int run = 0; run < RUNS; run++) {
+                long start = System.nanoTime();
+                checksum = 0;
+                for (int i = 0; i < EXTENDS; i++) {
+                    checksum += path.extend(next, i).getCost();
+                }
+                best = Math.min(best, System.nanoTime() - start);
+            }
+
+            System.out.println(String.format("Length %5d: %.1f ns per extend (checksum %.0f)",
+                    length, (double) best / EXTENDS, checksum));
+        }
+    }
+}
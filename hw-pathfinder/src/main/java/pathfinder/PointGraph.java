@@ -0,0 +1,484 @@
+package pathfinder;
+
+import graph.Graph;
+import graph.Node;
+import pathfinder.datastructures.IndexedHeap;
+import pathfinder.datastructures.Path;
+import pathfinder.datastructures.Point;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * PointGraph is a graph of points in which every point has a dense int id,
+ * from 0 to one less than the number of points, so a search indexes arrays
+ * instead of hashing points. The coordinates of the points are kept in
+ * parallel double arrays, and the edges of every point are kept together in
+ * shared arrays of neighbor ids and costs, ordered by point. A point is only
+ * hashed to turn it into its id, once per query. Searches keep their costs,
+ * parents and heap in primitive arrays, one set per thread, so one graph can
+ * answer queries from many threads at once. A PointGraph never changes once
+ * built.
+ */
+public class PointGraph {
+
+    /**
+     * Abstraction function:
+     * AF(this) = a graph whose vertices are points[0..n), point v at
+     * (xs[v], ys[v]), with an edge from v to neighbors[j] of cost costs[j]
+     * for every j in offsets[v]..offsets[v + 1]
+     *
+     * Representation invariant:
+     * points, xs, ys and offsets have n, n, n and n + 1 entries &&
+     * ids.get(points[v]) == v && xs[v] == points[v].getX() &&
+     * ys[v] == points[v].getY() && offsets is nondecreasing from 0 to
+     * neighbors.length && neighbors.length == costs.length &&
+     * every neighbor is in [0, n) && no cost is negative
+     */
+
+    private static final boolean CHECK_REP = false;
+
+    /**
+     * Id of no point: the parent of the start of a search, and the id of a
+     * point not in the graph.
+     */
+    public static final int NONE = -1;
+
+    private final Point[] points;
+    private final double[] xs;
+    private final double[] ys;
+    private final Map<Point, Integer> ids;
+    private final int[] offsets;
+    private final int[] neighbors;
+    private final double[] costs;
+    private final ThreadLocal<Search> searches;
+
+    /**
+     * @param graph The graph to number.
+     * @spec.requires graph != null && no edge cost is negative
+     * @spec.effects Constructs a graph of the same points and edges as graph is now,
+     * numbering the points in the order graph lists them
+     */
+    public PointGraph(Graph<Point, Double> graph) {
+        List<Point> labels = graph.getNodes();
+        int n = labels.size();
+        this.points = labels.toArray(new Point[0]);
+        this.xs = new double[n];
+        this.ys = new double[n];
+        this.ids = new HashMap<>();
+        for (int v = 0; v < n; v++) {
+            xs[v] = points[v].getX();
+            ys[v] = points[v].getY();
+            ids.put(points[v], v);
+        }
+        this.offsets = new int[n + 1];
+        for (int v = 0; v < n; v++) {
+            offsets[v + 1] = offsets[v] + graph.getNode(points[v]).getEdges().size();
+        }
+        this.neighbors = new int[offsets[n]];
+        this.costs = new double[offsets[n]];
+        for (int v = 0; v < n; v++) {
+            int j = offsets[v];
+            for (Node<Point, Double>.Edge edge : graph.getNode(points[v]).getEdges()) {
+                neighbors[j] = ids.get(edge.getChild().getLabel());
+                costs[j] = edge.getEdgeLabel();
+                j++;
+            }
+        }
+        this.searches = ThreadLocal.withInitial(() -> new Search(n));
+        checkRep();
+    }
+
+    /**
+     * @return The number of points in the graph.
+     */
+    public int size() {
+        return points.length;
+    }
+
+    /**
+     * @return The number of edges in the graph.
+     */
+    public int edgeCount() {
+        return neighbors.length;
+    }
+
+    /**
+     * @param point A point.
+     * @return The id of the point, or NONE if it is not in the graph.
+     */
+    public int id(Point point) {
+        Integer id = ids.get(point);
+        return id == null ? NONE : id;
+    }
+
+    /**
+     * @param id The id of a point.
+     * @return The point.
+     * @throws IllegalArgumentException if no point has the id.
+     */
+    public Point point(int id) {
+        checkId(id);
+        return points[id];
+    }
+
+    /**
+     * @return Every point of the graph, by id.
+     */
+    public List<Point> points() {
+        return Collections.unmodifiableList(Arrays.asList(points));
+    }
+
+    /**
+     * @return The bytes taken by the arrays of the graph, not counting the
+     * points themselves or the map from points to ids.
+     */
+    public long arrayBytes() {
+        return 4L * points.length + 8L * xs.length + 8L * ys.length + 4L * offsets.length
+                + 4L * neighbors.length + 8L * costs.length;
+    }
+
+    /**
+     * @return The largest scale for which scale times the straight line
+     * distance between the ends of every edge is at most the cost of the
+     * edge, so it can be used by aStar; 0 if there are no edges of positive
+     * length.
+     */
+    public double admissibleScale() {
+        double scale = Double.POSITIVE_INFINITY;
+        for (int v = 0; v < points.length; v++) {
+            for (int j = offsets[v]; j < offsets[v + 1]; j++) {
+                double length = distance(v, neighbors[j]);
+                if (length > 0) {
+                    scale = Math.min(scale, costs[j] / length);
+                }
+            }
+        }
+        return scale == Double.POSITIVE_INFINITY ? 0 : scale;
+    }
+
+    /**
+     * Finds the shortest path, by distance, between two points with
+     * Dijkstra's algorithm.
+     *
+     * @param start The id of the start point.
+     * @param dest The id of the destination point.
+     * @throws IllegalArgumentException if either id is not the id of a point.
+     * @return A path between start and dest, or null if none exists.
+     */
+    public Path<Point> dijkstra(int start, int dest) {
+        return search(start, dest, 0);
+    }
+
+    /**
+     * Finds the shortest path, by distance, between two points with A*,
+     * exploring points in order of their cost plus scale times the straight
+     * line distance from them to dest.
+     *
+     * @param start The id of the start point.
+     * @param dest The id of the destination point.
+     * @param scale The heuristic scale, at most admissibleScale().
+     * @throws IllegalArgumentException if either id is not the id of a point.
+     * @return A path between start and dest, or null if none exists.
+     */
+    public Path<Point> aStar(int start, int dest, double scale) {
+        return search(start, dest, scale);
+    }
+
+    /**
+     * @return A new Graph of the same points and edges, for the searches
+     * that work on any Graph.
+     */
+    public Graph<Point, Double> toGraph() {
+        Graph<Point, Double> graph = new Graph<>();
+        List<Node<Point, Double>> nodes = new ArrayList<>(points.length);
+        for (Point point : points) {
+            Node<Point, Double> node = new Node<>(point);
+            graph.addNode(node);
+            nodes.add(node);
+        }
+        for (int v = 0; v < points.length; v++) {
+            for (int j = offsets[v]; j < offsets[v + 1]; j++) {
+                graph.addEdge(nodes.get(v), nodes.get(neighbors[j]), costs[j]);
+            }
+        }
+        return graph;
+    }
+
+    /**
+     * @return The point of every id. The array is shared and must not be changed.
+     */
+    Point[] pointArray() {
+        return points;
+    }
+
+    /**
+     * @return Where each point's edges start in neighbors() and costs(), with
+     * one more entry for the end of the last point's. The array is shared and
+     * must not be changed.
+     */
+    int[] offsets() {
+        return offsets;
+    }
+
+    /**
+     * @return The point each edge leads to. The array is shared and must not be changed.
+     */
+    int[] neighbors() {
+        return neighbors;
+    }
+
+    /**
+     * @return The cost of each edge. The array is shared and must not be changed.
+     */
+    double[] costs() {
+        return costs;
+    }
+
+    /**
+     * @return The id of every point. The map is shared and must not be changed.
+     */
+    Map<Point, Integer> ids() {
+        return ids;
+    }
+
+    /**
+     * Runs Dijkstra's algorithm from start until every target is settled, or
+     * until every point start can reach is. The parents and steps of the points
+     * it settles are kept in the calling thread's search until the thread
+     * searches again.
+     *
+     * @param start The id of the point to search from.
+     * @param targets The ids of the points to settle.
+     * @throws IllegalArgumentException if start or a target is not the id of a point.
+     * @return The search, to follow back from the targets it settled.
+     */
+    Search settle(int start, int[] targets) {
+        checkId(start);
+        for (int target : targets) {
+            checkId(target);
+        }
+        return run(start, NONE, 0, targets);
+    }
+
+    /**
+     * Runs A* from start to dest, which is Dijkstra's algorithm when scale is 0
+     *
+     * @param start The id of the start point.
+     * @param dest The id of the destination point.
+     * @param scale The heuristic scale.
+     * @throws IllegalArgumentException if either id is not the id of a point.
+     * @return A path between start and dest, or null if none exists.
+     */
+    private Path<Point> search(int start, int dest, double scale) {
+        checkId(start);
+        checkId(dest);
+        Search search = run(start, dest, scale, new int[] {dest});
+        return search.settled(dest) ? search.pathTo(dest) : null;
+    }
+
+    /**
+     * Runs A* from start, which is Dijkstra's algorithm when scale is 0, until
+     * every target is settled or nothing more can be
+     *
+     * @param start The id of the start point.
+     * @param dest The id of the point the heuristic aims at, or NONE if scale is 0.
+     * @param scale The heuristic scale.
+     * @param targets The ids of the points to settle.
+     * @return The calling thread's search, holding the points settled.
+     */
+    private Search run(int start, int dest, double scale, int[] targets) {
+        Search search = searches.get();
+        search.begin();
+        int remaining = search.want(targets);
+        search.reach(start, NONE, 0, 0, scale == 0 ? 0 : scale * distance(start, dest));
+        while (remaining > 0 && !search.heap.isEmpty()) {
+            int v = search.heap.poll();
+            search.finished[v] = search.stamp;
+            if (search.wanted[v] == search.stamp) {
+                remaining--;
+                if (remaining == 0) {
+                    break;
+                }
+            }
+            double d = search.distance[v];
+            for (int j = offsets[v]; j < offsets[v + 1]; j++) {
+                int w = neighbors[j];
+                double cost = d + costs[j];
+                if (search.finished[w] != search.stamp
+                        && (search.reached[w] != search.stamp || cost < search.distance[w])) {
+                    search.reach(w, v, costs[j], cost, scale == 0 ? cost : cost + scale * distance(w, dest));
+                }
+            }
+        }
+        return search;
+    }
+
+    /**
+     * @param v The id of a point.
+     * @param w The id of another point.
+     * @return The straight line distance between the points.
+     */
+    private double distance(int v, int w) {
+        double dx = xs[v] - xs[w];
+        double dy = ys[v] - ys[w];
+        return Math.sqrt(dx * dx + dy * dy);
+    }
+
+    /**
+     * @param id An id.
+     * @throws IllegalArgumentException if no point has the id.
+     */
+    private void checkId(int id) {
+        if (id < 0 || id >= points.length) {
+            throw new IllegalArgumentException("no point has id " + id);
+        }
+    }
+
+    /**
+     * Throws an exception if the representation invariant is violated
+     */
+    private void checkRep() {
+        int n = points.length;
+        assert xs.length == n && ys.length == n && offsets.length == n + 1 : "one entry per point";
+        assert neighbors.length == costs.length && offsets[n] == neighbors.length : "one entry per edge";
+
+        if (CHECK_REP) {
+            for (int v = 0; v < n; v++) {
+                assert ids.get(points[v]) == v;
+                assert xs[v] == points[v].getX() && ys[v] == points[v].getY();
+                assert offsets[v] <= offsets[v + 1];
+                for (int j = offsets[v]; j < offsets[v + 1]; j++) {
+                    assert neighbors[j] >= 0 && neighbors[j] < n && costs[j] >= 0;
+                }
+            }
+        }
+    }
+
+    /**
+     * The scratch space of one thread's searches, and what the last of them found
+     */
+    class Search {
+        private final IndexedHeap heap;
+        private final double[] distance;
+        private final int[] parent;
+        private final double[] step;
+        // reached[v] == stamp iff v has a distance in the current search,
+        // finished[v] == stamp iff that distance is final, and
+        // wanted[v] == stamp iff the search stops once v and the other targets are final
+        private final int[] reached;
+        private final int[] finished;
+        private final int[] wanted;
+        private final int[] trail;
+        private int stamp;
+
+        /**
+         * @param n The number of points.
+         */
+        private Search(int n) {
+            this.heap = new IndexedHeap(n);
+            this.distance = new double[n];
+            this.parent = new int[n];
+            this.step = new double[n];
+            this.reached = new int[n];
+            this.finished = new int[n];
+            this.wanted = new int[n];
+            this.trail = new int[n];
+            this.stamp = 0;
+        }
+
+        /**
+         * Starts a new search, with no point reached
+         */
+        private void begin() {
+            stamp++;
+            if (stamp == 0) {
+                // the stamp wrapped around, so old stamps could match it again
+                Arrays.fill(reached, 0);
+                Arrays.fill(finished, 0);
+                Arrays.fill(wanted, 0);
+                stamp = 1;
+            }
+            heap.clear();
+        }
+
+        /**
+         * Marks the targets of the current search
+         *
+         * @param targets The ids of the points to settle.
+         * @return The number of different targets.
+         */
+        private int want(int[] targets) {
+            int count = 0;
+            for (int target : targets) {
+                if (wanted[target] != stamp) {
+                    wanted[target] = stamp;
+                    count++;
+                }
+            }
+            return count;
+        }
+
+        /**
+         * @param v The id of a point.
+         * @return True iff the last search settled the point.
+         */
+        boolean settled(int v) {
+            return finished[v] == stamp;
+        }
+
+        /**
+         * @param v The id of a point the last search settled.
+         * @return The point before it on its shortest path, or NONE if the search started at it.
+         */
+        int parent(int v) {
+            return parent[v];
+        }
+
+        /**
+         * @param v The id of a point the last search settled.
+         * @return The cost of the edge from its parent to it.
+         */
+        double step(int v) {
+            return step[v];
+        }
+
+        /**
+         * Records a cheaper way to reach a point, and queues it
+         *
+         * @param v The point reached.
+         * @param from The point it is reached from, or NONE if the search starts at v.
+         * @param edgeCost The cost of the edge from from to v.
+         * @param cost The cost of reaching v.
+         * @param priority The priority to queue v with.
+         */
+        private void reach(int v, int from, double edgeCost, double cost, double priority) {
+            reached[v] = stamp;
+            distance[v] = cost;
+            parent[v] = from;
+            step[v] = edgeCost;
+            heap.offer(v, priority);
+        }
+
+        /**
+         * @param end The last point of the path.
+         * @return The path from the start of the search to end, following parents.
+         */
+        private Path<Point> pathTo(int end) {
+            int length = 0;
+            for (int v = end; v != NONE; v = parent[v]) {
+                trail[length] = v;
+                length++;
+            }
+            Path<Point> path = new Path<>(points[trail[length - 1]]);
+            for (int i = length - 2; i >= 0; i--) {
+                path = path.extend(points[trail[i]], step[trail[i]]);
+            }
+            return path;
+        }
+    }
+}
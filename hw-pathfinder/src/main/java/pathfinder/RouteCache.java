@@ -0,0 +1,222 @@
+package pathfinder;
+
+import pathfinder.datastructures.Path;
+import pathfinder.datastructures.Point;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+
+/**
+ * RouteCache remembers the routes most recently found between buildings, up
+ * to a fixed number of them, and forgets the least recently used route first
+ * when it is full. On a map where every path can be walked both ways, the
+ * route from B to A can be answered by reversing a cached route from A to B,
+ * which equals the route a search from B to A finds, cost included, whenever
+ * that search takes the same segments.
+ * The cache is safe to use from many threads at once: lookups and updates
+ * hold its lock only briefly, and routes are searched for outside it, so a
+ * slow search never holds up other threads. Two threads missing the same
+ * route at once may both search for it.
+ */
+public class RouteCache {
+
+    /**
+     * Abstraction function:
+     * AF(this) = a cache of the routes routes.get(k) between k.start and k.end,
+     * least recently used first, holding at most capacity of them; the counters
+     * count the lookups answered from the cache, from a reversed route, and by
+     * searching, and the routes forgotten to make room
+     *
+     * Representation invariant:
+     * capacity > 0 && routes != null && routes.size() <= capacity
+     */
+
+    private final int capacity;
+    private final boolean reuseReverse;
+    private final Map<Key, Path<Point>> routes;
+    private final AtomicLong hits;
+    private final AtomicLong reverseHits;
+    private final AtomicLong misses;
+    private final AtomicLong evictions;
+
+    /**
+     * @param capacity The most routes to remember.
+     * @param reuseReverse True to answer a route by reversing the route the
+     *                     other way, which is right only if every path on the
+     *                     map can be walked both ways at the same cost.
+     * @throws IllegalArgumentException if capacity is not positive.
+     * @spec.effects Constructs an empty cache
+     */
+    public RouteCache(int capacity, boolean reuseReverse) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        this.capacity = capacity;
+        this.reuseReverse = reuseReverse;
+        this.routes = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Path<Point>> eldest) {
+                if (size() > RouteCache.this.capacity) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+        this.hits = new AtomicLong();
+        this.reverseHits = new AtomicLong();
+        this.misses = new AtomicLong();
+        this.evictions = new AtomicLong();
+        checkRep();
+    }
+
+    /**
+     * Looks up the route between two buildings, finding it with search if
+     * it is not in the cache
+     *
+     * @param startShortName The short name of the building at the beginning of the route.
+     * @param endShortName The short name of the building at the end of the route.
+     * @param search Finds the route between two buildings, or null if there is none.
+     * @return The route between the buildings, or null if none exists.
+     */
+    public Path<Point> get(String startShortName, String endShortName,
+                           BiFunction<String, String, Path<Point>> search) {
+        Key key = new Key(startShortName, endShortName);
+        Key reverseKey = new Key(endShortName, startShortName);
+        Path<Point> reverse = null;
+        synchronized (routes) {
+            if (routes.containsKey(key)) {
+                hits.incrementAndGet();
+                return routes.get(key);
+            }
+            if (reuseReverse && routes.containsKey(reverseKey)) {
+                reverse = routes.get(reverseKey);
+                if (reverse == null) {
+                    // no route one way means no route the other
+                    reverseHits.incrementAndGet();
+                    return null;
+                }
+            }
+        }
+        Path<Point> route;
+        if (reverse != null) {
+            reverseHits.incrementAndGet();
+            route = reverse(reverse);
+        } else {
+            misses.incrementAndGet();
+            route = search.apply(startShortName, endShortName);
+        }
+        synchronized (routes) {
+            routes.put(key, route);
+        }
+        return route;
+    }
+
+    /**
+     * @return The number of routes in the cache.
+     */
+    public int size() {
+        synchronized (routes) {
+            return routes.size();
+        }
+    }
+
+    /**
+     * @return The most routes the cache remembers.
+     */
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * @return The number of lookups answered by a route in the cache.
+     */
+    public long hits() {
+        return hits.get();
+    }
+
+    /**
+     * @return The number of lookups answered by reversing a route in the cache.
+     */
+    public long reverseHits() {
+        return reverseHits.get();
+    }
+
+    /**
+     * @return The number of lookups that had to search for the route.
+     */
+    public long misses() {
+        return misses.get();
+    }
+
+    /**
+     * @return The number of routes forgotten to make room for newer ones.
+     */
+    public long evictions() {
+        return evictions.get();
+    }
+
+    /**
+     * Builds the reversed path the way a search builds a path, adding the segment
+     * costs from its new start, so its cost is exactly the cost a search for the
+     * same route in that direction returns. This can differ in the last bit from
+     * path.getCost(), which added them in the other order.
+     *
+     * @param path A path.
+     * @return The same path walked from its end to its start.
+     */
+    private static Path<Point> reverse(Path<Point> path) {
+        List<Path<Point>.Segment> segments = new ArrayList<>();
+        for (Path<Point>.Segment segment : path) {
+            segments.add(segment);
+        }
+        Path<Point> reversed = new Path<>(path.getEnd());
+        for (int i = segments.size() - 1; i >= 0; i--) {
+            reversed = reversed.extend(segments.get(i).getStart(), segments.get(i).getCost());
+        }
+        return reversed;
+    }
+
+    /**
+     * Throws an exception if the representation invariant is violated
+     */
+    private void checkRep() {
+        assert capacity > 0 : "capacity must be positive";
+        assert routes != null : "routes cannot be null";
+    }
+
+    /**
+     * The ordered pair of buildings a route is cached under
+     */
+    private static final class Key {
+        private final String start;
+        private final String end;
+
+        /**
+         * @param start The short name of the building the route starts at.
+         * @param end The short name of the building the route ends at.
+         */
+        private Key(String start, String end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            return start.equals(other.start) && end.equals(other.end);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * start.hashCode() + end.hashCode();
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package pathfinder;
+
+import pathfinder.datastructures.Path;
+import pathfinder.datastructures.Point;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * RouteTable holds the shortest route between every ordered pair of
+ * buildings, so a map with only a few dozen buildings can answer every route
+ * query by looking it up. The table is built by one single source Dijkstra
+ * search per building, run in parallel, and the routes are stored as runs of
+ * point ids in one shared array, with the cost of each step in a parallel
+ * array, rather than as Path objects. A lookup turns its run back into a
+ * Path. A RouteTable never changes once built and is safe to share between
+ * threads.
+ */
+public class RouteTable {
+
+    /**
+     * Abstraction function:
+     * AF(this) = a table in which the route from building buildings[a] to
+     * building buildings[b] is the points points[route[i]] for i in
+     * routeOffsets[p]..routeOffsets[p + 1], p = a * buildings.length + b,
+     * where every step after the first costs steps[i]; an empty run means
+     * there is no route
+     *
+     * Representation invariant:
+     * buildingIds.get(buildings[a]) == a && routeOffsets.length ==
+     * buildings.length * buildings.length + 1 && routeOffsets is
+     * nondecreasing && route.length == steps.length == routeOffsets[last]
+     */
+
+    private static final boolean CHECK_REP = false;
+
+    private final Point[] points;
+    private final String[] buildings;
+    private final Map<String, Integer> buildingIds;
+    private final int[] routeOffsets;
+    private final int[] route;
+    private final double[] steps;
+
+    /**
+     * Finds the route between every pair of buildings
+     *
+     * @param graph The graph of campus points.
+     * @param locations The point of every building, by short name.
+     * @spec.requires graph != null && locations != null && every location is in graph
+     * @return The routes between the buildings in the graph.
+     */
+    public static RouteTable build(PointGraph graph, Map<String, Point> locations) {
+        String[] buildings = locations.keySet().toArray(new String[0]);
+        Arrays.sort(buildings);
+        int count = buildings.length;
+        int[] targets = new int[count];
+        for (int b = 0; b < count; b++) {
+            targets[b] = graph.id(locations.get(buildings[b]));
+        }
+
+        // routes from each building, found in parallel and joined in building order
+        int[][][] found = new int[count][count][];
+        double[][][] foundSteps = new double[count][count][];
+        IntStream.range(0, count).parallel().forEach(a ->
+                routesFrom(graph, targets[a], targets, found[a], foundSteps[a]));
+
+        int[] routeOffsets = new int[count * count + 1];
+        for (int a = 0; a < count; a++) {
+            for (int b = 0; b < count; b++) {
+                int p = a * count + b;
+                routeOffsets[p + 1] = routeOffsets[p] + found[a][b].length;
+            }
+        }
+        int[] route = new int[routeOffsets[count * count]];
+        double[] steps = new double[route.length];
+        for (int a = 0; a < count; a++) {
+            for (int b = 0; b < count; b++) {
+                int start = routeOffsets[a * count + b];
+                System.arraycopy(found[a][b], 0, route, start, found[a][b].length);
+                System.arraycopy(foundSteps[a][b], 0, steps, start, foundSteps[a][b].length);
+            }
+        }
+        return new RouteTable(graph.pointArray(), buildings, routeOffsets, route, steps);
+    }
+
+    /**
+     * @param points The campus points, by id.
+     * @param buildings The short names of the buildings, by building id.
+     * @param routeOffsets Where the route of each pair of buildings starts in route.
+     * @param route The point ids along every route.
+     * @param steps The cost of reaching each point of a route from the one before.
+     * @spec.effects Constructs a table over the given routes
+     */
+    private RouteTable(Point[] points, String[] buildings, int[] routeOffsets, int[] route, double[] steps) {
+        this.points = points;
+        this.buildings = buildings;
+        this.buildingIds = new HashMap<>();
+        for (int b = 0; b < buildings.length; b++) {
+            buildingIds.put(buildings[b], b);
+        }
+        this.routeOffsets = routeOffsets;
+        this.route = route;
+        this.steps = steps;
+        checkRep();
+    }
+
+    /**
+     * @param startShortName The short name of the building at the beginning of the path.
+     * @param endShortName The short name of the building at the end of the path.
+     * @throws IllegalArgumentException if either is not a building in the table.
+     * @return The shortest path between the buildings, or null if none exists.
+     */
+    public Path<Point> findPath(String startShortName, String endShortName) {
+        Integer a = buildingIds.get(startShortName);
+        Integer b = buildingIds.get(endShortName);
+        if (a == null || b == null) {
+            throw new IllegalArgumentException("not a building: " + (a == null ? startShortName : endShortName));
+        }
+        int p = a * buildings.length + b;
+        int start = routeOffsets[p];
+        int end = routeOffsets[p + 1];
+        if (start == end) {
+            return null;
+        }
+        Path<Point> path = new Path<>(points[route[start]]);
+        for (int i = start + 1; i < end; i++) {
+            path = path.extend(points[route[i]], steps[i]);
+        }
+        return path;
+    }
+
+    /**
+     * @return The number of buildings in the table.
+     */
+    public int size() {
+        return buildings.length;
+    }
+
+    /**
+     * @return The number of steps stored over all routes.
+     */
+    public int stepCount() {
+        return route.length;
+    }
+
+    /**
+     * @return The bytes taken by the arrays of the table, not counting the
+     * points and names it shares with the map.
+     */
+    public long arrayBytes() {
+        return 4L * routeOffsets.length + 4L * route.length + 8L * steps.length + 4L * points.length;
+    }
+
+    /**
+     * Finds the shortest route from one point to every building
+     *
+     * @param graph The graph of campus points.
+     * @param source The id of the point to search from.
+     * @param targets The ids of the points of every building.
+     * @param routes Filled in with the point ids along the route from source to
+     *               each target, empty if there is none.
+     * @param steps Filled in with the cost of reaching each point of each route
+     *              from the one before, 0 for the first.
+     * @spec.modifies routes, steps
+     */
+    private static void routesFrom(PointGraph graph, int source, int[] targets, int[][] routes, double[][] steps) {
+        PointGraph.Search search = graph.settle(source, targets);
+        for (int b = 0; b < targets.length; b++) {
+            if (!search.settled(targets[b])) {
+                routes[b] = new int[0];
+                steps[b] = new double[0];
+                continue;
+            }
+            int length = 0;
+            for (int v = targets[b]; v != PointGraph.NONE; v = search.parent(v)) {
+                length++;
+            }
+            routes[b] = new int[length];
+            steps[b] = new double[length];
+            int i = length - 1;
+            for (int v = targets[b]; v != PointGraph.NONE; v = search.parent(v)) {
+                routes[b][i] = v;
+                steps[b][i] = i == 0 ? 0 : search.step(v);
+                i--;
+            }
+        }
+    }
+
+    /**
+     * Throws an exception if the representation invariant is violated
+     */
+    private void checkRep() {
+        assert points != null && buildings != null && buildingIds != null : "fields cannot be null";
+        assert routeOffsets.length == buildings.length * buildings.length + 1 : "one route per pair";
+        assert route.length == steps.length && route.length == routeOffsets[routeOffsets.length - 1];
+
+        if (CHECK_REP) {
+            for (int p = 0; p + 1 < routeOffsets.length; p++) {
+                assert routeOffsets[p] <= routeOffsets[p + 1] : "routes are in order";
+            }
+            for (int b = 0; b < buildings.length; b++) {
+                assert buildingIds.get(buildings[b]) == b;
+            }
+        }
+    }
+}
@@ -0,0 +1,254 @@
+package pathfinder;
+
+import graph.Graph;
+import graph.Node;
+import pathfinder.datastructures.Path;
+import pathfinder.datastructures.Point;
+
+import com.sun.management.ThreadMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.BiFunction;
+
+/**
+ * This class, RoutingBenchmark, routes between every ordered pair of campus
+ * buildings with each search algorithm, checks that they all find the same
+ * paths, and reports how many points each settles and how long each takes.
+ */
+public class RoutingBenchmark {
+
+    /**
+     * This class, RoutingBenchmark, is not an ADT.
+     */
+
+    /**
+     * Number of timed passes over every pair per algorithm, the fastest is reported.
+     */
+    private static final int RUNS = 5;
+
+    /**
+     * Number of requests replayed against each route cache.
+     */
+    private static final int REQUESTS = 20000;
+
+    /**
+     * Sizes of the route caches tried.
+     */
+    private static final int[] CACHE_CAPACITIES = {64, 256, 1024};
+
+    /**
+     * Seed of the replayed requests.
+     */
+    private static final long SEED = 331;
+
+    /**
+     * Counts the bytes each thread allocates.
+     */
+    private static final ThreadMXBean THREADS = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    /**
+     * The main method
+     *
+     * @param args the arguments that are passed in when the class runs
+     */
+    public static void main(String[] args) {
+        CampusMap map = new CampusMap();
+        List<String> buildings = new ArrayList<>(map.buildingNames().keySet());
+        System.out.println("Buildings: " + buildings.size() + ", pairs: " + buildings.size() * buildings.size());
+
+        // every engine asks the graph for a point's node exactly once, when settling it
+        Graph<Point, Double> graph = map.getGraph().toGraph();
+        CountingGraph counting = new CountingGraph(graph);
+        double scale = AStar.admissibleScale(graph);
+        System.out.println(String.format("A* heuristic scale: %.4f", scale));
+        long dijkstraSettled = 0;
+        long aStarSettled = 0;
+        for (String start : buildings) {
+            for (String end : buildings) {
+                counting.settled = 0;
+                Dijkstra.dijkstraAlgorithm(map.location(start), map.location(end), counting);
+                dijkstraSettled += counting.settled;
+                counting.settled = 0;
+                AStar.aStarAlgorithm(map.location(start), map.location(end), counting, scale);
+                aStarSettled += counting.settled;
+            }
+        }
+        long pairs = (long) buildings.size() * buildings.size();
+        System.out.println(String.format("Points settled per query: Dijkstra %.1f, A* %.1f",
+                (double) dijkstraSettled / pairs, (double) aStarSettled / pairs));
+
+        long contractStart = System.nanoTime();
+        ContractionHierarchy<Point> hierarchy = ContractionHierarchy.build(map.getGraph());
+        long elapsed = System.nanoTime() - contractStart;
+        System.out.println(String.format("Contraction hierarchy of %d points: %d ms, %d shortcuts",
+                hierarchy.size(), elapsed / 1000000, hierarchy.shortcutCount()));
+
+        int mismatches = 0;
+        for (String start : buildings) {
+            for (String end : buildings) {
+                Path<Point> expected = map.findShortestPath(start, end, SearchAlgorithm.DIJKSTRA);
+                for (SearchAlgorithm algorithm : SearchAlgorithm.values()) {
+                    if (!expected.equals(map.findShortestPath(start, end, algorithm))) {
+                        mismatches++;
+                    }
+                }
+            }
+        }
+        System.out.println("Paths that differ from Dijkstra: " + mismatches);
+
+        // the same searches over the hashed Graph the map used to keep
+        mismatches = 0;
+        for (String start : buildings) {
+            for (String end : buildings) {
+                Path<Point> expected = map.findShortestPath(start, end, SearchAlgorithm.DIJKSTRA);
+                if (!expected.equals(Dijkstra.dijkstraAlgorithm(map.location(start), map.location(end), graph))
+                        || !expected.equals(AStar.aStarAlgorithm(map.location(start), map.location(end), graph, scale))) {
+                    mismatches++;
+                }
+            }
+        }
+        System.out.println("Graph paths that differ from PointGraph: " + mismatches);
+        time("Dijkstra over Graph", buildings,
+                (from, to) -> Dijkstra.dijkstraAlgorithm(map.location(from), map.location(to), graph));
+        time("A* over Graph", buildings,
+                (from, to) -> AStar.aStarAlgorithm(map.location(from), map.location(to), graph, scale));
+
+        for (SearchAlgorithm algorithm : SearchAlgorithm.values()) {
+            time(algorithm.toString(), buildings, (from, to) -> map.findShortestPath(from, to, algorithm));
+        }
+
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        long heap = runtime.totalMemory() - runtime.freeMemory();
+        Graph<Point, Double> hashed = map.getGraph().toGraph();
+        System.gc();
+        long hashedBytes = runtime.totalMemory() - runtime.freeMemory() - heap;
+        heap += hashedBytes;
+        PointGraph numbered = new PointGraph(hashed);
+        System.gc();
+        long numberedBytes = runtime.totalMemory() - runtime.freeMemory() - heap;
+        System.out.println(String.format("Campus graph of %d points and %d edges: Graph %d KB of heap, "
+                        + "PointGraph %d KB of heap (%d KB of arrays)",
+                hashed.getNodes().size(), numbered.edgeCount(), hashedBytes / 1024, numberedBytes / 1024,
+                numbered.arrayBytes() / 1024));
+
+        System.gc();
+        heap = runtime.totalMemory() - runtime.freeMemory();
+        long tableStart = System.nanoTime();
+        RouteTable table = RouteTable.build(map.getGraph(), map.locations());
+        elapsed = System.nanoTime() - tableStart;
+        System.gc();
+        heap = runtime.totalMemory() - runtime.freeMemory() - heap;
+        System.out.println(String.format("Route table of %d buildings on %d processors: %d ms, %d steps, "
+                        + "%d KB of arrays, %d KB of heap",
+                table.size(), runtime.availableProcessors(), elapsed / 1000000, table.stepCount(),
+                table.arrayBytes() / 1024, heap / 1024));
+        mismatches = 0;
+        for (String start : buildings) {
+            for (String end : buildings) {
+                if (!map.findShortestPath(start, end, SearchAlgorithm.DIJKSTRA).equals(table.findPath(start, end))) {
+                    mismatches++;
+                }
+            }
+        }
+        System.out.println("Table routes that differ from Dijkstra: " + mismatches);
+        time("Route table lookup", buildings, table::findPath);
+
+        // requests for a few popular routes, the rest rarely, as a route server sees them
+        Random random = new Random(SEED);
+        String[][] requests = new String[REQUESTS][];
+        // the pair of popularity rank r is requested in proportion to 1 / r
+        double[] cumulative = new double[(int) pairs];
+        double sum = 0;
+        for (int rank = 0; rank < pairs; rank++) {
+            sum += 1.0 / (rank + 1);
+            cumulative[rank] = sum;
+        }
+        for (int i = 0; i < REQUESTS; i++) {
+            int rank = Arrays.binarySearch(cumulative, random.nextDouble() * sum);
+            rank = rank < 0 ? -rank - 1 : rank;
+            // spread the popular pairs over the map
+            int pair = (int) (rank * 2654435761L % pairs);
+            requests[i] = new String[] {buildings.get(pair / buildings.size()), buildings.get(pair % buildings.size())};
+        }
+        for (int capacity : CACHE_CAPACITIES) {
+            CampusMap cached = new CampusMap(false, capacity);
+            long cacheStart = System.nanoTime();
+            for (String[] request : requests) {
+                cached.findShortestPath(request[0], request[1]);
+            }
+            elapsed = System.nanoTime() - cacheStart;
+            RouteCache cache = cached.getRouteCache();
+            System.out.println(String.format("Route cache of %d: %.1f%% hits, %.1f%% reversed, %d misses, "
+                            + "%d evictions, %.1f us per request",
+                    capacity, 100.0 * cache.hits() / REQUESTS, 100.0 * cache.reverseHits() / REQUESTS,
+                    cache.misses(), cache.evictions(), elapsed / 1000.0 / REQUESTS));
+        }
+    }
+
+    /**
+     * Times routing between every ordered pair of buildings and prints the
+     * fastest of RUNS passes
+     *
+     * @param name The name to print.
+     * @param buildings The short names of the buildings.
+     * @param router Finds the route between two buildings.
+     */
+    private static void time(String name, List<String> buildings, BiFunction<String, String, Path<Point>> router) {
+        long pairs = (long) buildings.size() * buildings.size();
+        long best = Long.MAX_VALUE;
+        long allocated = Long.MAX_VALUE;
+        for (int run = 0; run < RUNS; run++) {
+            double total = 0;
+            long bytes = THREADS.getThreadAllocatedBytes(Thread.currentThread().getId());
+            long start = System.nanoTime();
+            for (String from : buildings) {
+                for (String to : buildings) {
+                    total += router.apply(from, to).getCost();
+                }
+            }
+            best = Math.min(best, System.nanoTime() - start);
+            allocated = Math.min(allocated, THREADS.getThreadAllocatedBytes(Thread.currentThread().getId()) - bytes);
+            if (total < 0) {
+                System.out.println("Negative total cost");
+            }
+        }
+        System.out.println(String.format("%s: %d ms for all pairs, %.1f us and %d bytes allocated per query",
+                name, best / 1000000, best / 1000.0 / pairs, allocated / pairs));
+    }
+
+    /**
+     * A view of a graph that counts how many nodes are looked up in it
+     */
+    private static class CountingGraph extends Graph<Point, Double> {
+        private long settled;
+
+        /**
+         * @param graph The graph to count lookups in.
+         */
+        private CountingGraph(Graph<Point, Double> graph) {
+            super(nodesOf(graph));
+        }
+
+        @Override
+        public Node<Point, Double> getNode(Point nodeLabel) {
+            settled++;
+            return super.getNode(nodeLabel);
+        }
+
+        /**
+         * @param graph The graph.
+         * @return Every node of the graph.
+         */
+        private static List<Node<Point, Double>> nodesOf(Graph<Point, Double> graph) {
+            List<Node<Point, Double>> nodes = new ArrayList<>();
+            for (Point point : graph.getNodes()) {
+                nodes.add(graph.getNode(point));
+            }
+            return nodes;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package pathfinder;
+
+/**
+ * The shortest path searches a campus map can answer routes with. Every
+ * algorithm returns the same optimal path; they differ only in how much of
+ * the map they explore to find it.
+ */
+public enum SearchAlgorithm {
+
+    /**
+     * Dijkstra's algorithm, exploring outward from the start by distance.
+     */
+    DIJKSTRA,
+
+    /**
+     * A* search, exploring toward the destination first, guided by the
+     * scaled straight line distance to it.
+     */
+    A_STAR,
+
+    /**
+     * A search up a contraction hierarchy from both ends, which contracts the
+     * map the first time it is used and settles only a few dozen points per
+     * query after that.
+     */
+    CONTRACTION_HIERARCHY
+}
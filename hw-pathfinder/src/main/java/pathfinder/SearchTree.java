@@ -0,0 +1,183 @@
+package pathfinder;
+
+import pathfinder.datastructures.IndexedHeap;
+import pathfinder.datastructures.Path;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * SearchTree holds the state of one shortest path search over a graph whose
+ * vertices have no ids of their own. Every vertex reached gets the next id
+ * and a label with the cheapest cost found to it so far and the label it was
+ * reached from. Vertices waiting to be settled are kept in an IndexedHeap by
+ * id, so when a cheaper way to one is found its priority is lowered in place
+ * instead of queueing it again, and the path is built once, by following
+ * parents back from the destination.
+ */
+class SearchTree<P> {
+
+    /**
+     * Abstraction function:
+     * AF(this) = a search in which labels.get(v) is the label of every vertex
+     * v reached so far, byId.get(i) is the label with id i, and the unfinished
+     * labels wait in active by id
+     *
+     * Representation invariant:
+     * labels.size() == byId.size() && byId.get(i).id == i &&
+     * active contains exactly the ids of the unfinished labels
+     */
+
+    /**
+     * Ids the heap has room for before growing, most searches stop well short
+     * of the whole campus.
+     */
+    private static final int INITIAL_CAPACITY = 256;
+
+    private final Map<P, Label<P>> labels;
+    private final List<Label<P>> byId;
+    private final IndexedHeap active;
+
+    /**
+     * @param start The vertex the search starts from.
+     * @param priority The priority of the start vertex.
+     * @spec.effects Constructs a search that has reached only start
+     */
+    SearchTree(P start, double priority) {
+        this.labels = new HashMap<>();
+        this.byId = new ArrayList<>();
+        this.active = new IndexedHeap(INITIAL_CAPACITY);
+        Label<P> label = new Label<>(start, 0, null, 0, 0);
+        labels.put(start, label);
+        byId.add(label);
+        active.insert(label.id, priority);
+        checkRep();
+    }
+
+    /**
+     * @return True iff no reached vertex is waiting to be settled.
+     */
+    boolean isEmpty() {
+        return active.isEmpty();
+    }
+
+    /**
+     * Settles the waiting vertex of least priority, whose cost is then final
+     *
+     * @spec.requires !isEmpty()
+     * @return The label of the vertex settled.
+     */
+    Label<P> settle() {
+        Label<P> label = byId.get(active.poll());
+        label.finished = true;
+        return label;
+    }
+
+    /**
+     * Records that vertex can be reached from parent by an edge of the given
+     * cost, if that is cheaper than any way found before
+     *
+     * @param parent The label of a settled vertex.
+     * @param vertex The vertex at the other end of the edge.
+     * @param edgeCost The cost of the edge.
+     * @return The label of vertex if it is now cheaper and must be queued
+     * with its new priority, or null otherwise.
+     */
+    Label<P> relax(Label<P> parent, P vertex, double edgeCost) {
+        double cost = parent.cost + edgeCost;
+        Label<P> label = labels.get(vertex);
+        if (label == null) {
+            label = new Label<>(vertex, byId.size(), parent, edgeCost, cost);
+            labels.put(vertex, label);
+            byId.add(label);
+            return label;
+        }
+        if (label.finished || cost >= label.cost) {
+            return null;
+        }
+        label.parent = parent;
+        label.edgeCost = edgeCost;
+        label.cost = cost;
+        return label;
+    }
+
+    /**
+     * Queues a label returned by relax, or lowers its priority if it is already waiting
+     *
+     * @param label The label.
+     * @param priority Its priority.
+     */
+    void queue(Label<P> label, double priority) {
+        active.offer(label.id, priority);
+    }
+
+    /**
+     * @param end The label of the last vertex of the path.
+     * @return The path from the start of the search to end, following parents.
+     */
+    Path<P> pathTo(Label<P> end) {
+        List<Label<P>> steps = new ArrayList<>();
+        Label<P> first = end;
+        while (first.parent != null) {
+            steps.add(first);
+            first = first.parent;
+        }
+        Path<P> path = new Path<>(first.vertex);
+        for (int i = steps.size() - 1; i >= 0; i--) {
+            path = path.extend(steps.get(i).vertex, steps.get(i).edgeCost);
+        }
+        return path;
+    }
+
+    /**
+     * Throws an exception if the representation invariant is violated
+     */
+    private void checkRep() {
+        assert labels != null && byId != null && active != null : "fields cannot be null";
+        assert labels.size() == byId.size() : "every label has an id";
+    }
+
+    /**
+     * The cheapest way found so far to reach a vertex
+     */
+    static class Label<P> {
+        private final P vertex;
+        private final int id;
+        private Label<P> parent;
+        private double edgeCost;
+        private double cost;
+        private boolean finished;
+
+        /**
+         * @param vertex The vertex.
+         * @param id The id of the vertex in this search.
+         * @param parent The label of the vertex it is reached from, or null for the start.
+         * @param edgeCost The cost of the edge from parent.
+         * @param cost The cost of the path to vertex.
+         */
+        private Label(P vertex, int id, Label<P> parent, double edgeCost, double cost) {
+            this.vertex = vertex;
+            this.id = id;
+            this.parent = parent;
+            this.edgeCost = edgeCost;
+            this.cost = cost;
+            this.finished = false;
+        }
+
+        /**
+         * @return The vertex.
+         */
+        P vertex() {
+            return vertex;
+        }
+
+        /**
+         * @return The cost of the cheapest path to the vertex found so far.
+         */
+        double cost() {
+            return cost;
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package pathfinder;
+
+import pathfinder.datastructures.Path;
+import pathfinder.datastructures.Point;
+import pathfinder.datastructures.PointIndex;
+
+import com.sun.management.ThreadMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * This class, SpatialBenchmark, times finding the campus point nearest to
+ * random locations on the map with a PointIndex and with a scan over every
+ * point, and checks that both find points at the same distance. It then
+ * times routing between random locations, each snapped onto the nearest
+ * campus path.
+ */
+public class SpatialBenchmark {
+
+    /**
+     * This class, SpatialBenchmark, is not an ADT.
+     */
+
+    /**
+     * Number of random locations looked up per run.
+     */
+    private static final int QUERIES = 100000;
+
+    /**
+     * Number of routes between random locations timed per run.
+     */
+    private static final int ROUTES = 5000;
+
+    /**
+     * Number of timed runs per lookup, the fastest is reported.
+     */
+    private static final int RUNS = 5;
+
+    /**
+     * Seed of the random locations.
+     */
+    private static final long SEED = 331;
+
+    /**
+     * Counts the bytes each thread allocates.
+     */
+    private static final ThreadMXBean THREADS = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    /**
+     * The main method
+     *
+     * @param args the arguments that are passed in when the class runs
+     */
+    public static void main(String[] args) {
+        CampusMap map = new CampusMap();
+        List<Point> points = map.getGraph().points();
+        double minX = Double.POSITIVE_INFINITY;
+        double minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY;
+        double maxY = Double.NEGATIVE_INFINITY;
+        for (Point point : points) {
+            minX = Math.min(minX, point.getX());
+            minY = Math.min(minY, point.getY());
+            maxX = Math.max(maxX, point.getX());
+            maxY = Math.max(maxY, point.getY());
+        }
+        Random random = new Random(SEED);
+        Point[] targets = new Point[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            targets[i] = new Point(minX + random.nextDouble() * (maxX - minX),
+                    minY + random.nextDouble() * (maxY - minY));
+        }
+
+        long buildStart = System.nanoTime();
+        PointIndex index = new PointIndex(points);
+        long elapsed = System.nanoTime() - buildStart;
+        System.out.println(String.format("Index of %d points: %.2f ms", index.size(), elapsed / 1e6));
+
+        int mismatches = 0;
+        for (Point target : targets) {
+            if (distance(index.nearest(target), target) != distance(scan(points, target), target)) {
+                mismatches++;
+            }
+        }
+        System.out.println("Nearest points that differ from a scan: " + mismatches);
+
+        long best = Long.MAX_VALUE;
+        double checksum = 0;
+        for (int run = 0; run < RUNS; run++) {
+            long start = System.nanoTime();
+            checksum = 0;
+            for (Point target : targets) {
+                checksum += index.nearest(target).getX();
+            }
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        System.out.println(String.format("Index nearest: %.2f us per query (checksum %.0f)",
+                best / 1e3 / QUERIES, checksum));
+
+        best = Long.MAX_VALUE;
+        for (int run = 0; run < RUNS; run++) {
+            long start = System.nanoTime();
+            checksum = 0;
+            for (Point target : targets) {
+                checksum += scan(points, target).getX();
+            }
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        System.out.println(String.format("Scan nearest: %.2f us per query (checksum %.0f)",
+                best / 1e3 / QUERIES, checksum));
+
+        // the first route contracts the map, so it is left out of the timing
+        map.findShortestPath(targets[0], targets[1]);
+        best = Long.MAX_VALUE;
+        long bytes = 0;
+        for (int run = 0; run < RUNS; run++) {
+            long allocated = THREADS.getThreadAllocatedBytes(Thread.currentThread().getId());
+            long start = System.nanoTime();
+            checksum = 0;
+            for (int i = 0; i < ROUTES; i++) {
+                Path<Point> path = map.findShortestPath(targets[2 * i], targets[2 * i + 1]);
+                checksum += path == null ? 0 : path.getCost();
+            }
+            long time = System.nanoTime() - start;
+            if (time < best) {
+                best = time;
+                bytes = THREADS.getThreadAllocatedBytes(Thread.currentThread().getId()) - allocated;
+            }
+        }
+        System.out.println(String.format("Snapped route: %.1f us and %d bytes allocated per query (checksum %.0f)",
+                best / 1e3 / ROUTES, bytes / ROUTES, checksum));
+    }
+
+    /**
+     * @param points The points to look through.
+     * @param target The location to look near.
+     * @return The first of points nearest to target.
+     */
+    private static Point scan(List<Point> points, Point target) {
+        Point best = null;
+        double bestDistance = Double.POSITIVE_INFINITY;
+        for (Point point : points) {
+            double d = distance(point, target);
+            if (d < bestDistance) {
+                best = point;
+                bestDistance = d;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * @param a A location.
+     * @param b Another location.
+     * @return The distance between the locations.
+     */
+    private static double distance(Point a, Point b) {
+        double dx = a.getX() - b.getX();
+        double dy = a.getY() - b.getY();
+        return Math.sqrt(dx * dx + dy * dy);
+    }
+}
@@ -0,0 +1,342 @@
+package pathfinder.datastructures;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * This represents a mutable min priority queue of int ids, each with a
+ * double key, stored as a d-ary heap of primitive arrays. Every id is in the
+ * heap at most once and the position of each id is tracked, so the key of
+ * an id already in the heap can be lowered in place instead of adding a
+ * second entry. Ids of equal key come out in increasing id order. The
+ * arrays grow as larger ids are added.
+ */
+public class IndexedHeap {
+
+    // AF(this) =
+    //      the ids in the heap, in priority order => heap[0..size), a d-ary heap
+    //          with d = arity, ordered by key and then by id
+    //      the key of an id in the heap => keys[id]
+    //      where an id is in heap => position[id], or ABSENT if it is not in the heap
+
+    // Rep Invariant:
+    //      arity >= 2 &&
+    //      0 <= size <= heap.length &&
+    //      position.length == keys.length &&
+    //      for i in [0, size): position[heap[i]] == i &&
+    //      for i in (0, size): heap[(i - 1) / arity] does not come after heap[i] &&
+    //      exactly size entries of position are not ABSENT
+
+    private static final boolean CHECK_REP = false;
+
+    /**
+     * Children of each heap entry when none is given, which keeps the heap
+     * shallow and the children of an entry next to each other in memory.
+     */
+    public static final int DEFAULT_ARITY = 4;
+
+    /**
+     * Position of an id that is not in the heap.
+     */
+    private static final int ABSENT = -1;
+
+    /**
+     * Children of each heap entry.
+     */
+    private final int arity;
+
+    /**
+     * The ids in the heap, the first size entries are used.
+     */
+    private int[] heap;
+
+    /**
+     * Where each id is in heap, or ABSENT.
+     */
+    private int[] position;
+
+    /**
+     * The key of each id in the heap.
+     */
+    private double[] keys;
+
+    /**
+     * Number of ids in the heap.
+     */
+    private int size;
+
+    /**
+     * Creates an empty heap with DEFAULT_ARITY children per entry.
+     *
+     * @param capacity The number of ids the heap has room for before it grows.
+     * @throws IllegalArgumentException if capacity is negative.
+     */
+    public IndexedHeap(int capacity) {
+        this(capacity, DEFAULT_ARITY);
+    }
+
+    /**
+     * Creates an empty heap.
+     *
+     * @param capacity The number of ids the heap has room for before it grows.
+     * @param arity    The number of children of each heap entry.
+     * @throws IllegalArgumentException if capacity is negative or arity is less than 2.
+     */
+    public IndexedHeap(int capacity, int arity) {
+        if (capacity < 0 || arity < 2) {
+            throw new IllegalArgumentException("capacity must be at least 0 and arity at least 2");
+        }
+        this.arity = arity;
+        this.heap = new int[capacity];
+        this.position = new int[capacity];
+        this.keys = new double[capacity];
+        Arrays.fill(position, ABSENT);
+        this.size = 0;
+        checkRep();
+    }
+
+    /**
+     * @return The number of ids in the heap.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return {@literal true} iff there are no ids in the heap.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @param id The id to look for.
+     * @return {@literal true} iff the id is in the heap.
+     */
+    public boolean contains(int id) {
+        return id >= 0 && id < position.length && position[id] != ABSENT;
+    }
+
+    /**
+     * @param id The id to look up.
+     * @return The key of the id.
+     * @throws IllegalArgumentException if the id is not in the heap.
+     */
+    public double key(int id) {
+        if (!contains(id)) {
+            throw new IllegalArgumentException("id " + id + " is not in the heap");
+        }
+        return keys[id];
+    }
+
+    /**
+     * Adds an id to the heap, or lowers its key if it is already in the heap
+     * with a larger one.
+     *
+     * @param id  The id to add.
+     * @param key The key of the id.
+     * @return {@literal true} iff the id was added or its key lowered.
+     * @throws IllegalArgumentException if the id is negative or the key is NaN.
+     */
+    public boolean offer(int id, double key) {
+        if (contains(id)) {
+            if (key >= keys[id]) {
+                return false;
+            }
+            decreaseKey(id, key);
+        } else {
+            insert(id, key);
+        }
+        return true;
+    }
+
+    /**
+     * Adds an id to the heap.
+     *
+     * @param id  The id to add.
+     * @param key The key of the id.
+     * @throws IllegalArgumentException if the id is negative or already in the heap,
+     *                                  or the key is NaN.
+     */
+    public void insert(int id, double key) {
+        if (id < 0 || contains(id) || Double.isNaN(key)) {
+            throw new IllegalArgumentException("can't insert id " + id + " with key " + key);
+        }
+        if (id >= position.length) {
+            int length = Math.max(id + 1, 2 * position.length);
+            int old = position.length;
+            position = Arrays.copyOf(position, length);
+            keys = Arrays.copyOf(keys, length);
+            Arrays.fill(position, old, length, ABSENT);
+        }
+        if (size == heap.length) {
+            heap = Arrays.copyOf(heap, Math.max(1, 2 * heap.length));
+        }
+        keys[id] = key;
+        size++;
+        siftUp(id, size - 1);
+        checkRep();
+    }
+
+    /**
+     * Lowers the key of an id in the heap.
+     *
+     * @param id  The id whose key is lowered.
+     * @param key The new key of the id.
+     * @throws IllegalArgumentException if the id is not in the heap or the key is NaN or
+     *                                  larger than its current key.
+     */
+    public void decreaseKey(int id, double key) {
+        if (!contains(id) || !(key <= keys[id])) {
+            throw new IllegalArgumentException("can't lower the key of id " + id + " to " + key);
+        }
+        keys[id] = key;
+        siftUp(id, position[id]);
+        checkRep();
+    }
+
+    /**
+     * Changes the key of an id in the heap, raising or lowering it.
+     *
+     * @param id  The id whose key is changed.
+     * @param key The new key of the id.
+     * @throws IllegalArgumentException if the id is not in the heap or the key is NaN.
+     */
+    public void changeKey(int id, double key) {
+        if (!contains(id) || Double.isNaN(key)) {
+            throw new IllegalArgumentException("can't change the key of id " + id + " to " + key);
+        }
+        double old = keys[id];
+        keys[id] = key;
+        if (key < old) {
+            siftUp(id, position[id]);
+        } else {
+            siftDown(id, position[id]);
+        }
+        checkRep();
+    }
+
+    /**
+     * @return The id with the least key.
+     * @throws NoSuchElementException if the heap is empty.
+     */
+    public int peek() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        return heap[0];
+    }
+
+    /**
+     * Removes the id with the least key from the heap.
+     *
+     * @return The id with the least key.
+     * @throws NoSuchElementException if the heap is empty.
+     */
+    public int poll() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        int min = heap[0];
+        position[min] = ABSENT;
+        size--;
+        if (size > 0) {
+            siftDown(heap[size], 0);
+        }
+        checkRep();
+        return min;
+    }
+
+    /**
+     * Removes every id from the heap, keeping its arrays for reuse.
+     */
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            position[heap[i]] = ABSENT;
+        }
+        size = 0;
+        checkRep();
+    }
+
+    /**
+     * Moves an id toward the root until its parent comes before it.
+     *
+     * @param id The id to place.
+     * @param i  The free slot to start from.
+     */
+    private void siftUp(int id, int i) {
+        while (i > 0) {
+            int parent = (i - 1) / arity;
+            if (!before(id, heap[parent])) {
+                break;
+            }
+            heap[i] = heap[parent];
+            position[heap[i]] = i;
+            i = parent;
+        }
+        heap[i] = id;
+        position[id] = i;
+    }
+
+    /**
+     * Moves an id away from the root until none of its children comes before it.
+     *
+     * @param id The id to place.
+     * @param i  The free slot to start from.
+     */
+    private void siftDown(int id, int i) {
+        while (true) {
+            int first = i * arity + 1;
+            if (first >= size) {
+                break;
+            }
+            int best = first;
+            int end = Math.min(first + arity, size);
+            for (int child = first + 1; child < end; child++) {
+                if (before(heap[child], heap[best])) {
+                    best = child;
+                }
+            }
+            if (!before(heap[best], id)) {
+                break;
+            }
+            heap[i] = heap[best];
+            position[heap[i]] = i;
+            i = best;
+        }
+        heap[i] = id;
+        position[id] = i;
+    }
+
+    /**
+     * @param a An id.
+     * @param b Another id.
+     * @return {@literal true} iff a has a smaller key than b, or the same key and a smaller id.
+     */
+    private boolean before(int a, int b) {
+        return keys[a] < keys[b] || (keys[a] == keys[b] && a < b);
+    }
+
+    /**
+     * Ensures that the representation invariant has not been violated. Returns normally if
+     * there is no violation.
+     */
+    private void checkRep() {
+        assert arity >= 2;
+        assert size >= 0 && size <= heap.length;
+        assert position.length == keys.length;
+        if (CHECK_REP) {
+            int present = 0;
+            for (int p : position) {
+                if (p != ABSENT) {
+                    present++;
+                }
+            }
+            assert present == size;
+            for (int i = 0; i < size; i++) {
+                assert position[heap[i]] == i;
+                assert i == 0 || !before(heap[i], heap[(i - 1) / arity]);
+            }
+        }
+    }
+}
@@ -11,22 +11,26 @@
 
 package pathfinder.datastructures;
 
-import java.util.ArrayList;
 import java.util.Iterator;
-import java.util.List;
+import java.util.NoSuchElementException;
 
 /**
  * This represents an immutable path between two cartesian coordinate points, particularly
  * Path#getStart() and Path#getEnd(). Also contains a cached
  * version of the total cost along this path, for efficient repeated access.
+ *
+ * A path is stored as its last segment and the path before it, so extending a path takes
+ * constant time and space and the extended path shares every earlier segment with the
+ * path it was extended from.
  */
 public class Path<P> implements Iterable<Path<P>.Segment> {
 
     // AF(this) =
     //      first point in the path => start
-    //      each "step" along the path between points => elements of list path, where
-    //          path.get(0) is the first step from the start point to an intermediate point, and
-    //          path.get(path.size() - 1) is the final step from an intermediate point to the end
+    //      each "step" along the path between points => the steps of prefix followed by last,
+    //          or no steps if size == 0, where the first step goes from the start point to an
+    //          intermediate point, and last is the final step from an intermediate point to
+    //          the end
     //      total cost along the path => cost
     //      the destination point in this path, opposite the start point => getEnd()
 
@@ -34,23 +38,41 @@ public class Path<P> implements Iterable<Path<P>.Segment> {
     //      cost >= 0 &&
     //      Double.isFinite(cost) &&
     //      start != null &&
-    //      path != null &&
-    //      path does not contain null elements
+    //      size >= 0 &&
+    //      (size == 0 iff prefix == null iff last == null) &&
+    //      (size > 0 implies prefix.size == size - 1 && prefix.start == start &&
+    //          last.start equals prefix.getEnd()) &&
+    //      hash == 31 * (prefix's hash, or 1 if size == 0) + last.hashCode() if size > 0, else 1
 
     /**
      * The total cost along all the segments in this path.
      */
-    private double cost;
+    private final double cost;
 
     /**
      * The point at the beginning of this path.
      */
-    private P start;
+    private final P start;
 
     /**
-     * The ordered sequence of segments representing a path between points.
+     * The path up to the last segment, or null if this path has no segments.
      */
-    private List<Path<P>.Segment> path;
+    private final Path<P> prefix;
+
+    /**
+     * The last segment of this path, or null if this path has no segments.
+     */
+    private final Segment last;
+
+    /**
+     * The number of segments in this path.
+     */
+    private final int size;
+
+    /**
+     * The hash code of the sequence of segments in this path, as a List of them would have.
+     */
+    private final int hash;
 
     /**
      * Creates a new, empty path containing a start point. Essentially this represents a path
@@ -61,16 +83,34 @@ public class Path<P> implements Iterable<Path<P>.Segment> {
     public Path(P start) {
         this.start = start;
         this.cost = 0;
-        this.path = new ArrayList<>();
+        this.prefix = null;
+        this.last = null;
+        this.size = 0;
+        this.hash = 1;
         checkRep();
     }
 
+    /**
+     * Creates the path made of prefix followed by one more segment.
+     *
+     * @param prefix The path before the segment.
+     * @param last   The segment at the end of the path.
+     */
+    private Path(Path<P> prefix, Segment last) {
+        this.start = prefix.start;
+        this.cost = prefix.cost + last.getCost();
+        this.prefix = prefix;
+        this.last = last;
+        this.size = prefix.size + 1;
+        this.hash = 31 * prefix.hash + last.hashCode();
+    }
+
     /**
      * Appends a new single segment to the end of this path, originating at the current last point
      * in this path and terminating at {@code newEnd}. The cost of adding this additional segment
      * to the existing path is {@code segmentCost}. Thus, the returned Path represents a path
      * from {@code this.getStart()} to {@code newEnd}, with a cost of {@code this.getCost() +
-     * segmentCost}.
+     * segmentCost}. This takes constant time, however long the path is.
      *
      * @param newEnd      The point being added at the end of the segment being appended to this path
      * @param segmentCost The cost of the segment being added to the end of this path.
@@ -79,10 +119,7 @@ public class Path<P> implements Iterable<Path<P>.Segment> {
     public Path<P> extend(P newEnd, double segmentCost) {
         checkRep();
         //
-        Path<P> extendedPath = new Path<>(start);
-        extendedPath.path.addAll(this.path);
-        extendedPath.path.add(new Segment(this.getEnd(), newEnd, segmentCost));
-        extendedPath.cost = this.cost + segmentCost;
+        Path<P> extendedPath = new Path<>(this, new Segment(this.getEnd(), newEnd, segmentCost));
         //
         extendedPath.checkRep();
         checkRep();
@@ -109,10 +146,10 @@ public class Path<P> implements Iterable<Path<P>.Segment> {
      * contains no segments (i.e. this path is from the start point to itself).
      */
     public P getEnd() {
-        if(path.size() == 0) {
+        if(size == 0) {
             return start;
         }
-        return path.get(path.size() - 1).getEnd();
+        return last.getEnd();
     }
 
     /**
@@ -124,19 +161,30 @@ public class Path<P> implements Iterable<Path<P>.Segment> {
      */
     @Override
     public Iterator<Path<P>.Segment> iterator() {
-        // Create a wrapping iterator to guarantee exceptional behavior on Iterator#remove.
+        // The segments are linked from the end, so gather them in order first.
+        Object[] segments = new Object[size];
+        Path<P> current = this;
+        for(int i = size - 1; i >= 0; i--) {
+            segments[i] = current.last;
+            current = current.prefix;
+        }
         return new Iterator<>() {
 
-            private Iterator<Path<P>.Segment> backingIterator = path.iterator();
+            private int next = 0;
 
             @Override
             public boolean hasNext() {
-                return backingIterator.hasNext();
+                return next < segments.length;
             }
 
             @Override
+            @SuppressWarnings("unchecked")
             public Path<P>.Segment next() {
-                return backingIterator.next();
+                if(!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                next++;
+                return (Path<P>.Segment) segments[next - 1];
             }
 
             @Override
@@ -148,15 +196,19 @@ public class Path<P> implements Iterable<Path<P>.Segment> {
 
     /**
      * Ensures that the representation invariant has not been violated. Returns normally if
-     * there is no violation.
+     * there is no violation. Only the first link of the path is checked, so that extending
+     * a path stays constant time; every link was checked when it was made.
      */
     private void checkRep() {
         assert cost >= 0;
         assert Double.isFinite(cost);
         assert start != null;
-        assert path != null;
-        for(Segment segment : path) {
-            assert segment != null;
+        assert size >= 0;
+        assert (size == 0) == (prefix == null) && (size == 0) == (last == null);
+        if(size > 0) {
+            assert prefix.size == size - 1;
+            assert prefix.start == start;
+            assert last.getStart().equals(prefix.getEnd());
         }
     }
 
@@ -177,30 +229,35 @@ public class Path<P> implements Iterable<Path<P>.Segment> {
             return false;
         }
         Path<?> other = (Path<?>) obj;
-        if(this.path.size() != other.path.size()) {
+        if(this.size != other.size || this.hash != other.hash) {
             return false;
         }
-        if(this.path.size() == 0 && !this.start.equals(other.start)) {
+        if(this.size == 0 && !this.start.equals(other.start)) {
             return false;
         }
-        for(int i = 0; i < this.path.size(); i++) {
-            if(!this.path.get(i).equals(other.path.get(i))) {
+        // Compare from the end, stopping early where both paths share the rest.
+        Path<?> a = this;
+        Path<?> b = other;
+        while(a != b && a.size > 0) {
+            if(!a.last.equals(b.last)) {
                 return false;
             }
+            a = a.prefix;
+            b = b.prefix;
         }
         return true;
     }
 
     @Override
     public int hashCode() {
-        return (31 * start.hashCode()) + path.hashCode();
+        return (31 * start.hashCode()) + hash;
     }
 
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder();
         sb.append(start.toString());
-        for(Segment segment : path) {
+        for(Segment segment : this) {
             sb.append(" =(");
             sb.append(String.format("%.3f", segment.getCost()));
             sb.append(")=> ");
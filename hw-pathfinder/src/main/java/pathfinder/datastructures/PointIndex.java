@@ -0,0 +1,263 @@
+package pathfinder.datastructures;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * This represents an immutable set of points that can be searched for the
+ * point nearest a location and for every point within some distance of one,
+ * without looking at every point. The points are kept in a balanced 2-d tree
+ * laid out in arrays, split alternately on x and y, so a search only visits
+ * the parts of the plane that could hold a closer point.
+ */
+public class PointIndex {
+
+    // AF(this) =
+    //      the points in the set => points[0..points.length)
+    //      the tree over points[lo..hi) => points[mid] at its root, mid = (lo + hi) / 2,
+    //          with the tree over points[lo..mid) on one side of it and the tree over
+    //          points[mid + 1..hi) on the other, split on x at even depths and y at odd
+    //      the coordinates of points[i] => (xs[i], ys[i])
+
+    // Rep Invariant:
+    //      points != null && xs.length == ys.length == points.length &&
+    //      for i in [0, points.length): points[i] != null &&
+    //          xs[i] == points[i].getX() && ys[i] == points[i].getY() &&
+    //      in the tree over points[lo..hi) split on an axis, no point of points[lo..mid)
+    //          comes after points[mid] on that axis and no point of points[mid + 1..hi)
+    //          comes before it
+
+    private static final boolean CHECK_REP = false;
+
+    /**
+     * The points, in tree order.
+     */
+    private final Point[] points;
+
+    /**
+     * The x coordinate of each point.
+     */
+    private final double[] xs;
+
+    /**
+     * The y coordinate of each point.
+     */
+    private final double[] ys;
+
+    /**
+     * Builds an index of the given points.
+     *
+     * @param points The points to index.
+     * @throws IllegalArgumentException if points is null or contains null.
+     */
+    public PointIndex(Collection<Point> points) {
+        if (points == null || points.contains(null)) {
+            throw new IllegalArgumentException("points cannot be or contain null");
+        }
+        this.points = points.toArray(new Point[0]);
+        build(0, this.points.length, 0);
+        this.xs = new double[this.points.length];
+        this.ys = new double[this.points.length];
+        for (int i = 0; i < this.points.length; i++) {
+            xs[i] = this.points[i].getX();
+            ys[i] = this.points[i].getY();
+        }
+        checkRep();
+    }
+
+    /**
+     * @return The number of points in the index.
+     */
+    public int size() {
+        return points.length;
+    }
+
+    /**
+     * @param target The location to search near.
+     * @return A point of the index nearest to target, or null if the index is empty.
+     * @throws IllegalArgumentException if target is null.
+     */
+    public Point nearest(Point target) {
+        if (target == null) {
+            throw new IllegalArgumentException("target cannot be null");
+        }
+        if (points.length == 0) {
+            return null;
+        }
+        Nearest search = new Nearest(target.getX(), target.getY());
+        nearest(0, points.length, 0, search);
+        return points[search.best];
+    }
+
+    /**
+     * @param center The location to search around.
+     * @param radius The greatest distance from center of a point returned.
+     * @return Every point of the index no farther than radius from center, nearest first.
+     * @throws IllegalArgumentException if center is null or radius is negative or NaN.
+     */
+    public List<Point> within(Point center, double radius) {
+        if (center == null || !(radius >= 0)) {
+            throw new IllegalArgumentException("center cannot be null and radius must be at least 0");
+        }
+        List<Point> found = new ArrayList<>();
+        within(0, points.length, 0, center.getX(), center.getY(), radius * radius, found);
+        found.sort(Comparator.comparingDouble(p -> distance2(p.getX(), p.getY(), center.getX(), center.getY())));
+        return found;
+    }
+
+    /**
+     * Arranges points[lo..hi) into a tree.
+     *
+     * @param lo    The first point of the tree.
+     * @param hi    One past the last point of the tree.
+     * @param depth The depth of the tree's root, which chooses the axis it is split on.
+     */
+    private void build(int lo, int hi, int depth) {
+        if (hi - lo <= 1) {
+            return;
+        }
+        Arrays.sort(points, lo, hi, depth % 2 == 0
+                ? Comparator.comparingDouble(Point::getX)
+                : Comparator.comparingDouble(Point::getY));
+        int mid = (lo + hi) >>> 1;
+        build(lo, mid, depth + 1);
+        build(mid + 1, hi, depth + 1);
+    }
+
+    /**
+     * Looks for a point nearer than the best found so far in the tree over points[lo..hi).
+     *
+     * @param lo     The first point of the tree.
+     * @param hi     One past the last point of the tree.
+     * @param depth  The depth of the tree's root.
+     * @param search The location searched near and the best point found so far.
+     */
+    private void nearest(int lo, int hi, int depth, Nearest search) {
+        if (lo >= hi) {
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        double d = distance2(xs[mid], ys[mid], search.x, search.y);
+        if (d < search.bestDistance) {
+            search.best = mid;
+            search.bestDistance = d;
+        }
+        double offset = depth % 2 == 0 ? search.x - xs[mid] : search.y - ys[mid];
+        // the side the target is on first, the other only if it could be nearer
+        if (offset < 0) {
+            nearest(lo, mid, depth + 1, search);
+            if (offset * offset < search.bestDistance) {
+                nearest(mid + 1, hi, depth + 1, search);
+            }
+        } else {
+            nearest(mid + 1, hi, depth + 1, search);
+            if (offset * offset < search.bestDistance) {
+                nearest(lo, mid, depth + 1, search);
+            }
+        }
+    }
+
+    /**
+     * Adds every point of the tree over points[lo..hi) within a distance of a location.
+     *
+     * @param lo       The first point of the tree.
+     * @param hi       One past the last point of the tree.
+     * @param depth    The depth of the tree's root.
+     * @param x        The x coordinate of the location.
+     * @param y        The y coordinate of the location.
+     * @param radius2  The square of the greatest distance of a point added.
+     * @param found    The points found so far.
+     */
+    private void within(int lo, int hi, int depth, double x, double y, double radius2, List<Point> found) {
+        if (lo >= hi) {
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        if (distance2(xs[mid], ys[mid], x, y) <= radius2) {
+            found.add(points[mid]);
+        }
+        double offset = depth % 2 == 0 ? x - xs[mid] : y - ys[mid];
+        if (offset <= 0 || offset * offset <= radius2) {
+            within(lo, mid, depth + 1, x, y, radius2, found);
+        }
+        if (offset >= 0 || offset * offset <= radius2) {
+            within(mid + 1, hi, depth + 1, x, y, radius2, found);
+        }
+    }
+
+    /**
+     * @param x1 The x coordinate of one location.
+     * @param y1 The y coordinate of one location.
+     * @param x2 The x coordinate of another location.
+     * @param y2 The y coordinate of another location.
+     * @return The square of the distance between the locations.
+     */
+    private static double distance2(double x1, double y1, double x2, double y2) {
+        double dx = x1 - x2;
+        double dy = y1 - y2;
+        return dx * dx + dy * dy;
+    }
+
+    /**
+     * Ensures that the representation invariant has not been violated. Returns normally if
+     * there is no violation.
+     */
+    private void checkRep() {
+        assert points != null;
+        assert xs.length == points.length && ys.length == points.length;
+        if (CHECK_REP) {
+            for (int i = 0; i < points.length; i++) {
+                assert points[i] != null;
+                assert xs[i] == points[i].getX() && ys[i] == points[i].getY();
+            }
+            checkTree(0, points.length, 0);
+        }
+    }
+
+    /**
+     * Ensures that the tree over points[lo..hi) is split correctly.
+     *
+     * @param lo    The first point of the tree.
+     * @param hi    One past the last point of the tree.
+     * @param depth The depth of the tree's root.
+     */
+    private void checkTree(int lo, int hi, int depth) {
+        if (hi - lo <= 1) {
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        double[] axis = depth % 2 == 0 ? xs : ys;
+        for (int i = lo; i < mid; i++) {
+            assert axis[i] <= axis[mid];
+        }
+        for (int i = mid + 1; i < hi; i++) {
+            assert axis[i] >= axis[mid];
+        }
+        checkTree(lo, mid, depth + 1);
+        checkTree(mid + 1, hi, depth + 1);
+    }
+
+    /**
+     * The location a nearest point search is near, and the best point it has found
+     */
+    private static final class Nearest {
+        private final double x;
+        private final double y;
+        private int best;
+        private double bestDistance;
+
+        /**
+         * @param x The x coordinate of the location.
+         * @param y The y coordinate of the location.
+         */
+        private Nearest(double x, double y) {
+            this.x = x;
+            this.y = y;
+            this.best = -1;
+            this.bestDistance = Double.POSITIVE_INFINITY;
+        }
+    }
+}
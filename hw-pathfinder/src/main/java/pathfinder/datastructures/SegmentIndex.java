@@ -0,0 +1,379 @@
+package pathfinder.datastructures;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * This represents an immutable set of line segments between points, each
+ * known by its position in the lists it was built from, that can be searched
+ * for the segment nearest a location without looking at every segment. The
+ * segments are kept in a packed tree of bounding boxes, a static R-tree:
+ * each node of the tree is a segment, ordered by the middle of the segments
+ * and split alternately on x and y, together with the box around every
+ * segment below it, so a search skips every box farther away than the
+ * nearest segment found so far.
+ */
+public class SegmentIndex {
+
+    // AF(this) =
+    //      segment i of the set => the segment from starts[i] to ends[i]
+    //      the tree over order[lo..hi) => segment order[mid] at its root, mid = (lo + hi) / 2,
+    //          with the tree over order[lo..mid) and the tree over order[mid + 1..hi) below it,
+    //          and every segment of the tree inside the box
+    //          (minX[mid], minY[mid]) to (maxX[mid], maxY[mid])
+
+    // Rep Invariant:
+    //      starts != null && ends != null && starts.length == ends.length &&
+    //      order is a permutation of [0, starts.length) &&
+    //      minX, minY, maxX and maxY have starts.length entries &&
+    //      no entry of starts or ends is null &&
+    //      the box at each mid holds both ends of every segment of its tree
+
+    private static final boolean CHECK_REP = false;
+
+    /**
+     * The first point of each segment.
+     */
+    private final Point[] starts;
+
+    /**
+     * The last point of each segment.
+     */
+    private final Point[] ends;
+
+    /**
+     * The segments, in tree order.
+     */
+    private final int[] order;
+
+    /**
+     * The box around each tree, by the position of its root in order.
+     */
+    private final double[] minX;
+    private final double[] minY;
+    private final double[] maxX;
+    private final double[] maxY;
+
+    /**
+     * Builds an index of the segments from starts[i] to ends[i].
+     *
+     * @param starts The first point of each segment.
+     * @param ends   The last point of each segment.
+     * @throws IllegalArgumentException if either list is null or contains null, or
+     *                                  they differ in length.
+     */
+    public SegmentIndex(List<Point> starts, List<Point> ends) {
+        if (starts == null || ends == null || starts.size() != ends.size()
+                || starts.contains(null) || ends.contains(null)) {
+            throw new IllegalArgumentException("starts and ends must be lists of points of the same length");
+        }
+        int n = starts.size();
+        this.starts = starts.toArray(new Point[0]);
+        this.ends = ends.toArray(new Point[0]);
+        Integer[] sorted = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            sorted[i] = i;
+        }
+        build(sorted, 0, n, 0);
+        this.order = new int[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = sorted[i];
+        }
+        this.minX = new double[n];
+        this.minY = new double[n];
+        this.maxX = new double[n];
+        this.maxY = new double[n];
+        bound(0, n);
+        checkRep();
+    }
+
+    /**
+     * @return The number of segments in the index.
+     */
+    public int size() {
+        return starts.length;
+    }
+
+    /**
+     * @param segment The position of a segment in the lists the index was built from.
+     * @return The first point of the segment.
+     * @throws IllegalArgumentException if there is no such segment.
+     */
+    public Point start(int segment) {
+        checkSegment(segment);
+        return starts[segment];
+    }
+
+    /**
+     * @param segment The position of a segment in the lists the index was built from.
+     * @return The last point of the segment.
+     * @throws IllegalArgumentException if there is no such segment.
+     */
+    public Point end(int segment) {
+        checkSegment(segment);
+        return ends[segment];
+    }
+
+    /**
+     * @param target The location to search near.
+     * @return The position of a segment nearest to target in the lists the index was
+     * built from, or -1 if the index is empty.
+     * @throws IllegalArgumentException if target is null.
+     */
+    public int nearest(Point target) {
+        if (target == null) {
+            throw new IllegalArgumentException("target cannot be null");
+        }
+        Nearest search = new Nearest(target.getX(), target.getY());
+        nearest(0, order.length, search);
+        return search.best;
+    }
+
+    /**
+     * @param segment The position of a segment in the lists the index was built from.
+     * @param target  A location.
+     * @return How far along the segment its point nearest to target is, from 0 at its
+     * start to 1 at its end.
+     * @throws IllegalArgumentException if there is no such segment or target is null.
+     */
+    public double fraction(int segment, Point target) {
+        checkSegment(segment);
+        if (target == null) {
+            throw new IllegalArgumentException("target cannot be null");
+        }
+        return fraction(segment, target.getX(), target.getY());
+    }
+
+    /**
+     * @param segment The position of a segment in the lists the index was built from.
+     * @param target  A location.
+     * @return The point of the segment nearest to target, which is exactly its start or
+     * end if target is nearest to one of them.
+     * @throws IllegalArgumentException if there is no such segment or target is null.
+     */
+    public Point closest(int segment, Point target) {
+        double t = fraction(segment, target);
+        Point a = starts[segment];
+        Point b = ends[segment];
+        if (t == 0) {
+            return a;
+        }
+        if (t == 1) {
+            return b;
+        }
+        return new Point(a.getX() + t * (b.getX() - a.getX()), a.getY() + t * (b.getY() - a.getY()));
+    }
+
+    /**
+     * Sorts the segments of sorted[lo..hi) into a tree.
+     *
+     * @param sorted The segments, in tree order once built.
+     * @param lo     The first segment of the tree.
+     * @param hi     One past the last segment of the tree.
+     * @param depth  The depth of the tree's root, which chooses the axis it is split on.
+     */
+    private void build(Integer[] sorted, int lo, int hi, int depth) {
+        if (hi - lo <= 1) {
+            return;
+        }
+        Arrays.sort(sorted, lo, hi, depth % 2 == 0
+                ? Comparator.comparingDouble(i -> starts[i].getX() + ends[i].getX())
+                : Comparator.comparingDouble(i -> starts[i].getY() + ends[i].getY()));
+        int mid = (lo + hi) >>> 1;
+        build(sorted, lo, mid, depth + 1);
+        build(sorted, mid + 1, hi, depth + 1);
+    }
+
+    /**
+     * Sets the box of the tree over order[lo..hi) and of every tree below it.
+     *
+     * @param lo The first segment of the tree.
+     * @param hi One past the last segment of the tree.
+     */
+    private void bound(int lo, int hi) {
+        if (lo >= hi) {
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        Point a = starts[order[mid]];
+        Point b = ends[order[mid]];
+        minX[mid] = Math.min(a.getX(), b.getX());
+        minY[mid] = Math.min(a.getY(), b.getY());
+        maxX[mid] = Math.max(a.getX(), b.getX());
+        maxY[mid] = Math.max(a.getY(), b.getY());
+        bound(lo, mid);
+        bound(mid + 1, hi);
+        if (lo < mid) {
+            grow(mid, (lo + mid) >>> 1);
+        }
+        if (mid + 1 < hi) {
+            grow(mid, (mid + 1 + hi) >>> 1);
+        }
+    }
+
+    /**
+     * Grows the box of a tree to hold the box of a tree below it.
+     *
+     * @param root  The position in order of the root of the tree.
+     * @param child The position in order of the root of the tree below it.
+     */
+    private void grow(int root, int child) {
+        minX[root] = Math.min(minX[root], minX[child]);
+        minY[root] = Math.min(minY[root], minY[child]);
+        maxX[root] = Math.max(maxX[root], maxX[child]);
+        maxY[root] = Math.max(maxY[root], maxY[child]);
+    }
+
+    /**
+     * Looks for a segment nearer than the best found so far in the tree over order[lo..hi).
+     *
+     * @param lo     The first segment of the tree.
+     * @param hi     One past the last segment of the tree.
+     * @param search The location searched near and the best segment found so far.
+     */
+    private void nearest(int lo, int hi, Nearest search) {
+        if (lo >= hi) {
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        if (boxDistance2(mid, search.x, search.y) >= search.bestDistance) {
+            return;
+        }
+        int segment = order[mid];
+        double d = distance2(segment, search.x, search.y);
+        if (d < search.bestDistance) {
+            search.best = segment;
+            search.bestDistance = d;
+        }
+        int left = (lo + mid) >>> 1;
+        int right = (mid + 1 + hi) >>> 1;
+        // the nearer box first, so the farther one is more often skipped
+        boolean leftFirst = lo >= mid || (mid + 1 < hi
+                && boxDistance2(left, search.x, search.y) <= boxDistance2(right, search.x, search.y));
+        if (leftFirst) {
+            nearest(lo, mid, search);
+            nearest(mid + 1, hi, search);
+        } else {
+            nearest(mid + 1, hi, search);
+            nearest(lo, mid, search);
+        }
+    }
+
+    /**
+     * @param root The position in order of the root of a tree.
+     * @param x    The x coordinate of a location.
+     * @param y    The y coordinate of a location.
+     * @return The square of the distance from the location to the box of the tree.
+     */
+    private double boxDistance2(int root, double x, double y) {
+        double dx = Math.max(0, Math.max(minX[root] - x, x - maxX[root]));
+        double dy = Math.max(0, Math.max(minY[root] - y, y - maxY[root]));
+        return dx * dx + dy * dy;
+    }
+
+    /**
+     * @param segment A segment.
+     * @param x       The x coordinate of a location.
+     * @param y       The y coordinate of a location.
+     * @return How far along the segment its point nearest to the location is, from 0 to 1.
+     */
+    private double fraction(int segment, double x, double y) {
+        double ax = starts[segment].getX();
+        double ay = starts[segment].getY();
+        double dx = ends[segment].getX() - ax;
+        double dy = ends[segment].getY() - ay;
+        double length2 = dx * dx + dy * dy;
+        if (length2 == 0) {
+            return 0;
+        }
+        return Math.max(0, Math.min(1, ((x - ax) * dx + (y - ay) * dy) / length2));
+    }
+
+    /**
+     * @param segment A segment.
+     * @param x       The x coordinate of a location.
+     * @param y       The y coordinate of a location.
+     * @return The square of the distance from the location to the segment.
+     */
+    private double distance2(int segment, double x, double y) {
+        double t = fraction(segment, x, y);
+        double ax = starts[segment].getX();
+        double ay = starts[segment].getY();
+        double dx = ax + t * (ends[segment].getX() - ax) - x;
+        double dy = ay + t * (ends[segment].getY() - ay) - y;
+        return dx * dx + dy * dy;
+    }
+
+    /**
+     * @param segment A segment position.
+     * @throws IllegalArgumentException if there is no such segment.
+     */
+    private void checkSegment(int segment) {
+        if (segment < 0 || segment >= starts.length) {
+            throw new IllegalArgumentException("no segment " + segment);
+        }
+    }
+
+    /**
+     * Ensures that the representation invariant has not been violated. Returns normally if
+     * there is no violation.
+     */
+    private void checkRep() {
+        assert starts != null && ends != null;
+        assert starts.length == ends.length && order.length == starts.length;
+        assert minX.length == order.length && minY.length == order.length;
+        assert maxX.length == order.length && maxY.length == order.length;
+        if (CHECK_REP) {
+            boolean[] seen = new boolean[order.length];
+            for (int segment : order) {
+                assert !seen[segment] : "order is a permutation";
+                seen[segment] = true;
+                assert starts[segment] != null && ends[segment] != null;
+            }
+            checkBoxes(0, order.length);
+        }
+    }
+
+    /**
+     * Ensures that the box of the tree over order[lo..hi) holds every segment of the tree.
+     *
+     * @param lo The first segment of the tree.
+     * @param hi One past the last segment of the tree.
+     */
+    private void checkBoxes(int lo, int hi) {
+        if (lo >= hi) {
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        for (int i = lo; i < hi; i++) {
+            for (Point p : new Point[] {starts[order[i]], ends[order[i]]}) {
+                assert p.getX() >= minX[mid] && p.getX() <= maxX[mid];
+                assert p.getY() >= minY[mid] && p.getY() <= maxY[mid];
+            }
+        }
+        checkBoxes(lo, mid);
+        checkBoxes(mid + 1, hi);
+    }
+
+    /**
+     * The location a nearest segment search is near, and the best segment it has found
+     */
+    private static final class Nearest {
+        private final double x;
+        private final double y;
+        private int best;
+        private double bestDistance;
+
+        /**
+         * @param x The x coordinate of the location.
+         * @param y The y coordinate of the location.
+         */
+        private Nearest(double x, double y) {
+            this.x = x;
+            this.y = y;
+            this.best = -1;
+            this.bestDistance = Double.POSITIVE_INFINITY;
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package pathfinder.junitTests;
+
+import graph.Graph;
+import graph.Node;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import pathfinder.AStar;
+import pathfinder.CampusMap;
+import pathfinder.Dijkstra;
+import pathfinder.SearchAlgorithm;
+import pathfinder.datastructures.Path;
+import pathfinder.datastructures.Point;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+public class TestCampusMap {
+
+    private static final double EPSILON = Math.pow(10.0D, -9.0D); // Accuracy required to 1 PPB
+
+    private static CampusMap map;
+
+    @BeforeClass
+    public static void loadMap() {
+        map = new CampusMap();
+    }
+
+    @Test
+    public void testEveryAlgorithmFindsTheSamePaths() {
+        for (String start : map.buildingNames().keySet()) {
+            for (String end : map.buildingNames().keySet()) {
+                Path<Point> expected = map.findShortestPath(start, end);
+                assertNotNull(expected);
+                for (SearchAlgorithm algorithm : SearchAlgorithm.values()) {
+                    assertEquals(start + " to " + end + " by " + algorithm,
+                            expected, map.findShortestPath(start, end, algorithm));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testPrecomputedRoutesMatchSearch() {
+        CampusMap precomputed = new CampusMap(true);
+        for (String start : map.buildingNames().keySet()) {
+            for (String end : map.buildingNames().keySet()) {
+                assertEquals(start + " to " + end,
+                        map.findShortestPath(start, end), precomputed.findShortestPath(start, end));
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testPrecomputedUnknownBuildingThrows() {
+        new CampusMap(true).findShortestPath("CSE", "NOT A BUILDING");
+    }
+
+    @Test
+    public void testPathToSameBuildingIsEmpty() {
+        for (SearchAlgorithm algorithm : SearchAlgorithm.values()) {
+            Path<Point> path = map.findShortestPath("CSE", "CSE", algorithm);
+            assertEquals(0, path.getCost(), EPSILON);
+            assertEquals(path.getStart(), path.getEnd());
+        }
+    }
+
+    @Test
+    public void testNearestPointSnapsToBuilding() {
+        Point cse = map.findShortestPath("CSE", "CSE").getStart();
+        assertEquals(cse, map.nearestPoint(new Point(cse.getX() + 0.5, cse.getY() - 0.5)));
+        assertEquals(cse, map.pointsWithin(cse, 1).get(0));
+    }
+
+    @Test
+    public void testRouteBetweenBuildingLocationsMatchesBuildingRoute() {
+        String[][] pairs = {{"CSE", "MGH"}, {"KNE", "CSE"}, {"BAG", "PAR"}};
+        for (String[] pair : pairs) {
+            Path<Point> expected = map.findShortestPath(pair[0], pair[1]);
+            Path<Point> path = map.findShortestPath(expected.getStart(), expected.getEnd());
+            assertEquals(expected.getStart(), path.getStart());
+            assertEquals(expected.getEnd(), path.getEnd());
+            assertEquals(expected.getCost(), path.getCost(), EPSILON);
+        }
+    }
+
+    @Test
+    public void testRouteFromMiddleOfPathStartsOnIt() {
+        Path<Point> route = map.findShortestPath("CSE", "MGH");
+        Path<Point>.Segment first = route.iterator().next();
+        Point middle = new Point((first.getStart().getX() + first.getEnd().getX()) / 2,
+                (first.getStart().getY() + first.getEnd().getY()) / 2);
+        Path<Point> path = map.findShortestPath(middle, route.getEnd());
+        assertEquals(middle.getX(), path.getStart().getX(), EPSILON);
+        assertEquals(middle.getY(), path.getStart().getY(), EPSILON);
+        assertEquals(route.getEnd(), path.getEnd());
+        // half the first segment is already walked
+        assertEquals(route.getCost() - first.getCost() / 2, path.getCost(), EPSILON);
+    }
+
+    @Test
+    public void testRouteAlongOnePathIsStraight() {
+        Path<Point>.Segment first = map.findShortestPath("CSE", "MGH").iterator().next();
+        double dx = first.getEnd().getX() - first.getStart().getX();
+        double dy = first.getEnd().getY() - first.getStart().getY();
+        Point from = new Point(first.getStart().getX() + dx / 4, first.getStart().getY() + dy / 4);
+        Point to = new Point(first.getStart().getX() + dx * 3 / 4, first.getStart().getY() + dy * 3 / 4);
+        Path<Point> path = map.findShortestPath(from, to);
+        assertEquals(first.getCost() / 2, path.getCost(), EPSILON);
+        assertEquals(from.getX(), path.getStart().getX(), EPSILON);
+        assertEquals(to.getX(), path.getEnd().getX(), EPSILON);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNullLocationThrows() {
+        map.findShortestPath(null, new Point(0, 0));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownStartThrows() {
+        map.findShortestPath("NOT A BUILDING", "CSE", SearchAlgorithm.A_STAR);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownEndThrows() {
+        map.findShortestPath("CSE", "NOT A BUILDING");
+    }
+
+    @Test
+    public void testAdmissibleScaleIsLeastCostPerLength() {
+        Graph<Point, Double> graph = new Graph<>();
+        Node<Point, Double> a = new Node<>(new Point(0, 0));
+        Node<Point, Double> b = new Node<>(new Point(3, 4));
+        Node<Point, Double> c = new Node<>(new Point(3, 0));
+        graph.addNode(a);
+        graph.addNode(b);
+        graph.addNode(c);
+        graph.addEdge(a, b, 10.0);
+        graph.addEdge(a, c, 2.4);
+        assertEquals(0.8, AStar.admissibleScale(graph), EPSILON);
+    }
+
+    @Test
+    public void testAStarTakesCheaperDetour() {
+        Graph<Point, Double> graph = new Graph<>();
+        Node<Point, Double> a = new Node<>(new Point(0, 0));
+        Node<Point, Double> b = new Node<>(new Point(10, 0));
+        Node<Point, Double> c = new Node<>(new Point(5, 5));
+        graph.addNode(a);
+        graph.addNode(b);
+        graph.addNode(c);
+        graph.addEdge(a, b, 30.0);
+        graph.addEdge(a, c, 8.0);
+        graph.addEdge(c, b, 8.0);
+        Path<Point> path = AStar.aStarAlgorithm(a.getLabel(), b.getLabel(), graph, AStar.admissibleScale(graph));
+        assertEquals(16.0, path.getCost(), EPSILON);
+        assertEquals(new Point(5, 5), path.iterator().next().getEnd());
+    }
+
+    @Test
+    public void testDijkstraLowersCostOfQueuedPoint() {
+        Graph<Point, Double> graph = new Graph<>();
+        Node<Point, Double> a = new Node<>(new Point(0, 0));
+        Node<Point, Double> b = new Node<>(new Point(10, 0));
+        Node<Point, Double> c = new Node<>(new Point(1, 0));
+        Node<Point, Double> d = new Node<>(new Point(20, 0));
+        graph.addNode(a);
+        graph.addNode(b);
+        graph.addNode(c);
+        graph.addNode(d);
+        graph.addEdge(a, b, 10.0);
+        graph.addEdge(a, c, 1.0);
+        graph.addEdge(c, b, 2.0);
+        graph.addEdge(b, d, 10.0);
+        Path<Point> path = Dijkstra.dijkstraAlgorithm(a.getLabel(), d.getLabel(), graph);
+        assertEquals(13.0, path.getCost(), EPSILON);
+        Path<Point> expected = new Path<>(a.getLabel()).extend(c.getLabel(), 1.0)
+                .extend(b.getLabel(), 2.0).extend(d.getLabel(), 10.0);
+        assertEquals(expected, path);
+    }
+
+    @Test
+    public void testAStarUnreachableIsNull() {
+        Graph<Point, Double> graph = new Graph<>();
+        graph.addNode(new Node<>(new Point(0, 0)));
+        graph.addNode(new Node<>(new Point(1, 1)));
+        assertNull(AStar.aStarAlgorithm(new Point(0, 0), new Point(1, 1), graph, 1.0));
+    }
+}
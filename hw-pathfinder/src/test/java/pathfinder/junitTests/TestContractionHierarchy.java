@@ -0,0 +1,160 @@
+package pathfinder.junitTests;
+
+import graph.Graph;
+import graph.Node;
+import org.junit.Test;
+import pathfinder.ContractionHierarchy;
+import pathfinder.Dijkstra;
+import pathfinder.datastructures.Path;
+import pathfinder.datastructures.Point;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class TestContractionHierarchy {
+
+    private static final double EPSILON = Math.pow(10.0D, -9.0D); // Accuracy required to 1 PPB
+
+    /**
+     * @param graph The graph.
+     * @param a One end of the edge.
+     * @param b The other end of the edge.
+     * @param cost The cost of the edge.
+     */
+    private static void addEdge(Graph<Point, Double> graph, Node<Point, Double> a, Node<Point, Double> b,
+                                double cost) {
+        graph.addEdge(a, b, cost);
+        graph.addEdge(b, a, cost);
+    }
+
+    @Test
+    public void testLineUnpacksEverySegment() {
+        Graph<Point, Double> graph = new Graph<>();
+        List<Node<Point, Double>> nodes = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            Node<Point, Double> node = new Node<>(new Point(i, 0));
+            graph.addNode(node);
+            nodes.add(node);
+            if (i > 0) {
+                addEdge(graph, nodes.get(i - 1), node, i);
+            }
+        }
+        ContractionHierarchy<Point> hierarchy = ContractionHierarchy.build(graph);
+        Path<Point> path = hierarchy.findPath(new Point(0, 0), new Point(7, 0));
+        assertEquals(28.0, path.getCost(), EPSILON);
+        Path<Point> expected = new Path<>(new Point(0, 0));
+        for (int i = 1; i < 8; i++) {
+            expected = expected.extend(new Point(i, 0), i);
+        }
+        assertEquals(expected, path);
+        assertEquals(expected.getCost(), hierarchy.findPath(new Point(7, 0), new Point(0, 0)).getCost(), EPSILON);
+    }
+
+    @Test
+    public void testMatchesDijkstraOnRandomGrid() {
+        Random random = new Random(331);
+        Graph<Point, Double> graph = new Graph<>();
+        int side = 12;
+        Node<Point, Double>[][] grid = newGrid(side);
+        for (int x = 0; x < side; x++) {
+            for (int y = 0; y < side; y++) {
+                grid[x][y] = new Node<>(new Point(x, y));
+                graph.addNode(grid[x][y]);
+                if (x > 0) {
+                    addEdge(graph, grid[x - 1][y], grid[x][y], 1 + random.nextInt(100) / 10.0);
+                }
+                if (y > 0) {
+                    addEdge(graph, grid[x][y - 1], grid[x][y], 1 + random.nextInt(100) / 10.0);
+                }
+            }
+        }
+        ContractionHierarchy<Point> hierarchy = ContractionHierarchy.build(graph);
+        assertEquals(side * side, hierarchy.size());
+        for (int i = 0; i < 200; i++) {
+            Point start = grid[random.nextInt(side)][random.nextInt(side)].getLabel();
+            Point end = grid[random.nextInt(side)][random.nextInt(side)].getLabel();
+            Path<Point> expected = Dijkstra.dijkstraAlgorithm(start, end, graph);
+            Path<Point> path = hierarchy.findPath(start, end);
+            assertEquals(expected.getCost(), path.getCost(), EPSILON);
+            assertEquals(start, path.getStart());
+            assertEquals(end, path.getEnd());
+        }
+    }
+
+    @Test
+    public void testPathToSelfIsEmpty() {
+        Graph<Point, Double> graph = new Graph<>();
+        Node<Point, Double> a = new Node<>(new Point(0, 0));
+        Node<Point, Double> b = new Node<>(new Point(1, 0));
+        graph.addNode(a);
+        graph.addNode(b);
+        addEdge(graph, a, b, 1.0);
+        Path<Point> path = ContractionHierarchy.build(graph).findPath(a.getLabel(), a.getLabel());
+        assertEquals(new Path<>(a.getLabel()), path);
+    }
+
+    @Test
+    public void testSeveralEndsTakesCheapestIncludingEndCosts() {
+        Graph<Point, Double> graph = new Graph<>();
+        List<Node<Point, Double>> nodes = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            Node<Point, Double> node = new Node<>(new Point(i, 0));
+            graph.addNode(node);
+            nodes.add(node);
+            if (i > 0) {
+                addEdge(graph, nodes.get(i - 1), node, 1.0);
+            }
+        }
+        ContractionHierarchy<Point> hierarchy = ContractionHierarchy.build(graph);
+        Map<Point, Double> starts = new HashMap<>();
+        starts.put(new Point(0, 0), 0.5);
+        starts.put(new Point(2, 0), 3.0);
+        Map<Point, Double> dests = new HashMap<>();
+        dests.put(new Point(4, 0), 0.25);
+        dests.put(new Point(5, 0), 0.0);
+        // 0.5 + 4 + 0.25 from (0, 0) to (4, 0) beats 3 + 2 + 0.25 from (2, 0)
+        Path<Point> path = hierarchy.findPath(starts, dests);
+        assertEquals(new Point(0, 0), path.getStart());
+        assertEquals(new Point(4, 0), path.getEnd());
+        assertEquals(4.0, path.getCost(), EPSILON);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeEndCostThrows() {
+        Graph<Point, Double> graph = new Graph<>();
+        graph.addNode(new Node<>(new Point(0, 0)));
+        Map<Point, Double> ends = new HashMap<>();
+        ends.put(new Point(0, 0), -1.0);
+        ContractionHierarchy.build(graph).findPath(ends, ends);
+    }
+
+    @Test
+    public void testUnreachableIsNull() {
+        Graph<Point, Double> graph = new Graph<>();
+        graph.addNode(new Node<>(new Point(0, 0)));
+        graph.addNode(new Node<>(new Point(1, 1)));
+        assertNull(ContractionHierarchy.build(graph).findPath(new Point(0, 0), new Point(1, 1)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownPointThrows() {
+        Graph<Point, Double> graph = new Graph<>();
+        graph.addNode(new Node<>(new Point(0, 0)));
+        ContractionHierarchy.build(graph).findPath(new Point(0, 0), new Point(5, 5));
+    }
+
+    /**
+     * @param side The number of rows and columns.
+     * @return An empty grid of nodes.
+     */
+    @SuppressWarnings("unchecked")
+    private static Node<Point, Double>[][] newGrid(int side) {
+        return (Node<Point, Double>[][]) new Node<?, ?>[side][side];
+    }
+}
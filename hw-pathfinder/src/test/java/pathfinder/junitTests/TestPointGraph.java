@@ -0,0 +1,132 @@
+package pathfinder.junitTests;
+
+import graph.Graph;
+import graph.Node;
+import org.junit.Test;
+import pathfinder.AStar;
+import pathfinder.Dijkstra;
+import pathfinder.PointGraph;
+import pathfinder.datastructures.Path;
+import pathfinder.datastructures.Point;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class TestPointGraph {
+
+    private static final double EPSILON = Math.pow(10.0D, -9.0D); // Accuracy required to 1 PPB
+
+    /**
+     * @param graph The graph.
+     * @param a One end of the edge.
+     * @param b The other end of the edge.
+     * @param cost The cost of the edge.
+     */
+    private static void addEdge(Graph<Point, Double> graph, Node<Point, Double> a, Node<Point, Double> b,
+                                double cost) {
+        graph.addEdge(a, b, cost);
+        graph.addEdge(b, a, cost);
+    }
+
+    @Test
+    public void testIdsNumberEveryPoint() {
+        Graph<Point, Double> graph = new Graph<>();
+        for (int i = 0; i < 5; i++) {
+            graph.addNode(new Node<>(new Point(i, i)));
+        }
+        PointGraph points = new PointGraph(graph);
+        assertEquals(5, points.size());
+        for (int id = 0; id < points.size(); id++) {
+            assertEquals(id, points.id(points.point(id)));
+        }
+        assertEquals(PointGraph.NONE, points.id(new Point(9, 9)));
+    }
+
+    @Test
+    public void testMatchesGraphSearchesOnRandomGrid() {
+        Random random = new Random(331);
+        Graph<Point, Double> graph = new Graph<>();
+        int side = 12;
+        Node<Point, Double>[] row = newRow(side);
+        for (int y = 0; y < side; y++) {
+            for (int x = 0; x < side; x++) {
+                Node<Point, Double> node = new Node<>(new Point(x, y));
+                graph.addNode(node);
+                if (x > 0) {
+                    addEdge(graph, row[x - 1], node, 1 + random.nextInt(100) / 10.0);
+                }
+                if (row[x] != null) {
+                    addEdge(graph, row[x], node, 1 + random.nextInt(100) / 10.0);
+                }
+                row[x] = node;
+            }
+        }
+        PointGraph points = new PointGraph(graph);
+        double scale = points.admissibleScale();
+        assertEquals(AStar.admissibleScale(graph), scale, EPSILON);
+        for (int i = 0; i < 200; i++) {
+            int start = random.nextInt(points.size());
+            int end = random.nextInt(points.size());
+            Path<Point> expected = Dijkstra.dijkstraAlgorithm(points.point(start), points.point(end), graph);
+            assertEquals(expected.getCost(), points.dijkstra(start, end).getCost(), EPSILON);
+            assertEquals(expected.getCost(), points.aStar(start, end, scale).getCost(), EPSILON);
+            assertEquals(points.point(start), points.dijkstra(start, end).getStart());
+            assertEquals(points.point(end), points.aStar(start, end, scale).getEnd());
+        }
+    }
+
+    @Test
+    public void testPathToSelfIsEmpty() {
+        Graph<Point, Double> graph = new Graph<>();
+        Node<Point, Double> a = new Node<>(new Point(0, 0));
+        Node<Point, Double> b = new Node<>(new Point(1, 0));
+        graph.addNode(a);
+        graph.addNode(b);
+        addEdge(graph, a, b, 1.0);
+        PointGraph points = new PointGraph(graph);
+        int id = points.id(a.getLabel());
+        assertEquals(new Path<>(a.getLabel()), points.dijkstra(id, id));
+    }
+
+    @Test
+    public void testUnreachableIsNull() {
+        Graph<Point, Double> graph = new Graph<>();
+        graph.addNode(new Node<>(new Point(0, 0)));
+        graph.addNode(new Node<>(new Point(1, 1)));
+        PointGraph points = new PointGraph(graph);
+        assertNull(points.dijkstra(0, 1));
+        assertNull(points.aStar(0, 1, 1.0));
+    }
+
+    @Test
+    public void testToGraphHasSameEdges() {
+        Graph<Point, Double> graph = new Graph<>();
+        Node<Point, Double> a = new Node<>(new Point(0, 0));
+        Node<Point, Double> b = new Node<>(new Point(3, 4));
+        graph.addNode(a);
+        graph.addNode(b);
+        addEdge(graph, a, b, 6.0);
+        PointGraph points = new PointGraph(graph);
+        assertEquals(2, points.edgeCount());
+        Path<Point> path = Dijkstra.dijkstraAlgorithm(a.getLabel(), b.getLabel(), points.toGraph());
+        assertEquals(6.0, path.getCost(), EPSILON);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownIdThrows() {
+        Graph<Point, Double> graph = new Graph<>();
+        graph.addNode(new Node<>(new Point(0, 0)));
+        new PointGraph(graph).dijkstra(0, 1);
+    }
+
+    /**
+     * @param side The number of columns.
+     * @return An empty row of nodes.
+     */
+    @SuppressWarnings("unchecked")
+    private static Node<Point, Double>[] newRow(int side) {
+        return (Node<Point, Double>[]) new Node<?, ?>[side];
+    }
+}
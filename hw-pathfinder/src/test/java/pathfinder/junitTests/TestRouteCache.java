@@ -0,0 +1,183 @@
+package pathfinder.junitTests;
+
+import org.junit.Test;
+import pathfinder.CampusMap;
+import pathfinder.RouteCache;
+import pathfinder.datastructures.Path;
+import pathfinder.datastructures.Point;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class TestRouteCache {
+
+    private static final double EPSILON = Math.pow(10.0D, -9.0D); // Accuracy required to 1 PPB
+
+    /**
+     * Routes from a point named by its x coordinate to another, one step, counting searches
+     */
+    private static class Router implements BiFunction<String, String, Path<Point>> {
+        private final AtomicInteger searches = new AtomicInteger();
+
+        @Override
+        public Path<Point> apply(String start, String end) {
+            searches.incrementAndGet();
+            Point from = new Point(Double.parseDouble(start), 0);
+            Point to = new Point(Double.parseDouble(end), 0);
+            return from.equals(to) ? new Path<>(from) : new Path<>(from).extend(to, Math.abs(from.getX() - to.getX()));
+        }
+    }
+
+    @Test
+    public void testSecondLookupHits() {
+        RouteCache cache = new RouteCache(4, false);
+        Router router = new Router();
+        Path<Point> first = cache.get("1", "2", router);
+        assertSame(first, cache.get("1", "2", router));
+        assertEquals(1, router.searches.get());
+        assertEquals(1, cache.hits());
+        assertEquals(1, cache.misses());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void testEvictsLeastRecentlyUsed() {
+        RouteCache cache = new RouteCache(2, false);
+        Router router = new Router();
+        cache.get("1", "2", router);
+        cache.get("1", "3", router);
+        cache.get("1", "2", router);
+        cache.get("1", "4", router);
+        assertEquals(1, cache.evictions());
+        assertEquals(2, cache.size());
+        cache.get("1", "2", router);
+        assertEquals(2, cache.hits());
+        cache.get("1", "3", router);
+        assertEquals(4, cache.misses());
+    }
+
+    @Test
+    public void testReusesReverseRoute() {
+        RouteCache cache = new RouteCache(4, true);
+        Router router = new Router();
+        cache.get("1", "5", router);
+        Path<Point> reversed = cache.get("5", "1", router);
+        assertEquals(1, router.searches.get());
+        assertEquals(1, cache.reverseHits());
+        assertEquals(new Point(5, 0), reversed.getStart());
+        assertEquals(new Point(1, 0), reversed.getEnd());
+        assertEquals(4.0, reversed.getCost(), EPSILON);
+        assertSame(reversed, cache.get("5", "1", router));
+    }
+
+    @Test
+    public void testDoesNotReverseUnlessAsked() {
+        RouteCache cache = new RouteCache(4, false);
+        Router router = new Router();
+        cache.get("1", "5", router);
+        cache.get("5", "1", router);
+        assertEquals(2, router.searches.get());
+        assertEquals(0, cache.reverseHits());
+    }
+
+    @Test
+    public void testRemembersMissingRoutes() {
+        RouteCache cache = new RouteCache(4, true);
+        AtomicInteger searches = new AtomicInteger();
+        BiFunction<String, String, Path<Point>> none = (start, end) -> {
+            searches.incrementAndGet();
+            return null;
+        };
+        assertNull(cache.get("A", "B", none));
+        assertNull(cache.get("A", "B", none));
+        assertNull(cache.get("B", "A", none));
+        assertEquals(1, searches.get());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testZeroCapacityThrows() {
+        new RouteCache(0, true);
+    }
+
+    @Test
+    public void testCampusMapCacheMatchesSearch() {
+        CampusMap plain = new CampusMap();
+        CampusMap cached = new CampusMap(false, 16);
+        String[] buildings = {"CSE", "MGH", "KNE", "SUZ", "PAR"};
+        for (int round = 0; round < 2; round++) {
+            for (String start : buildings) {
+                for (String end : buildings) {
+                    Path<Point> expected = plain.findShortestPath(start, end);
+                    Path<Point> path = cached.findShortestPath(start, end);
+                    assertEquals(expected, path);
+                    assertEquals(expected.getCost(), path.getCost(), EPSILON);
+                }
+            }
+        }
+        RouteCache cache = cached.getRouteCache();
+        assertEquals(50, cache.hits() + cache.reverseHits() + cache.misses());
+        assertEquals(16, cache.size());
+        assertNull(plain.getRouteCache());
+    }
+
+    @Test
+    public void testReverseHitEqualsSearch() {
+        CampusMap plain = new CampusMap();
+        List<String> buildings = new ArrayList<>(plain.buildingNames().keySet());
+        int pairs = buildings.size() * (buildings.size() - 1) / 2;
+        CampusMap cached = new CampusMap(false, 2 * pairs);
+        for (int a = 0; a < buildings.size(); a++) {
+            for (int b = a + 1; b < buildings.size(); b++) {
+                cached.findShortestPath(buildings.get(a), buildings.get(b));
+                Path<Point> reversed = cached.findShortestPath(buildings.get(b), buildings.get(a));
+                Path<Point> expected = plain.findShortestPath(buildings.get(b), buildings.get(a));
+                assertEquals(expected, reversed);
+                assertEquals(expected.getCost(), reversed.getCost(), 0);
+            }
+        }
+        assertEquals(pairs, cached.getRouteCache().reverseHits());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCampusMapCacheUnknownBuildingThrows() {
+        new CampusMap(false, 16).findShortestPath("CSE", "NOT A BUILDING");
+    }
+
+    @Test
+    public void testConcurrentLookups() throws Exception {
+        RouteCache cache = new RouteCache(8, true);
+        Router router = new Router();
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                int seed = t;
+                futures.add(pool.submit(() -> {
+                    for (int i = 0; i < 2000; i++) {
+                        int a = (i * 7 + seed) % 12;
+                        int b = (i * 5 + 3 * seed) % 12;
+                        Path<Point> path = cache.get(Integer.toString(a), Integer.toString(b), router);
+                        assertEquals(Math.abs(a - b), path.getCost(), EPSILON);
+                        assertEquals(new Point(a, 0), path.getStart());
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+        assertEquals(8000, cache.hits() + cache.reverseHits() + cache.misses());
+        assertEquals(8, cache.size());
+    }
+}
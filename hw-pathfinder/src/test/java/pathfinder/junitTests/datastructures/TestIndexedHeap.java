@@ -0,0 +1,174 @@
+package pathfinder.junitTests.datastructures;
+
+import org.junit.Test;
+import pathfinder.datastructures.IndexedHeap;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TestIndexedHeap {
+
+    private static final double EPSILON = Math.pow(10.0D, -9.0D); // Accuracy required to 1 PPB
+
+    @Test
+    public void testNewHeapIsEmpty() {
+        IndexedHeap heap = new IndexedHeap(4);
+        assertTrue(heap.isEmpty());
+        assertEquals(0, heap.size());
+        assertFalse(heap.contains(0));
+    }
+
+    @Test
+    public void testPollsInKeyOrder() {
+        IndexedHeap heap = new IndexedHeap(5);
+        heap.insert(0, 3.0);
+        heap.insert(1, 1.0);
+        heap.insert(2, 4.0);
+        heap.insert(3, 1.5);
+        heap.insert(4, 0.5);
+        assertEquals(5, heap.size());
+        assertEquals(4, heap.peek());
+        int[] order = new int[5];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = heap.poll();
+        }
+        assertArrayEquals(new int[] {4, 1, 3, 0, 2}, order);
+        assertTrue(heap.isEmpty());
+    }
+
+    @Test
+    public void testEqualKeysPollInIdOrder() {
+        IndexedHeap heap = new IndexedHeap(3);
+        heap.insert(2, 1.0);
+        heap.insert(0, 1.0);
+        heap.insert(1, 1.0);
+        assertEquals(0, heap.poll());
+        assertEquals(1, heap.poll());
+        assertEquals(2, heap.poll());
+    }
+
+    @Test
+    public void testDecreaseKeyMovesIdForward() {
+        IndexedHeap heap = new IndexedHeap(3);
+        heap.insert(0, 1.0);
+        heap.insert(1, 2.0);
+        heap.insert(2, 3.0);
+        heap.decreaseKey(2, 0.5);
+        assertEquals(0.5, heap.key(2), EPSILON);
+        assertEquals(3, heap.size());
+        assertEquals(2, heap.poll());
+        assertEquals(0, heap.poll());
+    }
+
+    @Test
+    public void testChangeKeyRaisesAndLowers() {
+        IndexedHeap heap = new IndexedHeap(4, 2);
+        for (int id = 0; id < 4; id++) {
+            heap.insert(id, id);
+        }
+        heap.changeKey(0, 10.0);
+        assertEquals(1, heap.peek());
+        heap.changeKey(3, -1.0);
+        assertEquals(3, heap.poll());
+        assertEquals(1, heap.poll());
+        assertEquals(2, heap.poll());
+        assertEquals(0, heap.poll());
+    }
+
+    @Test
+    public void testOfferInsertsOrLowers() {
+        IndexedHeap heap = new IndexedHeap(2);
+        assertTrue(heap.offer(1, 5.0));
+        assertFalse(heap.offer(1, 6.0));
+        assertEquals(5.0, heap.key(1), EPSILON);
+        assertTrue(heap.offer(1, 2.0));
+        assertEquals(2.0, heap.key(1), EPSILON);
+        assertEquals(1, heap.size());
+    }
+
+    @Test
+    public void testGrowsPastCapacity() {
+        IndexedHeap heap = new IndexedHeap(0, 3);
+        for (int id = 99; id >= 0; id--) {
+            heap.insert(id, id);
+        }
+        for (int id = 0; id < 100; id++) {
+            assertEquals(id, heap.poll());
+        }
+    }
+
+    @Test
+    public void testPolledIdCanBeInsertedAgain() {
+        IndexedHeap heap = new IndexedHeap(1);
+        heap.insert(0, 1.0);
+        assertEquals(0, heap.poll());
+        assertFalse(heap.contains(0));
+        heap.insert(0, 2.0);
+        assertEquals(2.0, heap.key(0), EPSILON);
+    }
+
+    @Test
+    public void testClearEmptiesHeap() {
+        IndexedHeap heap = new IndexedHeap(3);
+        heap.insert(0, 1.0);
+        heap.insert(2, 2.0);
+        heap.clear();
+        assertTrue(heap.isEmpty());
+        assertFalse(heap.contains(2));
+        heap.insert(2, 3.0);
+        assertEquals(2, heap.poll());
+    }
+
+    @Test
+    public void testMatchesSortingWithRandomDecreases() {
+        Random random = new Random(331);
+        for (int arity = 2; arity <= 5; arity++) {
+            double[] keys = new double[200];
+            IndexedHeap heap = new IndexedHeap(16, arity);
+            for (int id = 0; id < keys.length; id++) {
+                keys[id] = random.nextDouble() * 100;
+                heap.insert(id, keys[id]);
+            }
+            for (int i = 0; i < 400; i++) {
+                int id = random.nextInt(keys.length);
+                keys[id] -= random.nextDouble() * 10;
+                heap.decreaseKey(id, keys[id]);
+            }
+            double[] sorted = keys.clone();
+            Arrays.sort(sorted);
+            for (double key : sorted) {
+                assertEquals(key, keys[heap.poll()], EPSILON);
+            }
+        }
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void testPollEmptyThrows() {
+        new IndexedHeap(1).poll();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInsertTwiceThrows() {
+        IndexedHeap heap = new IndexedHeap(1);
+        heap.insert(0, 1.0);
+        heap.insert(0, 2.0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testIncreaseKeyThrows() {
+        IndexedHeap heap = new IndexedHeap(1);
+        heap.insert(0, 1.0);
+        heap.decreaseKey(0, 2.0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testArityOneThrows() {
+        new IndexedHeap(1, 1);
+    }
+}
@@ -0,0 +1,102 @@
+package pathfinder.junitTests.datastructures;
+
+import org.junit.Test;
+import pathfinder.datastructures.Point;
+import pathfinder.datastructures.PointIndex;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class TestPointIndex {
+
+    private static final double EPSILON = Math.pow(10.0D, -9.0D); // Accuracy required to 1 PPB
+
+    private static List<Point> randomPoints(Random random, int count) {
+        List<Point> points = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            points.add(new Point(random.nextInt(1000) / 4.0, random.nextInt(1000) / 4.0));
+        }
+        return points;
+    }
+
+    private static double distance(Point a, Point b) {
+        return Math.hypot(a.getX() - b.getX(), a.getY() - b.getY());
+    }
+
+    @Test
+    public void testEmptyIndexHasNoNearest() {
+        PointIndex index = new PointIndex(Collections.emptyList());
+        assertEquals(0, index.size());
+        assertNull(index.nearest(new Point(1, 2)));
+        assertTrue(index.within(new Point(1, 2), 100).isEmpty());
+    }
+
+    @Test
+    public void testNearestOfIndexedPointIsItself() {
+        List<Point> points = Arrays.asList(new Point(0, 0), new Point(5, 1), new Point(-3, 4), new Point(2, 2));
+        PointIndex index = new PointIndex(points);
+        assertEquals(4, index.size());
+        for (Point point : points) {
+            assertEquals(point, index.nearest(point));
+        }
+    }
+
+    @Test
+    public void testNearestMatchesLinearScan() {
+        Random random = new Random(331);
+        List<Point> points = randomPoints(random, 500);
+        PointIndex index = new PointIndex(points);
+        for (Point target : randomPoints(random, 200)) {
+            double best = Double.POSITIVE_INFINITY;
+            for (Point point : points) {
+                best = Math.min(best, distance(point, target));
+            }
+            assertEquals(best, distance(index.nearest(target), target), EPSILON);
+        }
+    }
+
+    @Test
+    public void testWithinMatchesLinearScanNearestFirst() {
+        Random random = new Random(331);
+        List<Point> points = randomPoints(random, 500);
+        PointIndex index = new PointIndex(points);
+        for (Point center : randomPoints(random, 50)) {
+            double radius = random.nextDouble() * 40;
+            List<Point> found = index.within(center, radius);
+            int expected = 0;
+            for (Point point : points) {
+                if (distance(point, center) <= radius) {
+                    expected++;
+                    assertTrue(found.contains(point));
+                }
+            }
+            assertEquals(expected, found.size());
+            for (int i = 1; i < found.size(); i++) {
+                assertTrue(distance(found.get(i - 1), center) <= distance(found.get(i), center));
+            }
+        }
+    }
+
+    @Test
+    public void testWithinIncludesPointsOnTheBoundary() {
+        PointIndex index = new PointIndex(Arrays.asList(new Point(3, 4), new Point(6, 8)));
+        assertEquals(Collections.singletonList(new Point(3, 4)), index.within(new Point(0, 0), 5));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeRadiusThrows() {
+        new PointIndex(Collections.singletonList(new Point(0, 0))).within(new Point(0, 0), -1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNullPointThrows() {
+        new PointIndex(Arrays.asList(new Point(0, 0), null));
+    }
+}
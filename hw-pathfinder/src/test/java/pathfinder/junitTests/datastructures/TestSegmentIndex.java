@@ -0,0 +1,80 @@
+package pathfinder.junitTests.datastructures;
+
+import org.junit.Test;
+import pathfinder.datastructures.Point;
+import pathfinder.datastructures.SegmentIndex;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class TestSegmentIndex {
+
+    private static final double EPSILON = Math.pow(10.0D, -9.0D); // Accuracy required to 1 PPB
+
+    private static double distance(Point a, Point b) {
+        return Math.hypot(a.getX() - b.getX(), a.getY() - b.getY());
+    }
+
+    @Test
+    public void testEmptyIndexHasNoNearest() {
+        SegmentIndex index = new SegmentIndex(Collections.emptyList(), Collections.emptyList());
+        assertEquals(0, index.size());
+        assertEquals(-1, index.nearest(new Point(1, 2)));
+    }
+
+    @Test
+    public void testClosestPointIsProjectionOntoSegment() {
+        SegmentIndex index = new SegmentIndex(Arrays.asList(new Point(0, 0), new Point(0, 10)),
+                Arrays.asList(new Point(10, 0), new Point(10, 10)));
+        assertEquals(0, index.nearest(new Point(4, 3)));
+        assertEquals(0.4, index.fraction(0, new Point(4, 3)), EPSILON);
+        assertEquals(new Point(4, 0), index.closest(0, new Point(4, 3)));
+        assertEquals(1, index.nearest(new Point(7, 8)));
+    }
+
+    @Test
+    public void testClosestPointPastTheEndIsTheEnd() {
+        SegmentIndex index = new SegmentIndex(Collections.singletonList(new Point(0, 0)),
+                Collections.singletonList(new Point(10, 0)));
+        assertEquals(0, index.fraction(0, new Point(-5, 2)), EPSILON);
+        assertEquals(new Point(0, 0), index.closest(0, new Point(-5, 2)));
+        assertEquals(new Point(10, 0), index.closest(0, new Point(12, -1)));
+    }
+
+    @Test
+    public void testNearestMatchesLinearScan() {
+        Random random = new Random(331);
+        List<Point> starts = new ArrayList<>();
+        List<Point> ends = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            Point start = new Point(random.nextInt(1000), random.nextInt(1000));
+            starts.add(start);
+            ends.add(new Point(start.getX() + random.nextInt(60) - 30, start.getY() + random.nextInt(60) - 30));
+        }
+        SegmentIndex index = new SegmentIndex(starts, ends);
+        for (int i = 0; i < 200; i++) {
+            Point target = new Point(random.nextDouble() * 1000, random.nextDouble() * 1000);
+            double best = Double.POSITIVE_INFINITY;
+            for (int segment = 0; segment < index.size(); segment++) {
+                best = Math.min(best, distance(index.closest(segment, target), target));
+            }
+            assertEquals(best, distance(index.closest(index.nearest(target), target), target), EPSILON);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMismatchedListsThrow() {
+        new SegmentIndex(Collections.singletonList(new Point(0, 0)), Collections.emptyList());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownSegmentThrows() {
+        new SegmentIndex(Collections.singletonList(new Point(0, 0)),
+                Collections.singletonList(new Point(1, 1))).start(1);
+    }
+}